@@ -7,7 +7,8 @@ import java.lang.annotation.Target;
 
 /**
  * Указывает что, поле класса является полем представления объекта. Применима к
- * полям POJO-классов.
+ * полям POJO-классов. У компонента записи (record) аннотация переопределяет
+ * имя и правило включения поля представления.
  *
  * @see  RstPojo
  * @see  RstGetter
@@ -24,4 +25,12 @@ public @interface RstField {
      */
     String value() default "";
 
+    /**
+     * (Необязательно) Возвращает правило включения поля в представление
+     * объекта в зависимости от его значения.
+     *
+     * @return  Правило включения.
+     */
+    RstInclude include() default RstInclude.DEFAULT;
+
 }
@@ -7,7 +7,8 @@ import java.lang.annotation.Target;
 
 /**
  * Указывает что, метод класса является полем представления объекта. Применима к
- * методам POJO-классов без параметров.
+ * методам POJO-классов без параметров. У метода доступа к компоненту записи
+ * (record) аннотация переопределяет поле представления этого компонента.
  *
  * @see  RstPojo
  * @see  RstField
@@ -24,4 +25,22 @@ public @interface RstGetter {
      */
     String value();
 
+    /**
+     * (Необязательно) Возвращает правило включения поля в представление
+     * объекта в зависимости от его значения.
+     *
+     * @return  Правило включения.
+     */
+    RstInclude include() default RstInclude.DEFAULT;
+
+    /**
+     * (Необязательно) Указывает, что метод выполняется долго и должен
+     * вызываться параллельно с другими такими методами объекта. Если метод
+     * возвращает {@code java.util.concurrent.Future}, то в представление
+     * объекта попадает результат его выполнения, независимо от этого флага.
+     *
+     * @return  {@code true}, если метод вызывается параллельно.
+     */
+    boolean parallel() default false;
+
 }
@@ -0,0 +1,41 @@
+package com.github.amsemy.resty.json.annotation;
+
+/**
+ * Правило включения поля в представление объекта в зависимости от его
+ * значения.
+ *
+ * @see  RstField#include()
+ * @see  RstGetter#include()
+ */
+public enum RstInclude {
+
+    /**
+     * Используется правило, заданное для всех преобразований.
+     */
+    DEFAULT,
+
+    /**
+     * Поле включается всегда.
+     */
+    ALWAYS,
+
+    /**
+     * Поле не включается, если его значение равно {@code null}.
+     */
+    NON_NULL,
+
+    /**
+     * Поле не включается, если его значение равно {@code null}, является
+     * пустой строкой, пустым массивом, пустой коллекцией или пустым
+     * отображением.
+     */
+    NON_EMPTY,
+
+    /**
+     * Поле не включается, если оно не включается по правилу
+     * {@link #NON_EMPTY}, а также если его значение является нулём или
+     * {@code false}.
+     */
+    NON_DEFAULT
+
+}
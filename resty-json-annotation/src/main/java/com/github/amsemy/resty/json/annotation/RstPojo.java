@@ -11,7 +11,9 @@ import java.lang.annotation.Target;
  * поля и методы класса, которые отмечены аннотациями {@link RstField} и
  * {@link RstGetter}. Унаследованые поля попадают в представление, если предок
  * класса отмечен этой аннотацией. Аннотация применима к POJO-классам.
- * Несовместима с аннотацией {@link RstType}.
+ * Несовместима с аннотацией {@link RstType}. Записи (record) преобразуются и
+ * без аннотации: их компоненты становятся полями представления в порядке
+ * объявления, за ними следуют методы, отмеченные {@link RstGetter}.
  *
  * @see  RstField
  * @see  RstGetter
@@ -0,0 +1,61 @@
+package com.github.amsemy.resty.json;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Reader of a value of a POJO member. This implementation uses reflection;
+ * the multi-release JAR contains a faster one for Java 17 and later, which
+ * generates accessor classes.
+ */
+abstract class RestyAccessor {
+
+    /**
+     * Reads a value of the member.
+     *
+     * @param  object
+     *         the POJO.
+     * @return  a value.
+     * @throws  ReflectiveOperationException
+     *          if the value cann't be read; an exception thrown by a getter
+     *          is wrapped in an {@code InvocationTargetException}.
+     */
+    abstract Object get(Object object) throws ReflectiveOperationException;
+
+    /**
+     * Creates a reader of the field.
+     *
+     * @param  field
+     *         the accessible field.
+     * @return  an accessor.
+     */
+    static RestyAccessor of(final Field field) {
+        return new RestyAccessor() {
+
+            @Override
+            Object get(Object object) throws IllegalAccessException {
+                return field.get(object);
+            }
+
+        };
+    }
+
+    /**
+     * Creates a reader of the getter.
+     *
+     * @param  method
+     *         the accessible method without parameters.
+     * @return  an accessor.
+     */
+    static RestyAccessor of(final Method method) {
+        return new RestyAccessor() {
+
+            @Override
+            Object get(Object object) throws ReflectiveOperationException {
+                return method.invoke(object);
+            }
+
+        };
+    }
+
+}
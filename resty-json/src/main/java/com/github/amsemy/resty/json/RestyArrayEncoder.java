@@ -0,0 +1,49 @@
+package com.github.amsemy.resty.json;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Encoder into a heap buffer that grows as needed.
+ */
+final class RestyArrayEncoder extends RestyJsonEncoder {
+
+    /**
+     * Creates an encoder.
+     *
+     * @param  capacity
+     *         the initial capacity of the buffer.
+     */
+    RestyArrayEncoder(int capacity) {
+        super(ByteBuffer.allocate(Math.max(capacity, MIN_BUFFER_SIZE)));
+    }
+
+    /**
+     * Returns the number of encoded bytes.
+     *
+     * @return  the number of bytes.
+     */
+    int size() {
+        return buffer.position();
+    }
+
+    /**
+     * Returns a copy of encoded bytes.
+     *
+     * @param  from
+     *         the offset of the first byte.
+     * @param  to
+     *         the offset after the last byte.
+     * @return  the bytes.
+     */
+    byte[] toByteArray(int from, int to) {
+        return Arrays.copyOfRange(buffer.array(), from, to);
+    }
+
+    @Override
+    protected ByteBuffer overflow(ByteBuffer full) {
+        full.flip();
+        return ByteBuffer.allocate(full.capacity() * 2).put(full);
+    }
+
+}
@@ -0,0 +1,160 @@
+package com.github.amsemy.resty.json;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of direct byte buffers. Buffers are grouped in size classes, which are
+ * powers of two between the minimum and the maximum size; a request is served
+ * by a buffer of the smallest class that fits it. Larger requests are served
+ * by buffers that aren't pooled. Released buffers are kept until the total
+ * size of kept buffers reaches the limit.
+ *
+ * <p>Pools are thread-safe.
+ */
+public final class RestyBufferPool {
+
+    /**
+     * Default size of the smallest class.
+     */
+    public static final int DEFAULT_MIN_SIZE = 4096;
+
+    /**
+     * Default size of the largest class.
+     */
+    public static final int DEFAULT_MAX_SIZE = 262144;
+
+    /**
+     * Default limit of the total size of kept buffers.
+     */
+    public static final long DEFAULT_MAX_POOLED = 64L * 1024 * 1024;
+
+    private static final RestyBufferPool DEFAULT = new RestyBufferPool(
+            DEFAULT_MIN_SIZE, DEFAULT_MAX_SIZE, DEFAULT_MAX_POOLED);
+
+    private final int minShift;
+    private final int maxShift;
+    private final long maxPooled;
+    private final Queue<ByteBuffer>[] classes;
+    private final AtomicLong pooled = new AtomicLong();
+
+    /**
+     * Creates a pool.
+     *
+     * @param  minSize
+     *         the size of the smallest class, a power of two.
+     * @param  maxSize
+     *         the size of the largest class, a power of two.
+     * @param  maxPooled
+     *         the limit of the total size of kept buffers.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public RestyBufferPool(int minSize, int maxSize, long maxPooled) {
+        if (Integer.bitCount(minSize) != 1 || Integer.bitCount(maxSize) != 1
+                || minSize < RestyJsonEncoder.MIN_BUFFER_SIZE
+                || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid size classes");
+        }
+        if (maxPooled < 0) {
+            throw new IllegalArgumentException("Negative pool limit");
+        }
+        minShift = Integer.numberOfTrailingZeros(minSize);
+        maxShift = Integer.numberOfTrailingZeros(maxSize);
+        this.maxPooled = maxPooled;
+        classes = new Queue[maxShift - minShift + 1];
+        for (int i = 0; i < classes.length; i ++) {
+            classes[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    /**
+     * Returns the pool shared by default.
+     *
+     * @return  the pool.
+     */
+    public static RestyBufferPool getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns the size of the smallest class.
+     *
+     * @return  the size.
+     */
+    public int getMinSize() {
+        return 1 << minShift;
+    }
+
+    /**
+     * Returns the size of the largest class.
+     *
+     * @return  the size.
+     */
+    public int getMaxSize() {
+        return 1 << maxShift;
+    }
+
+    /**
+     * Returns the total size of kept buffers.
+     *
+     * @return  the number of bytes.
+     */
+    public long getPooledBytes() {
+        return pooled.get();
+    }
+
+    /**
+     * Takes a cleared direct buffer from the pool or allocates a new one.
+     *
+     * @param  capacity
+     *         the minimum capacity.
+     * @return  a buffer.
+     */
+    public ByteBuffer acquire(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Negative capacity");
+        }
+        int shift = Math.max(minShift,
+                32 - Integer.numberOfLeadingZeros(capacity - 1));
+        if (capacity == 0 || shift > maxShift) {
+            return ByteBuffer.allocateDirect(capacity == 0
+                    ? getMinSize() : capacity);
+        }
+        ByteBuffer result = classes[shift - minShift].poll();
+        if (result == null) {
+            return ByteBuffer.allocateDirect(1 << shift);
+        }
+        pooled.addAndGet(-result.capacity());
+        result.clear();
+        return result;
+    }
+
+    /**
+     * Returns a buffer to the pool. Buffers that don't belong to any class
+     * and buffers exceeding the limit are left to the garbage collector. The
+     * buffer must not be used after the release.
+     *
+     * @param  buffer
+     *         the buffer.
+     */
+    public void release(ByteBuffer buffer) {
+        int capacity = buffer.capacity();
+        if (!buffer.isDirect() || buffer.isReadOnly()
+                || Integer.bitCount(capacity) != 1) {
+            return;
+        }
+        int shift = Integer.numberOfTrailingZeros(capacity);
+        if (shift < minShift || shift > maxShift) {
+            return;
+        }
+        if (pooled.addAndGet(capacity) > maxPooled) {
+            pooled.addAndGet(-capacity);
+            return;
+        }
+        buffer.clear();
+        classes[shift - minShift].offer(buffer);
+    }
+
+}
@@ -0,0 +1,172 @@
+package com.github.amsemy.resty.json;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonValue;
+
+/**
+ * Output of JSON events into builders of JSON models.
+ */
+final class RestyBuilderWriter extends RestyJsonWriter {
+
+    private final List<Object> builders = new ArrayList<>();
+    private final List<String> names = new ArrayList<>();
+    private String name;
+
+    /**
+     * Creates a writer. Events must form members of the object or elements
+     * of the array, which the root builder creates.
+     *
+     * @param  root
+     *         the builder of an object or of an array.
+     */
+    RestyBuilderWriter(Object root) {
+        builders.add(root);
+        names.add(null);
+    }
+
+    @Override
+    public void writeStartObject() {
+        start(Json.createObjectBuilder());
+    }
+
+    @Override
+    public void writeStartArray() {
+        start(Json.createArrayBuilder());
+    }
+
+    @Override
+    public void writeEnd() {
+        int last = builders.size() - 1;
+        if (last == 0) {
+            throw new IllegalStateException("No object or array to end");
+        }
+        Object builder = builders.remove(last);
+        name = names.remove(last);
+        Object parent = builders.get(last - 1);
+        if (parent instanceof JsonObjectBuilder) {
+            if (builder instanceof JsonObjectBuilder) {
+                ((JsonObjectBuilder) parent).add(takeName(),
+                        (JsonObjectBuilder) builder);
+            } else {
+                ((JsonObjectBuilder) parent).add(takeName(),
+                        (JsonArrayBuilder) builder);
+            }
+        } else {
+            if (builder instanceof JsonObjectBuilder) {
+                ((JsonArrayBuilder) parent).add((JsonObjectBuilder) builder);
+            } else {
+                ((JsonArrayBuilder) parent).add((JsonArrayBuilder) builder);
+            }
+        }
+    }
+
+    @Override
+    public void writeName(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public void writeString(String value) {
+        Object top = top();
+        if (top instanceof JsonObjectBuilder) {
+            ((JsonObjectBuilder) top).add(takeName(), value);
+        } else {
+            ((JsonArrayBuilder) top).add(value);
+        }
+    }
+
+    @Override
+    public void writeNumber(long value) {
+        Object top = top();
+        if (top instanceof JsonObjectBuilder) {
+            ((JsonObjectBuilder) top).add(takeName(), value);
+        } else {
+            ((JsonArrayBuilder) top).add(value);
+        }
+    }
+
+    @Override
+    public void writeNumber(double value) {
+        Object top = top();
+        if (top instanceof JsonObjectBuilder) {
+            ((JsonObjectBuilder) top).add(takeName(), value);
+        } else {
+            ((JsonArrayBuilder) top).add(value);
+        }
+    }
+
+    @Override
+    public void writeNumber(BigDecimal value) {
+        Object top = top();
+        if (top instanceof JsonObjectBuilder) {
+            ((JsonObjectBuilder) top).add(takeName(), value);
+        } else {
+            ((JsonArrayBuilder) top).add(value);
+        }
+    }
+
+    @Override
+    public void writeNumber(BigInteger value) {
+        Object top = top();
+        if (top instanceof JsonObjectBuilder) {
+            ((JsonObjectBuilder) top).add(takeName(), value);
+        } else {
+            ((JsonArrayBuilder) top).add(value);
+        }
+    }
+
+    @Override
+    public void writeBoolean(boolean value) {
+        Object top = top();
+        if (top instanceof JsonObjectBuilder) {
+            ((JsonObjectBuilder) top).add(takeName(), value);
+        } else {
+            ((JsonArrayBuilder) top).add(value);
+        }
+    }
+
+    @Override
+    public void writeNull() {
+        Object top = top();
+        if (top instanceof JsonObjectBuilder) {
+            ((JsonObjectBuilder) top).addNull(takeName());
+        } else {
+            ((JsonArrayBuilder) top).addNull();
+        }
+    }
+
+    @Override
+    public void writeJsonValue(JsonValue value) {
+        Object top = top();
+        if (top instanceof JsonObjectBuilder) {
+            ((JsonObjectBuilder) top).add(takeName(), value);
+        } else {
+            ((JsonArrayBuilder) top).add(value);
+        }
+    }
+
+    private void start(Object builder) {
+        names.add(top() instanceof JsonObjectBuilder ? takeName() : null);
+        builders.add(builder);
+    }
+
+    private String takeName() {
+        String result = name;
+        if (result == null) {
+            throw new IllegalStateException("Name of the member expected");
+        }
+        name = null;
+        return result;
+    }
+
+    private Object top() {
+        return builders.get(builders.size() - 1);
+    }
+
+}
@@ -0,0 +1,868 @@
+package com.github.amsemy.resty.json;
+
+import com.github.amsemy.resty.json.annotation.RstField;
+import com.github.amsemy.resty.json.annotation.RstGetter;
+import com.github.amsemy.resty.json.annotation.RstInclude;
+import com.github.amsemy.resty.json.annotation.RstPojo;
+import com.github.amsemy.resty.json.annotation.RstType;
+import com.github.amsemy.resty.json.annotation.RstTypeValue;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonValue;
+
+/**
+ * Cached mapping of a class: the annotations it carries, its type adapter, the
+ * members of its JSON model and the accessor of its user defined type value.
+ * Members and the type value accessor are looked up once per class, so
+ * converting many objects of the same class doesn't repeat the reflection
+ * work.
+ */
+final class RestyClassPlan {
+
+    /**
+     * A member of the JSON model of a POJO.
+     */
+    static final class Member {
+
+        final String name;
+        final RestyEncodedString encodedName;
+
+        /**
+         * Plan of the declared class of the member, or {@code null} if
+         * values of the class aren't converted by plans.
+         */
+        final RestyClassPlan valuePlan;
+
+        /**
+         * Plan of the declared class of elements of an array, a collection
+         * or values of a map, or {@code null} if they aren't converted by
+         * plans.
+         */
+        final RestyClassPlan elementPlan;
+
+        /**
+         * Rule of including the member, never {@link RstInclude#DEFAULT}.
+         */
+        final RstInclude include;
+
+        /**
+         * Whether the member is declared as a {@link Future}, whose result is
+         * written instead of it.
+         */
+        final boolean async;
+
+        /**
+         * Whether the getter is called by an executor.
+         */
+        final boolean parallel;
+
+        /**
+         * Whether the value is started by {@link #start} and got by
+         * {@link #finish}.
+         */
+        final boolean deferred;
+
+        private final Field field;
+        private final Method method;
+        private final RestyAccessor accessor;
+
+        private Member(String name, RstInclude include, boolean parallel,
+                Field field, Method method) {
+            this.name = name;
+            this.include = (include == RstInclude.DEFAULT
+                    ? defaultInclude : include);
+            encodedName = new RestyEncodedString(name);
+            this.field = field;
+            this.method = method;
+            accessor = (field != null
+                    ? RestyAccessor.of(field) : RestyAccessor.of(method));
+            Type genericType = (field != null
+                    ? field.getGenericType() : method.getGenericReturnType());
+            async = Future.class.isAssignableFrom(field != null
+                    ? field.getType() : method.getReturnType());
+            if (async) {
+                genericType = (genericType instanceof ParameterizedType
+                        ? ((ParameterizedType) genericType)
+                                .getActualTypeArguments()[0]
+                        : Object.class);
+            }
+            this.parallel = parallel;
+            deferred = (async || parallel);
+            valuePlan = bind(genericType);
+            elementPlan = bind(getElementType(genericType));
+        }
+
+        /**
+         * Starts getting a value of the deferred member.
+         *
+         * @param  object
+         *         the POJO.
+         * @param  executor
+         *         the executor of parallel getters.
+         * @return  a started value for {@link #finish}.
+         * @throws  RestyMappingException
+         *          if the value cann't be got.
+         */
+        Object start(final Object object, Executor executor)
+                throws RestyMappingException {
+            if (parallel) {
+                FutureTask<Object> task = new FutureTask<>(
+                        new Callable<Object>() {
+
+                            @Override
+                            public Object call() throws Exception {
+                                return get(object);
+                            }
+
+                        });
+                executor.execute(task);
+                return task;
+            } else {
+                return get(object);
+            }
+        }
+
+        /**
+         * Awaits a value of the deferred member.
+         *
+         * @param  started
+         *         the value returned by {@link #start}.
+         * @return  a value.
+         * @throws  RestyMappingException
+         *          if the value cann't be got.
+         */
+        Object finish(Object started) throws RestyMappingException {
+            Object value = started;
+            if (parallel) {
+                value = await((Future<?>) value);
+            }
+            if (async && value != null) {
+                value = await((Future<?>) value);
+            }
+            return value;
+        }
+
+        /**
+         * Gets a value of the member in the calling thread, awaiting the
+         * result of a future.
+         *
+         * @param  object
+         *         the POJO.
+         * @return  a value.
+         * @throws  RestyMappingException
+         *          if the value cann't be got.
+         */
+        Object resolve(Object object) throws RestyMappingException {
+            Object value = get(object);
+            if (async && value != null) {
+                value = await((Future<?>) value);
+            }
+            return value;
+        }
+
+        private Object await(Future<?> future) throws RestyMappingException {
+            try {
+                return future.get();
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof RestyMappingException) {
+                    throw (RestyMappingException) ex.getCause();
+                }
+                throw getFailure();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw getFailure();
+            } catch (CancellationException ex) {
+                throw getFailure();
+            }
+        }
+
+        private RestyMappingException getFailure() {
+            return (field != null
+                    ? new RestyMappingException(MSG_POJO_GET_FAIL,
+                            field.getDeclaringClass().getName(),
+                            field.getName())
+                    : new RestyMappingException(MSG_POJO_GET_FAIL,
+                            method.getDeclaringClass().getName(),
+                            method.getName()));
+        }
+
+        boolean isOmitted(Object value) {
+            return (include != RstInclude.ALWAYS
+                    && RestyClassPlan.isOmitted(include, value));
+        }
+
+        /**
+         * Gets a value of the member.
+         *
+         * @param  object
+         *         the POJO.
+         * @return  a value.
+         * @throws  RestyMappingException
+         *          if the value cann't be got.
+         */
+        Object get(Object object) throws RestyMappingException {
+            try {
+                return accessor.get(object);
+            } catch (ReflectiveOperationException
+                    | IllegalArgumentException ex) {
+                throw getFailure();
+            }
+        }
+
+    }
+
+    private static final String MSG_ANNOTATION_ABSENT =
+            "Cann't find '%2$s' annotation in '%1$s' class";
+    private static final String MSG_ANNOTATION_DUPLICATION =
+            "Duplication of '%2$s' annotation in '%1$s' class";
+    private static final String MSG_ANNOTATION_INVALID_USING =
+            "Invalid annotation '%2$s' using in '%1$s' class";
+    private static final String MSG_POJO_FIELD_DUPLICATION =
+            "Duplication of pojo json field '%2$s' mapping in '%1$s' class";
+    private static final String MSG_POJO_GET_FAIL =
+            "Cann't get pojo field/method '%2$s' value in '%1$s' class";
+    private static final String MSG_TYPEVALUE_GET_FAIL =
+            "Cann't get type field/method '%2$s' value in '%1$s' class";
+
+    /**
+     * Way of converting objects of a class.
+     */
+    enum Kind {
+
+        /**
+         * A type adapter is registered for the class or its ancestor.
+         */
+        ADAPTER,
+
+        /**
+         * The class is annotated with {@link RstPojo} or is a record.
+         */
+        POJO,
+
+        /**
+         * The class is annotated with {@link RstType}.
+         */
+        TYPE,
+
+        /**
+         * The class is an enum; constants are written by names.
+         */
+        ENUM,
+
+        /**
+         * The class is {@link java.util.UUID}.
+         */
+        UUID,
+
+        /**
+         * The class is one of {@code java.time} classes formatted by
+         * {@link RestyTimeFormat}.
+         */
+        TIME,
+
+        /**
+         * Objects are written as strings returned by {@code toString()}.
+         */
+        VALUE
+
+    }
+
+    private static final ConcurrentMap<Class<?>, RestyClassPlan> PLANS =
+            new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Class<?>, RestyTypeAdapter<?>>
+            ADAPTERS = new ConcurrentHashMap<>();
+
+    private static volatile RstInclude defaultInclude = RstInclude.ALWAYS;
+
+    // Classes converted without plans, see RestySerializer.
+    private static final Class<?>[] BUILTIN_TYPES = {
+            BigDecimal.class, BigInteger.class, Boolean.class, Byte.class,
+            Character.class, Collection.class, Double.class, Float.class,
+            Integer.class, JsonArrayBuilder.class, JsonObjectBuilder.class,
+            JsonValue.class, Long.class, Map.class, Short.class, String.class};
+
+    // Compared by names, so that the classes aren't required at runtime.
+    private static final Set<String> TIME_TYPES = new HashSet<>(Arrays.asList(
+            "java.time.Instant",
+            "java.time.LocalDate",
+            "java.time.LocalDateTime",
+            "java.time.LocalTime",
+            "java.time.OffsetDateTime"));
+
+    private final Class<?> type;
+    private final boolean isPojo;
+    private final boolean isType;
+    private final Method[] recordAccessors;
+    private final Kind kind;
+    private final RestyTypeAdapter<Object> adapter;
+    private volatile Member[] members;
+    private boolean hasDeferred;
+    private volatile Map<String, Integer> memberIndex;
+    private volatile Member typeValue;
+    private volatile RestyEncodedString[] enumNames;
+    private volatile Map<Class<?>, RestyClassPlan> subtypes;
+
+    private RestyClassPlan(Class<?> type) {
+        this.type = type;
+        isPojo = (type.getAnnotation(RstPojo.class) != null);
+        isType = (type.getAnnotation(RstType.class) != null);
+        recordAccessors = RestyLanguage.getRecordAccessors(type);
+        adapter = findAdapter(type);
+        if (adapter != null) {
+            kind = Kind.ADAPTER;
+        } else if (isPojo) {
+            kind = Kind.POJO;
+        } else if (isType) {
+            kind = Kind.TYPE;
+        } else if (recordAccessors != null) {
+            kind = Kind.POJO;
+        } else if (Enum.class.isAssignableFrom(type)) {
+            kind = Kind.ENUM;
+        } else if (type == java.util.UUID.class) {
+            kind = Kind.UUID;
+        } else if (TIME_TYPES.contains(type.getName())) {
+            kind = Kind.TIME;
+        } else {
+            kind = Kind.VALUE;
+        }
+    }
+
+    /**
+     * Returns a plan of the class. Plans are created once per class.
+     *
+     * @param  type
+     *         the class.
+     * @return  a plan.
+     */
+    static RestyClassPlan get(Class<?> type) {
+        RestyClassPlan plan = PLANS.get(type);
+        if (plan == null) {
+            plan = new RestyClassPlan(type);
+            RestyClassPlan prev = PLANS.putIfAbsent(type, plan);
+            if (prev != null) {
+                plan = prev;
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * Registers a type adapter. Plans created before are dropped, so that
+     * the adapter is used for all subclasses.
+     *
+     * @param  type
+     *         the adapted class.
+     * @param  adapter
+     *         the adapter, or {@code null} to remove the registered one.
+     */
+    static void setAdapter(Class<?> type, RestyTypeAdapter<?> adapter) {
+        if (adapter == null) {
+            ADAPTERS.remove(type);
+        } else {
+            ADAPTERS.put(type, adapter);
+        }
+        PLANS.clear();
+    }
+
+    static RstInclude getDefaultInclude() {
+        return defaultInclude;
+    }
+
+    /**
+     * Sets the rule of including members, which aren't annotated with their
+     * own rule. Plans created before are dropped, since the rules are
+     * compiled into them.
+     *
+     * @param  include
+     *         the rule.
+     */
+    static void setDefaultInclude(RstInclude include) {
+        defaultInclude = (include == RstInclude.DEFAULT
+                ? RstInclude.ALWAYS : include);
+        PLANS.clear();
+    }
+
+    /**
+     * Tells whether a value is omitted by the rule.
+     *
+     * @param  include
+     *         the rule.
+     * @param  value
+     *         the value.
+     * @return  {@code true}, if the value is omitted.
+     */
+    static boolean isOmitted(RstInclude include, Object value) {
+        if (value == null) {
+            return (include != RstInclude.ALWAYS);
+        }
+        switch (include) {
+            case NON_DEFAULT:
+                if (isDefault(value)) {
+                    return true;
+                }
+                // Default values include empty ones.
+            case NON_EMPTY:
+                return isEmpty(value);
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Checks that the class isn't annotated as a POJO and as a user defined
+     * type at the same time.
+     *
+     * @throws  RestyMappingException
+     *          if both annotations are present.
+     */
+    void checkAnnotations() throws RestyMappingException {
+        if (isPojo && isType) {
+            throw new RestyMappingException(
+                    MSG_ANNOTATION_INVALID_USING,
+                    type.getName(), RstPojo.class.getSimpleName() + ", "
+                            + RstType.class.getSimpleName());
+        }
+    }
+
+    /**
+     * Returns members of the JSON model: the annotated members of the class
+     * and of its annotated ancestors. Components of a record go first, in
+     * order of declaration.
+     *
+     * @return  members of the JSON model.
+     * @throws  RestyMappingException
+     *          if there are errors of annotation using.
+     */
+    Member[] getMembers() throws RestyMappingException {
+        Member[] result = members;
+        if (result == null) {
+            Set<String> findedSet = new HashSet<>();
+            List<Member> list = new ArrayList<>();
+            if (recordAccessors != null) {
+                addComponents(findedSet, list);
+            }
+            Class<?> t = type;
+            while (true) {
+                addMembers(t, findedSet, list);
+                t = t.getSuperclass();
+                if (t == null || t.getAnnotation(RstPojo.class) == null) {
+                    break;
+                }
+            }
+            result = list.toArray(new Member[list.size()]);
+            for (Member m : result) {
+                hasDeferred |= m.deferred;
+            }
+            members = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns positions of members by their names.
+     *
+     * @return  positions of members in {@link #getMembers}.
+     * @throws  RestyMappingException
+     *          if there are errors of annotation using.
+     */
+    Map<String, Integer> getMemberIndex() throws RestyMappingException {
+        Map<String, Integer> result = memberIndex;
+        if (result == null) {
+            Member[] list = getMembers();
+            result = new HashMap<>();
+            for (int i = 0; i < list.length; i ++) {
+                result.put(list[i].name, i);
+            }
+            memberIndex = result;
+        }
+        return result;
+    }
+
+    /**
+     * Tells whether the JSON model has deferred members, which should be
+     * started before writing the object.
+     *
+     * @return  {@code true}, if there are deferred members.
+     * @throws  RestyMappingException
+     *          if there are errors of annotation using.
+     */
+    boolean hasDeferredMembers() throws RestyMappingException {
+        getMembers();
+        return hasDeferred;
+    }
+
+    /**
+     * Gets a value of the user defined data type.
+     *
+     * @param  typeObject
+     *         an object of the class.
+     * @return  an object.
+     * @throws  RestyMappingException
+     *          if there are errors of annotation using.
+     */
+    Object getTypeValue(Object typeObject) throws RestyMappingException {
+        Member accessor = typeValue;
+        if (accessor == null) {
+            accessor = findTypeValue();
+            typeValue = accessor;
+        }
+        try {
+            return accessor.get(typeObject);
+        } catch (RestyMappingException ex) {
+            throw new RestyMappingException(MSG_TYPEVALUE_GET_FAIL,
+                    type.getName(), accessor.name);
+        }
+    }
+
+    /**
+     * Returns the name of an enum constant. Names are encoded once per
+     * constant.
+     *
+     * @param  value
+     *         the enum constant.
+     * @return  the encoded name.
+     */
+    RestyEncodedString getEnumName(Enum<?> value) {
+        RestyEncodedString[] names = enumNames;
+        if (names == null) {
+            Enum<?>[] constants = value.getDeclaringClass().getEnumConstants();
+            names = new RestyEncodedString[constants.length];
+            for (Enum<?> c : constants) {
+                names[c.ordinal()] = new RestyEncodedString(c.name());
+            }
+            enumNames = names;
+        }
+        return names[value.ordinal()];
+    }
+
+    /**
+     * Returns a plan of a subclass of the sealed class. Plans of all
+     * permitted subclasses are looked up once, so values declared with a
+     * sealed type are dispatched without the general lookup.
+     *
+     * @param  subtype
+     *         the class of a value.
+     * @return  a plan, or {@code null}, if the class isn't a permitted
+     *          subclass.
+     */
+    RestyClassPlan getSubtypePlan(Class<?> subtype) {
+        Map<Class<?>, RestyClassPlan> table = subtypes;
+        if (table == null) {
+            table = new IdentityHashMap<>();
+            addSubtypes(type, table);
+            subtypes = table;
+        }
+        return table.get(subtype);
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * Returns the type adapter of the class. It is registered for the class
+     * itself, for the nearest superclass or for an implemented interface, in
+     * that order.
+     *
+     * @return  the adapter, or {@code null} if there is no adapter.
+     */
+    RestyTypeAdapter<Object> getAdapter() {
+        return adapter;
+    }
+
+    private static boolean isDefault(Object value) {
+        if (value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte) {
+            return (((Number) value).longValue() == 0);
+        } else if (value instanceof Double || value instanceof Float) {
+            return (((Number) value).doubleValue() == 0);
+        } else if (value instanceof BigDecimal) {
+            return (((BigDecimal) value).signum() == 0);
+        } else if (value instanceof BigInteger) {
+            return (((BigInteger) value).signum() == 0);
+        } else if (value instanceof Boolean) {
+            return !((Boolean) value);
+        } else if (value instanceof Character) {
+            return (((Character) value) == 0);
+        } else {
+            return false;
+        }
+    }
+
+    private static boolean isEmpty(Object value) {
+        if (value instanceof String) {
+            return ((String) value).isEmpty();
+        } else if (value instanceof Collection) {
+            return ((Collection<?>) value).isEmpty();
+        } else if (value instanceof Map) {
+            return ((Map<?, ?>) value).isEmpty();
+        } else if (value.getClass().isArray()) {
+            return (Array.getLength(value) == 0);
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Tells whether objects of exactly the class are converted by its plan,
+     * so the plan can be bound to the class in advance. Plans of sealed
+     * abstract classes are bound to dispatch the permitted subclasses.
+     *
+     * @param  c
+     *         the class.
+     * @return  {@code true}, if the plan can be bound.
+     */
+    static boolean isBindable(Class<?> c) {
+        if (c.isArray() || c.isPrimitive()) {
+            return false;
+        }
+        if (Modifier.isAbstract(c.getModifiers())
+                && RestyLanguage.getPermittedSubclasses(c) == null) {
+            return false;
+        }
+        for (Class<?> builtin : BUILTIN_TYPES) {
+            if (builtin.isAssignableFrom(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a plan of the declared class, if objects of exactly that
+     * class are converted by the plan.
+     */
+    private static RestyClassPlan bind(Type declared) {
+        return (declared instanceof Class && isBindable((Class<?>) declared)
+                ? get((Class<?>) declared) : null);
+    }
+
+    private static Type getElementType(Type declared) {
+        if (declared instanceof Class) {
+            return ((Class<?>) declared).getComponentType();
+        } else if (declared instanceof GenericArrayType) {
+            return ((GenericArrayType) declared).getGenericComponentType();
+        } else if (declared instanceof ParameterizedType) {
+            ParameterizedType p = (ParameterizedType) declared;
+            Type[] args = p.getActualTypeArguments();
+            if (p.getRawType() instanceof Class) {
+                Class<?> raw = (Class<?>) p.getRawType();
+                if (Collection.class.isAssignableFrom(raw)
+                        && args.length == 1) {
+                    return args[0];
+                } else if (Map.class.isAssignableFrom(raw)
+                        && args.length == 2) {
+                    return args[1];
+                }
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RestyTypeAdapter<Object> findAdapter(Class<?> type) {
+        if (ADAPTERS.isEmpty()) {
+            return null;
+        }
+        for (Class<?> t = type; t != null; t = t.getSuperclass()) {
+            RestyTypeAdapter<?> result = ADAPTERS.get(t);
+            if (result != null) {
+                return (RestyTypeAdapter<Object>) result;
+            }
+        }
+        // Interfaces are searched breadth first, the nearest ones win.
+        List<Class<?>> queue = new ArrayList<>();
+        for (Class<?> t = type; t != null; t = t.getSuperclass()) {
+            queue.addAll(Arrays.asList(t.getInterfaces()));
+        }
+        Set<Class<?>> visited = new HashSet<>();
+        for (int i = 0; i < queue.size(); i ++) {
+            Class<?> t = queue.get(i);
+            if (visited.add(t)) {
+                RestyTypeAdapter<?> result = ADAPTERS.get(t);
+                if (result != null) {
+                    return (RestyTypeAdapter<Object>) result;
+                }
+                queue.addAll(Arrays.asList(t.getInterfaces()));
+            }
+        }
+        return null;
+    }
+
+    private static void addSubtypes(Class<?> t,
+            Map<Class<?>, RestyClassPlan> table) {
+        Class<?>[] permitted = RestyLanguage.getPermittedSubclasses(t);
+        if (permitted != null) {
+            for (Class<?> c : permitted) {
+                if (!Modifier.isAbstract(c.getModifiers()) && isBindable(c)) {
+                    table.put(c, get(c));
+                }
+                addSubtypes(c, table);
+            }
+        }
+    }
+
+    private void addComponents(Set<String> findedSet, List<Member> list)
+            throws RestyMappingException {
+        for (Method m : recordAccessors) {
+            String name = m.getName();
+            RstInclude include = RstInclude.DEFAULT;
+            boolean parallel = false;
+            RstGetter rstGetter = m.getAnnotation(RstGetter.class);
+            RstField rstField = null;
+            try {
+                rstField = type.getDeclaredField(name)
+                        .getAnnotation(RstField.class);
+            } catch (NoSuchFieldException ex) {
+                // Components always have fields; nothing to override.
+            }
+            if (rstGetter != null) {
+                if (rstGetter.value().isEmpty()) {
+                    throw new RestyMappingException(
+                            MSG_ANNOTATION_INVALID_USING,
+                            type.getName(), RstGetter.class.getSimpleName());
+                }
+                name = rstGetter.value();
+                include = rstGetter.include();
+                parallel = rstGetter.parallel();
+            } else if (rstField != null) {
+                if (!rstField.value().isEmpty()) {
+                    name = rstField.value();
+                }
+                include = rstField.include();
+            }
+            if (findedSet.add(name)) {
+                m.setAccessible(true);
+                list.add(new Member(name, include, parallel, null, m));
+            } else {
+                throw new RestyMappingException(MSG_POJO_FIELD_DUPLICATION,
+                        type.getName(), name);
+            }
+        }
+    }
+
+    private void addMembers(Class<?> t, Set<String> findedSet,
+            List<Member> list) throws RestyMappingException {
+        for (Method m : t.getDeclaredMethods()) {
+            RstGetter rstGetter = m.getAnnotation(RstGetter.class);
+            if (rstGetter != null && !isRecordAccessor(m)) {
+                String name = rstGetter.value();
+                if (name.isEmpty()
+                        || m.getParameterTypes().length > 0) {
+                    throw new RestyMappingException(
+                            MSG_ANNOTATION_INVALID_USING,
+                            t.getName(), RstGetter.class.getSimpleName());
+                }
+                if (findedSet.add(name)) {
+                    m.setAccessible(true);
+                    list.add(new Member(name, rstGetter.include(),
+                            rstGetter.parallel(), null, m));
+                } else {
+                    throw new RestyMappingException(MSG_POJO_FIELD_DUPLICATION,
+                            t.getName(), name);
+                }
+            }
+        }
+        if (t == type && recordAccessors != null) {
+            return;
+        }
+        for (Field f : t.getDeclaredFields()) {
+            RstField rstField = f.getAnnotation(RstField.class);
+            if (rstField != null) {
+                String name = rstField.value();
+                if (name.isEmpty()) {
+                    name = f.getName();
+                }
+                if (findedSet.add(name)) {
+                    f.setAccessible(true);
+                    list.add(new Member(name, rstField.include(), false, f,
+                            null));
+                } else {
+                    throw new RestyMappingException(MSG_POJO_FIELD_DUPLICATION,
+                            t.getName(), name);
+                }
+            }
+        }
+    }
+
+    private boolean isRecordAccessor(Method m) {
+        if (recordAccessors != null) {
+            for (Method accessor : recordAccessors) {
+                if (accessor.equals(m)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private Member findTypeValue() throws RestyMappingException {
+        Member result = null;
+        for (Method m : type.getDeclaredMethods()) {
+            RstTypeValue rstTypeValue = m.getAnnotation(RstTypeValue.class);
+            if (rstTypeValue != null) {
+                if (m.getParameterTypes().length > 0) {
+                    throw new RestyMappingException(
+                            MSG_ANNOTATION_INVALID_USING,
+                            type.getName(), RstTypeValue.class.getSimpleName());
+                }
+                if (result != null) {
+                    throw new RestyMappingException(MSG_ANNOTATION_DUPLICATION,
+                            type.getName(), RstTypeValue.class.getSimpleName());
+                }
+                m.setAccessible(true);
+                result = new Member(m.getName(), RstInclude.ALWAYS, false,
+                        null, m);
+            }
+        }
+        for (Field f : type.getDeclaredFields()) {
+            RstTypeValue rstTypeValue = f.getAnnotation(RstTypeValue.class);
+            if (rstTypeValue != null) {
+                if (result != null) {
+                    throw new RestyMappingException(MSG_ANNOTATION_DUPLICATION,
+                            type.getName(), RstTypeValue.class.getSimpleName());
+                }
+                f.setAccessible(true);
+                result = new Member(f.getName(), RstInclude.ALWAYS, false,
+                        f, null);
+            }
+        }
+        if (result == null) {
+            throw new RestyMappingException(MSG_ANNOTATION_ABSENT,
+                    type.getName(), RstTypeValue.class.getSimpleName());
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,173 @@
+package com.github.amsemy.resty.json;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JSON text encoded into a chain of direct byte buffers. Buffers are taken
+ * from a pool; each next buffer of the chain is twice as large as the
+ * previous one, up to the largest size class of the pool. The buffers can be
+ * passed to a channel without copying, and they must be returned to the pool
+ * by {@link #close}.
+ *
+ * <p>Buffers are not thread-safe.
+ */
+public class RestyDirectBuffer implements Closeable {
+
+    private class Encoder extends RestyJsonEncoder {
+
+        Encoder(ByteBuffer buffer) {
+            super(buffer);
+        }
+
+        @Override
+        protected ByteBuffer overflow(ByteBuffer full) {
+            store(full);
+            return next();
+        }
+
+    }
+
+    private final RestyBufferPool pool;
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private Encoder encoder;
+    private int nextSize;
+    private long length;
+    private boolean closed;
+
+    /**
+     * Creates a buffer that takes memory from the default pool.
+     */
+    public RestyDirectBuffer() {
+        this(RestyBufferPool.getDefault());
+    }
+
+    /**
+     * Creates a buffer.
+     *
+     * @param  pool
+     *         the pool of direct buffers.
+     */
+    public RestyDirectBuffer(RestyBufferPool pool) {
+        this.pool = pool;
+        nextSize = pool.getMinSize();
+    }
+
+    /**
+     * Returns the memory to the pool. The buffers returned by
+     * {@link #getBuffers} must not be used after that.
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            for (ByteBuffer chunk : chunks) {
+                pool.release(chunk);
+            }
+            chunks.clear();
+            if (encoder != null) {
+                pool.release(encoder.buffer);
+                encoder = null;
+            }
+        }
+    }
+
+    /**
+     * Returns the length of the text.
+     *
+     * @return  the number of bytes.
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * Returns the text as a sequence of buffers ready for reading, for
+     * example by {@link GatheringByteChannel#write(ByteBuffer[])}. The
+     * buffers share memory with this object, but have their own positions,
+     * so the text can be read again.
+     *
+     * @return  the buffers.
+     */
+    public ByteBuffer[] getBuffers() {
+        checkOpen();
+        ByteBuffer[] result = new ByteBuffer[chunks.size()];
+        for (int i = 0; i < result.length; i ++) {
+            result[i] = chunks.get(i).duplicate();
+        }
+        return result;
+    }
+
+    /**
+     * Transfers the whole text to the channel. The method can be invoked again
+     * to send the text once more.
+     *
+     * @param  target
+     *         the blocking channel.
+     * @throws  IOException
+     *          if an I/O error occurs.
+     */
+    public void transferTo(WritableByteChannel target) throws IOException {
+        ByteBuffer[] buffers = getBuffers();
+        if (target instanceof GatheringByteChannel) {
+            long remaining = length;
+            while (remaining > 0) {
+                remaining -= ((GatheringByteChannel) target).write(buffers);
+            }
+        } else {
+            for (ByteBuffer buffer : buffers) {
+                while (buffer.hasRemaining()) {
+                    target.write(buffer);
+                }
+            }
+        }
+    }
+
+    /**
+     * Converts an object to JSON text and appends the text to the buffer.
+     *
+     * @param  object
+     *         the object. Object can be an array, a collection, a map, a json
+     *         array builder, a json object builder or a POJO.
+     * @throws  IOException
+     *          if an I/O error occurs.
+     * @throws  RestyMappingException
+     *          if there are errors of annotation using.
+     */
+    public void write(Object object)
+            throws IOException, RestyMappingException {
+        checkOpen();
+        if (encoder == null) {
+            encoder = new Encoder(next());
+        }
+        new RestySerializer(encoder).write(object);
+        if (encoder.buffer.position() > 0) {
+            store(encoder.buffer);
+            encoder = null;
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Buffer is closed");
+        }
+    }
+
+    private ByteBuffer next() {
+        ByteBuffer result = pool.acquire(nextSize);
+        nextSize = Math.min(nextSize * 2, pool.getMaxSize());
+        return result;
+    }
+
+    private void store(ByteBuffer full) {
+        full.flip();
+        chunks.add(full);
+        length += full.remaining();
+    }
+
+}
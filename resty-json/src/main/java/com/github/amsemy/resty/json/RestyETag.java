@@ -0,0 +1,294 @@
+package com.github.amsemy.resty.json;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import javax.json.JsonValue;
+
+/**
+ * Entity tags of JSON representations of objects. Tags are computed while
+ * objects are converted, without keeping the JSON text, so a request with a
+ * matching {@code If-None-Match} header can be answered without building the
+ * response.
+ *
+ * <ul>
+ *   <li>A strong tag is a SHA-256 hash of the UTF-8 encoded JSON text; it is
+ *       equal for equal texts.</li>
+ *   <li>A weak tag is a 64-bit fingerprint of the JSON model; it is computed
+ *       along the class plans without encoding the text, so it is cheaper,
+ *       but it isn't comparable with strong tags.</li>
+ * </ul>
+ */
+public final class RestyETag {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * Encoder that passes full buffers to a message digest.
+     */
+    private static final class DigestEncoder extends RestyJsonEncoder {
+
+        private final MessageDigest digest;
+
+        DigestEncoder(MessageDigest digest) {
+            super(ByteBuffer.allocate(BUFFER_SIZE));
+            this.digest = digest;
+        }
+
+        byte[] finish() {
+            digest.update(buffer.array(), 0, buffer.position());
+            buffer.clear();
+            return digest.digest();
+        }
+
+        @Override
+        protected ByteBuffer overflow(ByteBuffer full) {
+            digest.update(full.array(), 0, full.position());
+            full.clear();
+            return full;
+        }
+
+    }
+
+    /**
+     * Output of JSON events into a 64-bit hash. Every event is mixed with its
+     * own tag, so different models give different sequences of words.
+     */
+    private static final class Fingerprint extends RestyJsonWriter {
+
+        private static final long START_OBJECT = 1;
+        private static final long START_ARRAY = 2;
+        private static final long END = 3;
+        private static final long NAME = 4;
+        private static final long STRING = 5;
+        private static final long LONG = 6;
+        private static final long DOUBLE = 7;
+        private static final long DECIMAL = 8;
+        private static final long TRUE = 9;
+        private static final long FALSE = 10;
+        private static final long NULL = 11;
+        private static final long JSON = 12;
+
+        private long hash = 0x9e3779b97f4a7c15L;
+        private long count;
+
+        @Override
+        public void writeStartObject() {
+            mix(START_OBJECT);
+        }
+
+        @Override
+        public void writeStartArray() {
+            mix(START_ARRAY);
+        }
+
+        @Override
+        public void writeEnd() {
+            mix(END);
+        }
+
+        @Override
+        public void writeName(String name) {
+            mix(NAME);
+            mix(name);
+        }
+
+        @Override
+        public void writeString(String value) {
+            mix(STRING);
+            mix(value);
+        }
+
+        @Override
+        public void writeNumber(long value) {
+            mix(LONG);
+            mix(value);
+        }
+
+        @Override
+        public void writeNumber(double value) {
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                throw new NumberFormatException("Not a JSON number: " + value);
+            }
+            mix(DOUBLE);
+            mix(Double.doubleToLongBits(value));
+        }
+
+        @Override
+        public void writeNumber(BigDecimal value) {
+            mix(DECIMAL);
+            mix(value.toString());
+        }
+
+        @Override
+        public void writeNumber(BigInteger value) {
+            mix(DECIMAL);
+            mix(value.toString());
+        }
+
+        @Override
+        public void writeBoolean(boolean value) {
+            mix(value ? TRUE : FALSE);
+        }
+
+        @Override
+        public void writeNull() {
+            mix(NULL);
+        }
+
+        @Override
+        public void writeJsonValue(JsonValue value) {
+            mix(JSON);
+            mix(value.toString());
+        }
+
+        long finish() {
+            long h = hash ^ count;
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+
+        private void mix(String s) {
+            int length = s.length();
+            mix(length);
+            int i = 0;
+            for (; i + 4 <= length; i += 4) {
+                mix(((long) s.charAt(i) << 48) | ((long) s.charAt(i + 1) << 32)
+                        | ((long) s.charAt(i + 2) << 16) | s.charAt(i + 3));
+            }
+            long tail = 0;
+            for (; i < length; i ++) {
+                tail = (tail << 16) | s.charAt(i);
+            }
+            mix(tail);
+        }
+
+        private void mix(long v) {
+            v *= 0x87c37b91114253d5L;
+            v = Long.rotateLeft(v, 31);
+            v *= 0x4cf5ad432745937fL;
+            hash ^= v;
+            hash = Long.rotateLeft(hash, 27) * 5 + 0x52dce729;
+            count ++;
+        }
+
+    }
+
+    private RestyETag() {
+    }
+
+    /**
+     * Computes a strong entity tag of the JSON text of the object. Object can
+     * be an array, a collection, a map, a json array builder, a json object
+     * builder or a POJO.
+     *
+     * @param  object
+     *         the object.
+     * @return  the quoted entity tag.
+     * @throws  RestyMappingException
+     *          if there are errors of annotation using.
+     */
+    public static String strong(Object object) throws RestyMappingException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+        DigestEncoder encoder = new DigestEncoder(digest);
+        try {
+            new RestySerializer(encoder).write(object);
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+        byte[] hash = encoder.finish();
+        StringBuilder sb = new StringBuilder(hash.length * 2 + 2);
+        sb.append('"');
+        for (byte b : hash) {
+            sb.append(HEX[(b >> 4) & 0xf]).append(HEX[b & 0xf]);
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * Computes a weak entity tag of the JSON model of the object. Object can
+     * be an array, a collection, a map, a json array builder, a json object
+     * builder or a POJO.
+     *
+     * @param  object
+     *         the object.
+     * @return  the quoted entity tag with the weakness indicator.
+     * @throws  RestyMappingException
+     *          if there are errors of annotation using.
+     */
+    public static String weak(Object object) throws RestyMappingException {
+        Fingerprint fingerprint = new Fingerprint();
+        try {
+            new RestySerializer(fingerprint).write(object);
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+        long hash = fingerprint.finish();
+        char[] chars = new char[20];
+        chars[0] = 'W';
+        chars[1] = '/';
+        chars[2] = '"';
+        for (int i = 18; i > 2; i --) {
+            chars[i] = HEX[(int) (hash & 0xf)];
+            hash >>>= 4;
+        }
+        chars[19] = '"';
+        return new String(chars);
+    }
+
+    /**
+     * Checks an entity tag against the value of an {@code If-None-Match}
+     * header, using the weak comparison.
+     *
+     * @param  ifNoneMatch
+     *         the header value: {@code *} or a list of entity tags; may be
+     *         {@code null}.
+     * @param  etag
+     *         the entity tag of the current representation.
+     * @return  {@code true}, if the tag matches, so the representation
+     *          needn't be sent.
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String header = ifNoneMatch.trim();
+        if (header.equals("*")) {
+            return true;
+        }
+        String opaque = stripWeakness(etag.trim());
+        int start = 0;
+        while (start < header.length()) {
+            int end = header.indexOf(',', start);
+            if (end < 0) {
+                end = header.length();
+            }
+            String tag = stripWeakness(header.substring(start, end).trim());
+            if (tag.equals(opaque)) {
+                return true;
+            }
+            start = end + 1;
+        }
+        return false;
+    }
+
+    private static String stripWeakness(String tag) {
+        return (tag.startsWith("W/") ? tag.substring(2) : tag);
+    }
+
+}
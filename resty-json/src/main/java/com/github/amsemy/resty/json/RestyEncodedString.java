@@ -0,0 +1,38 @@
+package com.github.amsemy.resty.json;
+
+/**
+ * String with its JSON representation encoded in advance. Encoders copy the
+ * prepared bytes instead of escaping and encoding the string each time it is
+ * written, so it is useful for names and values written many times.
+ */
+public final class RestyEncodedString {
+
+    private final String value;
+    final byte[] quoted;
+
+    /**
+     * Encodes a string.
+     *
+     * @param  value
+     *         the string.
+     */
+    public RestyEncodedString(String value) {
+        this.value = value;
+        quoted = RestyJsonEncoder.quote(value);
+    }
+
+    /**
+     * Returns the string.
+     *
+     * @return  the string.
+     */
+    public String getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+
+}
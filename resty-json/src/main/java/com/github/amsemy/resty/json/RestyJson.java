@@ -1,26 +1,16 @@
 package com.github.amsemy.resty.json;
 
-import com.github.amsemy.resty.json.annotation.RstField;
-import com.github.amsemy.resty.json.annotation.RstGetter;
-import com.github.amsemy.resty.json.annotation.RstPojo;
-import com.github.amsemy.resty.json.annotation.RstType;
-import com.github.amsemy.resty.json.annotation.RstTypeValue;
+import com.github.amsemy.resty.json.annotation.RstInclude;
 
-import java.lang.reflect.Array;
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.math.BigDecimal;
-import java.math.BigInteger;
+import java.io.IOException;
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.Executor;
 import javax.json.Json;
 import javax.json.JsonArrayBuilder;
 import javax.json.JsonObjectBuilder;
 import javax.json.JsonStructure;
-import javax.json.JsonValue;
+import javax.json.stream.JsonParser;
 
 /**
  * API for converting Java objects to JSON models.
@@ -29,195 +19,22 @@ import javax.json.JsonValue;
  */
 public class RestyJson {
 
-    private static final String MSG_ANNOTATION_ABSENT =
-            "Cann't find '%2$s' annotation in '%1$s' class";
-    private static final String MSG_ANNOTATION_DUPLICATION =
-            "Duplication of '%2$s' annotation in '%1$s' class";
-    private static final String MSG_ANNOTATION_INVALID_USING =
-            "Invalid annotation '%2$s' using in '%1$s' class";
-    private static final String MSG_POJO_FIELD_DUPLICATION =
-            "Duplication of pojo json field '%2$s' mapping in '%1$s' class";
-    private static final String MSG_POJO_GET_FAIL =
-            "Cann't get pojo field/method '%2$s' value in '%1$s' class";
-    private static final String MSG_TYPEVALUE_GET_FAIL =
-            "Cann't get type field/method '%2$s' value in '%1$s' class";
+    private static final String MSG_ADAPTER_ABSENT =
+            "Cann't find type adapter reading '%1$s' class";
+    private static final String MSG_READ_TYPE =
+            "Cann't read '%1$s' class: type adapter returned '%2$s' class";
+    private static final String MSG_WRITE_FAIL =
+            "Cann't convert '%1$s' class: %2$s";
 
-    private static void addArrayValue(Object value,
-            JsonArrayBuilder builder) throws RestyMappingException {
-        if (value == null) {
-            builder.addNull();
-        } else {
-            Class<?> type = value.getClass();
-            if (type.isArray()) {
-                builder.add(getArray(value));
-            } else if (value instanceof BigDecimal) {
-                builder.add((BigDecimal) value);
-            } else if (value instanceof BigInteger) {
-                builder.add((BigInteger) value);
-            } else if (value instanceof Boolean) {
-                builder.add((Boolean) value);
-            } else if (value instanceof Byte) {
-                builder.add((Byte) value);
-            } else if (value instanceof Character) {
-                builder.add((Character) value);
-            } else if (value instanceof Collection) {
-                builder.add(getCollection((Collection) value));
-            } else if (value instanceof Double) {
-                builder.add((Double) value);
-            } else if (value instanceof Float) {
-                builder.add((Float) value);
-            } else if (value instanceof Integer) {
-                builder.add((Integer) value);
-            } else if (value instanceof JsonArrayBuilder) {
-                builder.add((JsonArrayBuilder) value);
-            } else if (value instanceof JsonObjectBuilder) {
-                builder.add((JsonObjectBuilder) value);
-            } else if (value instanceof JsonValue) {
-                builder.add((JsonValue) value);
-            } else if (value instanceof Long) {
-                builder.add((Long) value);
-            } else if (value instanceof Map) {
-                builder.add(getMap((Map) value));
-            } else if (value instanceof Short) {
-                builder.add((Short) value);
-            } else if (value instanceof String) {
-                builder.add((String) value);
-            } else {
-                RstPojo rstPojo = type.getAnnotation(RstPojo.class);
-                RstType rstType = type.getAnnotation(RstType.class);
-                if (rstPojo != null && rstType != null) {
-                    throw new RestyMappingException(
-                            MSG_ANNOTATION_INVALID_USING,
-                            type.getName(), RstPojo.class.getSimpleName() + ", "
-                                    + RstType.class.getSimpleName());
-                }
-                if (rstPojo != null) {
-                    builder.add(getObject(value));
-                } else if (rstType != null) {
-                    addArrayValue(getTypeValue(value), builder);
-                } else {
-                    builder.add(value.toString());
-                }
-            }
-        }
-    }
-
-    private static void addObjectValue(String name, Object value,
-            JsonObjectBuilder builder) throws RestyMappingException {
-        if (value == null) {
-            builder.addNull(name);
-        } else {
-            Class<?> type = value.getClass();
-            if (type.isArray()) {
-                builder.add(name, getArray(value));
-            } else if (value instanceof BigDecimal) {
-                builder.add(name, (BigDecimal) value);
-            } else if (value instanceof BigInteger) {
-                builder.add(name, (BigInteger) value);
-            } else if (value instanceof Boolean) {
-                builder.add(name, (Boolean) value);
-            } else if (value instanceof Byte) {
-                builder.add(name, (Byte) value);
-            } else if (value instanceof Character) {
-                builder.add(name, (Character) value);
-            } else if (value instanceof Collection) {
-                builder.add(name, getCollection((Collection) value));
-            } else if (value instanceof Double) {
-                builder.add(name, (Double) value);
-            } else if (value instanceof Float) {
-                builder.add(name, (Float) value);
-            } else if (value instanceof Integer) {
-                builder.add(name, (Integer) value);
-            } else if (value instanceof JsonArrayBuilder) {
-                builder.add(name, (JsonArrayBuilder) value);
-            } else if (value instanceof JsonObjectBuilder) {
-                builder.add(name, (JsonObjectBuilder) value);
-            } else if (value instanceof JsonValue) {
-                builder.add(name, (JsonValue) value);
-            } else if (value instanceof Long) {
-                builder.add(name, (Long) value);
-            } else if (value instanceof Map) {
-                builder.add(name, getMap((Map) value));
-            } else if (value instanceof Short) {
-                builder.add(name, (Short) value);
-            } else if (value instanceof String) {
-                builder.add(name, (String) value);
-            } else {
-                RstPojo rstPojo = type.getAnnotation(RstPojo.class);
-                RstType rstType = type.getAnnotation(RstType.class);
-                if (rstPojo != null && rstType != null) {
-                    throw new RestyMappingException(
-                            MSG_ANNOTATION_INVALID_USING,
-                            type.getName(), RstPojo.class.getSimpleName() + ", "
-                                    + RstType.class.getSimpleName());
-                }
-                if (rstPojo != null) {
-                    builder.add(name, getObject(value));
-                } else if (rstType != null) {
-                    addObjectValue(name, getTypeValue(value), builder);
-                } else {
-                    builder.add(name, value.toString());
-                }
-            }
-        }
-    }
-
-    private static void addObjectMembers(Object object, Class<?> type,
-            Set<String> findedSet, JsonObjectBuilder builder)
-            throws RestyMappingException {
-        for (Method m : type.getDeclaredMethods()) {
-            RstGetter rstGetter = m.getAnnotation(RstGetter.class);
-            if (rstGetter != null) {
-                String name = rstGetter.value();
-                if (name.isEmpty()
-                        || m.getParameterTypes().length > 0) {
-                    throw new RestyMappingException(
-                            MSG_ANNOTATION_INVALID_USING,
-                            type.getName(), RstGetter.class.getSimpleName());
-                }
-                if (findedSet.add(name)) {
-                    m.setAccessible(true);
-                    Object value;
-                    try {
-                        value = m.invoke(object);
-                    } catch (IllegalAccessException
-                            | IllegalArgumentException
-                            | InvocationTargetException ex) {
-                        throw new RestyMappingException(MSG_POJO_GET_FAIL,
-                                type.getName(), m.getName());
-                    }
-                    m.setAccessible(false);
-                    addObjectValue(name, value, builder);
-                } else {
-                    throw new RestyMappingException(MSG_POJO_FIELD_DUPLICATION,
-                            type.getName(), name);
-                }
-            }
-        }
-        for (Field f : type.getDeclaredFields()) {
-            RstField rstField = f.getAnnotation(RstField.class);
-            if (rstField != null) {
-                String name = rstField.value();
-                if (name.isEmpty()) {
-                    name = f.getName();
-                }
-                if (findedSet.add(name)) {
-                    f.setAccessible(true);
-                    Object value;
-                    try {
-                        value = f.get(object);
-                    } catch (IllegalArgumentException
-                            | IllegalAccessException ex) {
-                        throw new RestyMappingException(MSG_POJO_GET_FAIL,
-                                type.getName(), f.getName());
-                    }
-                    f.setAccessible(false);
-                    addObjectValue(name, value, builder);
-                } else {
-                    throw new RestyMappingException(MSG_POJO_FIELD_DUPLICATION,
-                            type.getName(), name);
-                }
-            }
+    private static void addContent(Object object, boolean pojo,
+            Object builder) throws RestyMappingException {
+        RestySerializer serializer =
+                new RestySerializer(new RestyBuilderWriter(builder));
+        try {
+            serializer.writeContent(object, pojo);
+        } catch (IOException | IllegalStateException ex) {
+            throw new RestyMappingException(MSG_WRITE_FAIL,
+                    object.getClass().getName(), ex.getMessage());
         }
     }
 
@@ -249,6 +66,27 @@ public class RestyJson {
         }
     }
 
+    /**
+     * Creates a lazy JSON model of the object. Object can be an array,
+     * a collection, a map, a json array builder, a json object builder or
+     * a POJO. Unlike {@link #build}, members and elements are converted only
+     * when they are read for the first time, and then they are kept. Errors
+     * of later conversions are thrown as {@code javax.json.JsonException}.
+     *
+     * <p>The model reflects the state of the object at the time of reading,
+     * so the object shouldn't be changed while the model is in use.
+     *
+     * @param  object
+     *         the object.
+     * @return  a json model.
+     * @throws  RestyMappingException
+     *          if there are errors of annotation using.
+     */
+    public static JsonStructure view(Object object)
+            throws RestyMappingException {
+        return RestyJsonView.view(object);
+    }
+
     /**
      * Converts an array to JSON builder.
      *
@@ -260,11 +98,11 @@ public class RestyJson {
      */
     public static JsonArrayBuilder getArray(Object array)
             throws RestyMappingException {
-        JsonArrayBuilder builder = Json.createArrayBuilder();
-        int length = Array.getLength(array);
-        for (int i = 0; i < length; i ++) {
-            addArrayValue(Array.get(array, i), builder);
+        if (!array.getClass().isArray()) {
+            throw new IllegalArgumentException("Argument is not an array");
         }
+        JsonArrayBuilder builder = Json.createArrayBuilder();
+        addContent(array, false, builder);
         return builder;
     }
 
@@ -280,9 +118,7 @@ public class RestyJson {
     public static JsonArrayBuilder getCollection(Collection collection)
             throws RestyMappingException {
         JsonArrayBuilder builder = Json.createArrayBuilder();
-        for (Object value : collection) {
-            addArrayValue(value, builder);
-        }
+        addContent(collection, false, builder);
         return builder;
     }
 
@@ -298,9 +134,7 @@ public class RestyJson {
     public static JsonObjectBuilder getMap(Map map)
             throws RestyMappingException {
         JsonObjectBuilder builder = Json.createObjectBuilder();
-        for (Object key : map.keySet()) {
-            addObjectValue(key.toString(), map.get(key), builder);
-        }
+        addContent(map, false, builder);
         return builder;
     }
 
@@ -315,23 +149,8 @@ public class RestyJson {
      */
     public static JsonObjectBuilder getObject(Object object)
             throws RestyMappingException {
-        Class<?> type = object.getClass();
-        Set<String> findedSet = new HashSet<>();
         JsonObjectBuilder builder = Json.createObjectBuilder();
-        addObjectMembers(object, type, findedSet, builder);
-        while (true) {
-            type = type.getSuperclass();
-            if (type != null) {
-                RstPojo rstPojo = type.getAnnotation(RstPojo.class);
-                if (rstPojo != null) {
-                    addObjectMembers(object, type, findedSet, builder);
-                } else {
-                    break;
-                }
-            } else {
-                break;
-            }
-        }
+        addContent(object, true, builder);
         return builder;
     }
 
@@ -346,60 +165,152 @@ public class RestyJson {
      */
     public static Object getTypeValue(Object typeObject)
             throws RestyMappingException {
-        Class<?> type = typeObject.getClass();
-        boolean isFinded = false;
-        Object value = null;
-        for (Method m : type.getDeclaredMethods()) {
-            RstTypeValue rstTypeValue = m.getAnnotation(RstTypeValue.class);
-            if (rstTypeValue != null) {
-                if (m.getParameterTypes().length > 0) {
-                    throw new RestyMappingException(
-                            MSG_ANNOTATION_INVALID_USING,
-                            type.getName(), RstTypeValue.class.getSimpleName());
-                }
-                if (isFinded) {
-                    throw new RestyMappingException(MSG_ANNOTATION_DUPLICATION,
-                            type.getName(), RstTypeValue.class.getSimpleName());
-                } else {
-                    isFinded = true;
-                    m.setAccessible(true);
-                    try {
-                        value = m.invoke(typeObject);
-                    } catch (IllegalAccessException
-                            | IllegalArgumentException
-                            | InvocationTargetException ex) {
-                        throw new RestyMappingException(MSG_TYPEVALUE_GET_FAIL,
-                                type.getName(), m.getName());
-                    }
-                    m.setAccessible(false);
-                }
-            }
+        return RestyClassPlan.get(typeObject.getClass())
+                .getTypeValue(typeObject);
+    }
+
+    /**
+     * Reads an object of the class from the next JSON value of the parser
+     * using the registered type adapter.
+     *
+     * @param  <T>
+     *         the class of the object.
+     * @param  parser
+     *         the parser.
+     * @param  type
+     *         the class of the object.
+     * @return  an object.
+     * @throws  RestyMappingException
+     *          if there is no adapter reading the class, the value can't be
+     *          converted or the adapter returns an object of another class.
+     */
+    public static <T> T read(JsonParser parser, Class<T> type)
+            throws RestyMappingException {
+        RestyTypeAdapter<Object> adapter =
+                RestyClassPlan.get(type).getAdapter();
+        if (adapter == null || !adapter.canRead()) {
+            throw new RestyMappingException(MSG_ADAPTER_ABSENT,
+                    type.getName());
         }
-        for (Field f : type.getDeclaredFields()) {
-            RstTypeValue rstTypeValue = f.getAnnotation(RstTypeValue.class);
-            if (rstTypeValue != null) {
-                if (isFinded) {
-                    throw new RestyMappingException(MSG_ANNOTATION_DUPLICATION,
-                            type.getName(), RstTypeValue.class.getSimpleName());
-                } else {
-                    isFinded = true;
-                    f.setAccessible(true);
-                    try {
-                        value = f.get(typeObject);
-                    } catch (IllegalArgumentException
-                            | IllegalAccessException ex) {
-                        throw new RestyMappingException(MSG_TYPEVALUE_GET_FAIL,
-                                type.getName(), f.getName());
-                    }
-                    f.setAccessible(false);
-                }
-            }
+        Object result = adapter.read(parser);
+        if (result != null && !type.isInstance(result)) {
+            throw new RestyMappingException(MSG_READ_TYPE, type.getName(),
+                    result.getClass().getName());
         }
-        if (!isFinded) {
-            throw new RestyMappingException(MSG_ANNOTATION_ABSENT,
-                    type.getName(), RstTypeValue.class.getSimpleName());
+        return type.cast(result);
+    }
+
+    /**
+     * Registers a type adapter for the class. The adapter is also used for
+     * subclasses and implementations of the class, unless an adapter is
+     * registered for a nearer ancestor. Adapters take precedence over
+     * {@code RstPojo} and {@code RstType} annotations.
+     *
+     * @param  <T>
+     *         the adapted class.
+     * @param  type
+     *         the adapted class.
+     * @param  adapter
+     *         the adapter.
+     */
+    public static <T> void registerAdapter(Class<T> type,
+            RestyTypeAdapter<? super T> adapter) {
+        if (type == null || adapter == null) {
+            throw new NullPointerException();
+        }
+        RestyClassPlan.setAdapter(type, adapter);
+    }
+
+    /**
+     * Removes the type adapter registered for the class.
+     *
+     * @param  type
+     *         the adapted class.
+     */
+    public static void unregisterAdapter(Class<?> type) {
+        RestyClassPlan.setAdapter(type, null);
+    }
+
+    /**
+     * Returns the rule of including object members and map entries.
+     *
+     * @return  the rule.
+     * @see  #setInclude
+     */
+    public static RstInclude getInclude() {
+        return RestyClassPlan.getDefaultInclude();
+    }
+
+    /**
+     * Sets the rule of including object members and map entries depending on
+     * their values, for example to omit {@code null} values. Members
+     * annotated with their own rule keep it. The rule applies to conversions
+     * started later; the default is {@link RstInclude#ALWAYS}.
+     *
+     * @param  include
+     *         the rule, {@link RstInclude#DEFAULT} restores the default.
+     */
+    public static void setInclude(RstInclude include) {
+        if (include == null) {
+            throw new NullPointerException();
         }
-        return value;
+        RestyClassPlan.setDefaultInclude(include);
+    }
+
+    /**
+     * Sets the executor of getters annotated as parallel. By default such
+     * getters are called by a shared pool of daemon threads. The pool has
+     * four threads per available processor and a queue of sixteen getters
+     * per thread. When the queue is full, getters are called by the thread
+     * that converts the object. A custom executor should be bounded in the
+     * same way: getters of all elements of an array or a collection are
+     * started at once.
+     *
+     * @param  executor
+     *         the executor, or {@code null} to use the default one.
+     */
+    public static void setExecutor(Executor executor) {
+        RestySerializer.setExecutor(executor);
+    }
+
+    /**
+     * Returns the limit of nesting of objects and arrays in JSON models.
+     *
+     * @return  the limit.
+     * @see  #setMaxDepth
+     */
+    public static int getMaxDepth() {
+        return RestySerializer.getMaxDepth();
+    }
+
+    /**
+     * Sets the limit of nesting of objects and arrays in JSON models. Objects
+     * are converted without recursion, so deep models don't need a large
+     * thread stack; conversion of a deeper model fails with
+     * {@code RestyMappingException}. The limit also bounds chains of user
+     * defined type values. It applies to conversions started later; the
+     * default is 1000.
+     *
+     * @param  value
+     *         the limit.
+     * @throws  IllegalArgumentException
+     *          if the limit is less than 1.
+     */
+    public static void setMaxDepth(int value) {
+        RestySerializer.setMaxDepth(value);
+    }
+
+    /**
+     * Creates a stream of the UTF-8 encoded JSON text of the object. Object
+     * can be an array, a collection, a map, a json array builder, a json
+     * object builder or a POJO.
+     *
+     * @param  object
+     *         the object.
+     * @return  a stream of the JSON text.
+     */
+    public static RestyJsonStream stream(Object object) {
+        return new RestyJsonStream(object);
     }
 
 }
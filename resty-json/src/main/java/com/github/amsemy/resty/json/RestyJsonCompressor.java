@@ -0,0 +1,277 @@
+package com.github.amsemy.resty.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Compressed output of JSON text. Objects are converted and compressed by
+ * buffer-sized portions, so the uncompressed text is never held in memory as
+ * a whole. Buffers and deflaters are pooled and reused between conversions.
+ *
+ * <p>Compressors are thread-safe.
+ */
+public class RestyJsonCompressor {
+
+    /**
+     * Format of compressed data.
+     */
+    public enum Format {
+
+        /**
+         * GZIP file format (RFC 1952), {@code Content-Encoding: gzip}.
+         */
+        GZIP,
+
+        /**
+         * ZLIB data format (RFC 1950), {@code Content-Encoding: deflate}.
+         */
+        DEFLATE
+
+    }
+
+    private static final class Slot {
+
+        final ByteBuffer input;
+        final byte[] output;
+        final Deflater deflater;
+        final CRC32 crc = new CRC32();
+
+        Slot(int bufferSize, int level, boolean nowrap) {
+            input = ByteBuffer.allocate(bufferSize);
+            output = new byte[bufferSize];
+            deflater = new Deflater(level, nowrap);
+        }
+
+        void reset() {
+            input.clear();
+            deflater.reset();
+            crc.reset();
+        }
+
+    }
+
+    private final class Encoder extends RestyJsonEncoder {
+
+        private final Slot slot;
+        private final OutputStream out;
+        private long unflushed;
+
+        Encoder(Slot slot, OutputStream out) {
+            super(slot.input);
+            this.slot = slot;
+            this.out = out;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            compress(Deflater.SYNC_FLUSH);
+            out.flush();
+        }
+
+        @Override
+        protected ByteBuffer overflow(ByteBuffer full) throws IOException {
+            if (flushInterval > 0
+                    && unflushed + full.position() >= flushInterval) {
+                flush();
+            } else {
+                compress(Deflater.NO_FLUSH);
+            }
+            return full;
+        }
+
+        void finish() throws IOException {
+            compress(Deflater.NO_FLUSH);
+            Deflater deflater = slot.deflater;
+            deflater.finish();
+            while (!deflater.finished()) {
+                deflate(Deflater.NO_FLUSH);
+            }
+            if (format == Format.GZIP) {
+                byte[] trailer = new byte[8];
+                putInt(trailer, 0, (int) slot.crc.getValue());
+                putInt(trailer, 4, (int) deflater.getBytesRead());
+                out.write(trailer);
+            }
+        }
+
+        private void compress(int flush) throws IOException {
+            ByteBuffer input = slot.input;
+            Deflater deflater = slot.deflater;
+            int length = input.position();
+            if (length > 0) {
+                if (format == Format.GZIP) {
+                    slot.crc.update(input.array(), 0, length);
+                }
+                deflater.setInput(input.array(), 0, length);
+                while (!deflater.needsInput()) {
+                    deflate(Deflater.NO_FLUSH);
+                }
+                input.clear();
+            }
+            if (flush == Deflater.SYNC_FLUSH) {
+                while (deflate(Deflater.SYNC_FLUSH) == slot.output.length) {
+                }
+                unflushed = 0;
+            } else {
+                unflushed += length;
+            }
+        }
+
+        private int deflate(int flush) throws IOException {
+            byte[] output = slot.output;
+            int n = slot.deflater.deflate(output, 0, output.length, flush);
+            if (n > 0) {
+                out.write(output, 0, n);
+            }
+            return n;
+        }
+
+    }
+
+    /**
+     * Default size of buffers.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private static final byte[] GZIP_HEADER = {
+        0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0
+    };
+
+    private final Format format;
+    private final int level;
+    private final int bufferSize;
+    private final long flushInterval;
+    private final int maxPooled;
+    private final ConcurrentLinkedQueue<Slot> pool =
+            new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+
+    /**
+     * Creates a compressor without flush points.
+     *
+     * @param  format
+     *         the format of compressed data.
+     * @param  level
+     *         the compression level (0-9).
+     */
+    public RestyJsonCompressor(Format format, int level) {
+        this(format, level, DEFAULT_BUFFER_SIZE, 0);
+    }
+
+    /**
+     * Creates a compressor.
+     *
+     * @param  format
+     *         the format of compressed data.
+     * @param  level
+     *         the compression level (0-9).
+     * @param  bufferSize
+     *         size of buffers.
+     * @param  flushInterval
+     *         the number of uncompressed bytes after which the compressed
+     *         data is flushed to the output, so a client can decompress the
+     *         received part of the text. If {@code 0}, the data is flushed
+     *         only at the end.
+     */
+    public RestyJsonCompressor(Format format, int level, int bufferSize,
+            long flushInterval) {
+        if (level < Deflater.NO_COMPRESSION
+                || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Invalid compression level");
+        }
+        if (bufferSize < RestyJsonEncoder.MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException("Too small buffer size");
+        }
+        if (flushInterval < 0) {
+            throw new IllegalArgumentException("Negative flush interval");
+        }
+        this.format = format;
+        this.level = level;
+        this.bufferSize = bufferSize;
+        this.flushInterval = flushInterval;
+        maxPooled = Runtime.getRuntime().availableProcessors() * 2;
+    }
+
+    /**
+     * Releases the pooled deflaters.
+     */
+    public void close() {
+        Slot slot;
+        while ((slot = pool.poll()) != null) {
+            pooled.decrementAndGet();
+            slot.deflater.end();
+        }
+    }
+
+    /**
+     * Returns the format of compressed data.
+     *
+     * @return  the format.
+     */
+    public Format getFormat() {
+        return format;
+    }
+
+    /**
+     * Converts an object to compressed JSON text. The output stream isn't
+     * closed.
+     *
+     * @param  object
+     *         the object. Object can be an array, a collection, a map, a json
+     *         array builder, a json object builder or a POJO.
+     * @param  out
+     *         the output stream.
+     * @throws  IOException
+     *          if an I/O error occurs.
+     * @throws  RestyMappingException
+     *          if there are errors of annotation using.
+     */
+    public void write(Object object, OutputStream out)
+            throws IOException, RestyMappingException {
+        Slot slot = acquire();
+        try {
+            if (format == Format.GZIP) {
+                out.write(GZIP_HEADER);
+            }
+            Encoder encoder = new Encoder(slot, out);
+            new RestySerializer(encoder).write(object);
+            encoder.finish();
+            out.flush();
+        } finally {
+            release(slot);
+        }
+    }
+
+    private Slot acquire() {
+        Slot slot = pool.poll();
+        if (slot == null) {
+            return new Slot(bufferSize, level, (format == Format.GZIP));
+        } else {
+            pooled.decrementAndGet();
+            return slot;
+        }
+    }
+
+    private void release(Slot slot) {
+        if (pooled.incrementAndGet() <= maxPooled) {
+            slot.reset();
+            pool.offer(slot);
+        } else {
+            pooled.decrementAndGet();
+            slot.deflater.end();
+        }
+    }
+
+    private static void putInt(byte[] b, int offset, int value) {
+        b[offset] = (byte) value;
+        b[offset + 1] = (byte) (value >> 8);
+        b[offset + 2] = (byte) (value >> 16);
+        b[offset + 3] = (byte) (value >> 24);
+    }
+
+}
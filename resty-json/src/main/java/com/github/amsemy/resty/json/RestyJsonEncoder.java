@@ -0,0 +1,476 @@
+package com.github.amsemy.resty.json;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+
+/**
+ * Output of JSON models as UTF-8 encoded text. The text is encoded into a byte
+ * buffer; when the buffer is full, it is passed to {@link #overflow} which
+ * decides what to do with the encoded bytes and supplies a buffer for the
+ * next ones.
+ */
+public abstract class RestyJsonEncoder extends RestyJsonWriter {
+
+    /**
+     * The minimum number of bytes that a buffer must have remaining.
+     */
+    public static final int MIN_BUFFER_SIZE = 16;
+
+    private static final byte[] HEX = {
+        '0', '1', '2', '3', '4', '5', '6', '7',
+        '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'
+    };
+
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+
+    private static final byte EMPTY_OBJECT = 0;
+    private static final byte OBJECT = 1;
+    private static final byte EMPTY_ARRAY = 2;
+    private static final byte ARRAY = 3;
+
+    /**
+     * The buffer to encode into.
+     */
+    protected ByteBuffer buffer;
+
+    private byte[] contexts = new byte[16];
+    private int depth;
+    private boolean afterName;
+    private final byte[] digits = new byte[20];
+
+    /**
+     * Space for formatting of a value before it is written.
+     */
+    final byte[] scratch = new byte[64];
+
+    /**
+     * Creates an encoder.
+     *
+     * @param  buffer
+     *         the buffer to encode into.
+     */
+    protected RestyJsonEncoder(ByteBuffer buffer) {
+        this.buffer = checkBuffer(buffer);
+    }
+
+    /**
+     * Handles a buffer that has not enough space for the next bytes.
+     *
+     * @param  full
+     *         the buffer; its position is at the end of the encoded bytes.
+     * @return  a buffer to continue encoding into. It must have at least
+     *          {@link #MIN_BUFFER_SIZE} bytes remaining.
+     * @throws  IOException
+     *          if an I/O error occurs.
+     */
+    protected abstract ByteBuffer overflow(ByteBuffer full) throws IOException;
+
+    /**
+     * Returns the nesting level of the current position.
+     *
+     * @return  the number of started and not ended objects and arrays.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    @Override
+    public void writeStartObject() throws IOException {
+        beforeValue();
+        put((byte) '{');
+        push(EMPTY_OBJECT);
+    }
+
+    @Override
+    public void writeStartArray() throws IOException {
+        beforeValue();
+        put((byte) '[');
+        push(EMPTY_ARRAY);
+    }
+
+    @Override
+    public void writeEnd() throws IOException {
+        if (depth == 0 || afterName) {
+            throw new IllegalStateException("Nothing to end");
+        }
+        byte context = contexts[-- depth];
+        put((byte) (context == EMPTY_OBJECT || context == OBJECT ? '}' : ']'));
+    }
+
+    @Override
+    public void writeName(String name) throws IOException {
+        beforeName();
+        putQuoted(name);
+        put((byte) ':');
+        afterName = true;
+    }
+
+    @Override
+    public void writeName(RestyEncodedString name) throws IOException {
+        beforeName();
+        put(name.quoted, 0, name.quoted.length);
+        put((byte) ':');
+        afterName = true;
+    }
+
+    @Override
+    public void writeString(String value) throws IOException {
+        beforeValue();
+        putQuoted(value);
+    }
+
+    @Override
+    public void writeString(RestyEncodedString value) throws IOException {
+        beforeValue();
+        put(value.quoted, 0, value.quoted.length);
+    }
+
+    @Override
+    public void writeNumber(long value) throws IOException {
+        beforeValue();
+        putLong(value);
+    }
+
+    @Override
+    public void writeNumber(double value) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new NumberFormatException("Not a JSON number: " + value);
+        }
+        beforeValue();
+        putAscii(Double.toString(value));
+    }
+
+    @Override
+    public void writeNumber(BigDecimal value) throws IOException {
+        beforeValue();
+        putAscii(value.toString());
+    }
+
+    @Override
+    public void writeNumber(BigInteger value) throws IOException {
+        beforeValue();
+        putAscii(value.toString());
+    }
+
+    @Override
+    public void writeBoolean(boolean value) throws IOException {
+        beforeValue();
+        put(value ? TRUE : FALSE, 0, (value ? TRUE.length : FALSE.length));
+    }
+
+    @Override
+    public void writeNull() throws IOException {
+        beforeValue();
+        put(NULL, 0, NULL.length);
+    }
+
+    @Override
+    public void writeJsonValue(JsonValue value) throws IOException {
+        switch (value.getValueType()) {
+            case OBJECT:
+                writeStartObject();
+                for (Map.Entry<String, JsonValue> e
+                        : ((JsonObject) value).entrySet()) {
+                    writeName(e.getKey());
+                    writeJsonValue(e.getValue());
+                }
+                writeEnd();
+                break;
+            case ARRAY:
+                writeStartArray();
+                for (JsonValue v : (JsonArray) value) {
+                    writeJsonValue(v);
+                }
+                writeEnd();
+                break;
+            case STRING:
+                writeString(((JsonString) value).getString());
+                break;
+            case NUMBER:
+                beforeValue();
+                putAscii(value.toString());
+                break;
+            case TRUE:
+                writeBoolean(true);
+                break;
+            case FALSE:
+                writeBoolean(false);
+                break;
+            case NULL:
+                writeNull();
+        }
+    }
+
+    /**
+     * Puts bytes into the buffer as is.
+     *
+     * @param  bytes
+     *         the bytes.
+     * @param  offset
+     *         the offset of the first byte.
+     * @param  length
+     *         the number of bytes.
+     * @throws  IOException
+     *          if an I/O error occurs.
+     */
+    protected final void put(byte[] bytes, int offset, int length)
+            throws IOException {
+        while (true) {
+            int n = Math.min(length, buffer.remaining());
+            buffer.put(bytes, offset, n);
+            offset += n;
+            length -= n;
+            if (length > 0) {
+                buffer = checkBuffer(overflow(buffer));
+            } else {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Writes a string value that consists of ASCII characters only and
+     * doesn't need escaping.
+     *
+     * @param  chars
+     *         the characters.
+     * @param  length
+     *         the number of characters.
+     * @throws  IOException
+     *          if an I/O error occurs.
+     */
+    void writeAsciiString(byte[] chars, int length) throws IOException {
+        beforeValue();
+        put((byte) '"');
+        put(chars, 0, length);
+        put((byte) '"');
+    }
+
+    /**
+     * Accounts for a value that is put into the buffer by other means: puts
+     * a separator, if it is needed before the value.
+     *
+     * @throws  IOException
+     *          if an I/O error occurs.
+     */
+    void skipValue() throws IOException {
+        beforeValue();
+    }
+
+    /**
+     * Writes a line separator between top level values.
+     *
+     * @throws  IOException
+     *          if an I/O error occurs.
+     */
+    void writeNewline() throws IOException {
+        put((byte) '\n');
+    }
+
+    /**
+     * Writes a UUID value in its canonical form.
+     *
+     * @param  value
+     *         the value.
+     * @throws  IOException
+     *          if an I/O error occurs.
+     */
+    void writeUuid(UUID value) throws IOException {
+        byte[] b = scratch;
+        putHex(b, 0, value.getMostSignificantBits() >>> 32, 8);
+        b[8] = '-';
+        putHex(b, 9, value.getMostSignificantBits() >>> 16, 4);
+        b[13] = '-';
+        putHex(b, 14, value.getMostSignificantBits(), 4);
+        b[18] = '-';
+        putHex(b, 19, value.getLeastSignificantBits() >>> 48, 4);
+        b[23] = '-';
+        putHex(b, 24, value.getLeastSignificantBits(), 12);
+        writeAsciiString(b, 36);
+    }
+
+    /**
+     * Encodes a string as a JSON string value.
+     *
+     * @param  s
+     *         the string.
+     * @return  UTF-8 encoded JSON string value.
+     */
+    static byte[] quote(String s) {
+        RestyArrayEncoder encoder = new RestyArrayEncoder(s.length() + 2);
+        try {
+            encoder.writeString(s);
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+        return encoder.toByteArray(0, encoder.size());
+    }
+
+    private void beforeName() throws IOException {
+        if (depth == 0 || afterName || contexts[depth - 1] > OBJECT) {
+            throw new IllegalStateException("Name outside of object");
+        }
+        if (contexts[depth - 1] == OBJECT) {
+            put((byte) ',');
+        } else {
+            contexts[depth - 1] = OBJECT;
+        }
+    }
+
+    private void beforeValue() throws IOException {
+        if (afterName) {
+            afterName = false;
+        } else if (depth > 0) {
+            byte context = contexts[depth - 1];
+            if (context == ARRAY) {
+                put((byte) ',');
+            } else if (context == EMPTY_ARRAY) {
+                contexts[depth - 1] = ARRAY;
+            } else {
+                throw new IllegalStateException("Value without name");
+            }
+        }
+    }
+
+    private ByteBuffer checkBuffer(ByteBuffer b) {
+        if (b.remaining() < MIN_BUFFER_SIZE) {
+            throw new IllegalStateException("Not enough buffer space");
+        }
+        return b;
+    }
+
+    private void push(byte context) {
+        if (depth == contexts.length) {
+            contexts = Arrays.copyOf(contexts, depth * 2);
+        }
+        contexts[depth ++] = context;
+    }
+
+    private void put(byte b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            buffer = checkBuffer(overflow(buffer));
+        }
+        buffer.put(b);
+    }
+
+    private void putAscii(String s) throws IOException {
+        int length = s.length();
+        for (int i = 0; i < length; i ++) {
+            put((byte) s.charAt(i));
+        }
+    }
+
+    private void putLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            putAscii(Long.toString(value));
+            return;
+        }
+        int i = digits.length;
+        boolean negative = (value < 0);
+        if (negative) {
+            value = -value;
+        }
+        do {
+            digits[-- i] = (byte) ('0' + (int) (value % 10));
+            value /= 10;
+        } while (value != 0);
+        if (negative) {
+            digits[-- i] = '-';
+        }
+        put(digits, i, digits.length - i);
+    }
+
+    private void putQuoted(String s) throws IOException {
+        ByteBuffer b = buffer;
+        if (!b.hasRemaining()) {
+            b = buffer = checkBuffer(overflow(b));
+        }
+        b.put((byte) '"');
+        int length = s.length();
+        for (int i = 0; i < length; i ++) {
+            if (b.remaining() < 12) {
+                b = buffer = checkBuffer(overflow(b));
+            }
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                if (c >= 0x20 && c != '"' && c != '\\') {
+                    b.put((byte) c);
+                } else {
+                    b.put((byte) '\\');
+                    switch (c) {
+                        case '"':
+                        case '\\':
+                            b.put((byte) c);
+                            break;
+                        case '\b':
+                            b.put((byte) 'b');
+                            break;
+                        case '\f':
+                            b.put((byte) 'f');
+                            break;
+                        case '\n':
+                            b.put((byte) 'n');
+                            break;
+                        case '\r':
+                            b.put((byte) 'r');
+                            break;
+                        case '\t':
+                            b.put((byte) 't');
+                            break;
+                        default:
+                            putEscape(b, c);
+                    }
+                }
+            } else if (c < 0x800) {
+                b.put((byte) (0xc0 | (c >> 6)));
+                b.put((byte) (0x80 | (c & 0x3f)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++ i));
+                b.put((byte) (0xf0 | (cp >> 18)));
+                b.put((byte) (0x80 | ((cp >> 12) & 0x3f)));
+                b.put((byte) (0x80 | ((cp >> 6) & 0x3f)));
+                b.put((byte) (0x80 | (cp & 0x3f)));
+            } else if (Character.isSurrogate(c)) {
+                b.put((byte) '\\');
+                putEscape(b, c);
+            } else {
+                b.put((byte) (0xe0 | (c >> 12)));
+                b.put((byte) (0x80 | ((c >> 6) & 0x3f)));
+                b.put((byte) (0x80 | (c & 0x3f)));
+            }
+        }
+        if (!b.hasRemaining()) {
+            b = buffer = checkBuffer(overflow(b));
+        }
+        b.put((byte) '"');
+    }
+
+    private static void putHex(byte[] b, int offset, long value,
+            int digits) {
+        for (int i = offset + digits - 1; i >= offset; i --) {
+            b[i] = HEX[(int) value & 0xf];
+            value >>>= 4;
+        }
+    }
+
+    private static void putEscape(ByteBuffer b, char c) {
+        b.put((byte) 'u');
+        b.put(HEX[(c >> 12) & 0xf]);
+        b.put(HEX[(c >> 8) & 0xf]);
+        b.put(HEX[(c >> 4) & 0xf]);
+        b.put(HEX[c & 0xf]);
+    }
+
+}
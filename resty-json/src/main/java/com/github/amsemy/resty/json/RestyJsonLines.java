@@ -0,0 +1,247 @@
+package com.github.amsemy.resty.json;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Output of records as JSON Lines (NDJSON): one compact JSON text per line.
+ * Records are read from an iterator and written one by one, so a client can
+ * process them incrementally and the whole export is never held in memory.
+ * Records can be encoded in parallel; they are written in the order of the
+ * iterator anyway.
+ *
+ * <p>Writers are thread-safe.
+ */
+public class RestyJsonLines {
+
+    private static final class Encoder extends RestyJsonEncoder {
+
+        Encoder(int bufferSize) {
+            super(ByteBuffer.allocate(bufferSize));
+        }
+
+        @Override
+        protected ByteBuffer overflow(ByteBuffer full) {
+            full.flip();
+            return ByteBuffer.allocate(full.capacity() * 2).put(full);
+        }
+
+    }
+
+    private final class Encoding implements Callable<ByteBuffer> {
+
+        private final Object record;
+
+        Encoding(Object record) {
+            this.record = record;
+        }
+
+        @Override
+        public ByteBuffer call() throws Exception {
+            Encoder encoder = new Encoder(RECORD_BUFFER_SIZE);
+            new RestySerializer(encoder).write(record);
+            encoder.writeNewline();
+            ByteBuffer result = encoder.buffer;
+            result.flip();
+            return result;
+        }
+
+    }
+
+    /**
+     * Default size of buffers.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private static final int RECORD_BUFFER_SIZE = 512;
+
+    private final int flushInterval;
+    private final ExecutorService executor;
+    private final int window;
+    private final int bufferSize;
+
+    /**
+     * Creates a writer that encodes records in the calling thread.
+     *
+     * @param  flushInterval
+     *         the number of records after which the output stream is
+     *         flushed. If {@code 0}, the stream is flushed only at the end.
+     */
+    public RestyJsonLines(int flushInterval) {
+        this(flushInterval, null, 0);
+    }
+
+    /**
+     * Creates a writer that encodes records in parallel.
+     *
+     * @param  flushInterval
+     *         the number of records after which the output stream is
+     *         flushed. If {@code 0}, the stream is flushed only at the end.
+     * @param  executor
+     *         the executor that encodes records.
+     * @param  window
+     *         the maximum number of records being encoded or waiting to be
+     *         written at a time.
+     */
+    public RestyJsonLines(int flushInterval, ExecutorService executor,
+            int window) {
+        this(flushInterval, executor, window, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a writer.
+     *
+     * @param  flushInterval
+     *         the number of records after which the output stream is
+     *         flushed. If {@code 0}, the stream is flushed only at the end.
+     * @param  executor
+     *         the executor that encodes records or {@code null} to encode
+     *         them in the calling thread.
+     * @param  window
+     *         the maximum number of records being encoded or waiting to be
+     *         written at a time. Ignored if the executor is {@code null}.
+     * @param  bufferSize
+     *         size of the buffer of the output stream.
+     */
+    public RestyJsonLines(int flushInterval, ExecutorService executor,
+            int window, int bufferSize) {
+        if (flushInterval < 0) {
+            throw new IllegalArgumentException("Negative flush interval");
+        }
+        if (executor != null && window < 1) {
+            throw new IllegalArgumentException("Invalid window");
+        }
+        if (bufferSize < RestyJsonEncoder.MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException("Too small buffer size");
+        }
+        this.flushInterval = flushInterval;
+        this.executor = executor;
+        this.window = window;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Writes records to the output stream. The output stream isn't closed.
+     *
+     * @param  records
+     *         the records. A record can be an array, a collection, a map, a
+     *         json array builder, a json object builder or a POJO.
+     * @param  out
+     *         the output stream.
+     * @return  the number of written records.
+     * @throws  IOException
+     *          if an I/O error occurs.
+     * @throws  RestyMappingException
+     *          if there are errors of annotation using.
+     */
+    public long write(Iterable<?> records, OutputStream out)
+            throws IOException, RestyMappingException {
+        return write(records.iterator(), out);
+    }
+
+    /**
+     * Writes records to the output stream. The output stream isn't closed.
+     *
+     * @param  records
+     *         the records. A record can be an array, a collection, a map, a
+     *         json array builder, a json object builder or a POJO.
+     * @param  out
+     *         the output stream.
+     * @return  the number of written records.
+     * @throws  IOException
+     *          if an I/O error occurs.
+     * @throws  RestyMappingException
+     *          if there are errors of annotation using.
+     */
+    public long write(Iterator<?> records, OutputStream out)
+            throws IOException, RestyMappingException {
+        if (executor == null) {
+            return writeSequential(records, out);
+        } else {
+            return writeParallel(records, out);
+        }
+    }
+
+    private long writeParallel(Iterator<?> records, OutputStream out)
+            throws IOException, RestyMappingException {
+        RestyStreamEncoder encoder = new RestyStreamEncoder(out, bufferSize);
+        ArrayDeque<Future<ByteBuffer>> pending = new ArrayDeque<>(window);
+        long count = 0;
+        try {
+            while (records.hasNext()) {
+                if (pending.size() == window) {
+                    writeEncoded(await(pending.pollFirst()), encoder,
+                            ++ count);
+                }
+                pending.addLast(executor.submit(
+                        new Encoding(records.next())));
+            }
+            while (!pending.isEmpty()) {
+                writeEncoded(await(pending.pollFirst()), encoder, ++ count);
+            }
+        } finally {
+            for (Future<ByteBuffer> f : pending) {
+                f.cancel(true);
+            }
+        }
+        encoder.flush();
+        return count;
+    }
+
+    private long writeSequential(Iterator<?> records, OutputStream out)
+            throws IOException, RestyMappingException {
+        RestyStreamEncoder encoder = new RestyStreamEncoder(out, bufferSize);
+        RestySerializer serializer = new RestySerializer(encoder);
+        long count = 0;
+        while (records.hasNext()) {
+            serializer.write(records.next());
+            encoder.writeNewline();
+            count ++;
+            if (flushInterval > 0 && count % flushInterval == 0) {
+                encoder.flush();
+            }
+        }
+        encoder.flush();
+        return count;
+    }
+
+    private void writeEncoded(ByteBuffer line, RestyStreamEncoder encoder,
+            long count) throws IOException {
+        encoder.writeEncoded(line);
+        if (flushInterval > 0 && count % flushInterval == 0) {
+            encoder.flush();
+        }
+    }
+
+    private static ByteBuffer await(Future<ByteBuffer> future)
+            throws IOException, RestyMappingException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RestyMappingException) {
+                throw (RestyMappingException) cause;
+            } else if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw new IllegalStateException(cause);
+            }
+        }
+    }
+
+}
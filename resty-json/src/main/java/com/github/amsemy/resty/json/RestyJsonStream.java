@@ -0,0 +1,256 @@
+package com.github.amsemy.resty.json;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousByteChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * UTF-8 encoded JSON text of an object, produced on demand. The object is
+ * converted by portions as the text is read, so only a few buffers of the
+ * text are held in memory at a time. Writing to a channel stops at a buffer
+ * boundary when the channel doesn't accept more bytes, and the conversion is
+ * suspended until the next write.
+ *
+ * <p>Streams are not thread-safe.
+ */
+public class RestyJsonStream {
+
+    private class AsyncWrite<A> implements CompletionHandler<Integer, Void> {
+
+        private final AsynchronousByteChannel channel;
+        private final A attachment;
+        private final CompletionHandler<Long, ? super A> handler;
+        private final AtomicInteger wip = new AtomicInteger();
+        private long total;
+
+        AsyncWrite(AsynchronousByteChannel channel, A attachment,
+                CompletionHandler<Long, ? super A> handler) {
+            this.channel = channel;
+            this.attachment = attachment;
+            this.handler = handler;
+        }
+
+        @Override
+        public void completed(Integer result, Void nothing) {
+            total += result;
+            if (!ready.peekFirst().hasRemaining()) {
+                recycle();
+            }
+            proceed();
+        }
+
+        @Override
+        public void failed(Throwable ex, Void nothing) {
+            handler.failed(ex, attachment);
+        }
+
+        void proceed() {
+            // Channels may complete a write in the calling thread, so the
+            // next write is started by the loop instead of a nested call.
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                ByteBuffer head;
+                try {
+                    head = fill();
+                } catch (IOException | RestyMappingException
+                        | RuntimeException ex) {
+                    handler.failed(ex, attachment);
+                    return;
+                }
+                if (head == null) {
+                    handler.completed(total, attachment);
+                    return;
+                }
+                channel.write(head, null, this);
+            } while (wip.decrementAndGet() != 0);
+        }
+
+    }
+
+    private class Encoder extends RestyJsonEncoder {
+
+        Encoder(ByteBuffer buffer) {
+            super(buffer);
+        }
+
+        @Override
+        protected ByteBuffer overflow(ByteBuffer full) {
+            full.flip();
+            ready.addLast(full);
+            return allocate();
+        }
+
+    }
+
+    /**
+     * Default size of buffers.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final int bufferSize;
+    private final ArrayDeque<ByteBuffer> ready = new ArrayDeque<>();
+    private final ArrayDeque<ByteBuffer> free = new ArrayDeque<>();
+    private final Encoder encoder;
+    private final RestySerializer serializer;
+    private Object object;
+    private boolean done;
+
+    /**
+     * Creates a stream of the JSON text of an object.
+     *
+     * @param  object
+     *         the object. Object can be an array, a collection, a map, a json
+     *         array builder, a json object builder or a POJO.
+     */
+    public RestyJsonStream(Object object) {
+        this(object, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a stream of the JSON text of an object.
+     *
+     * @param  object
+     *         the object. Object can be an array, a collection, a map, a json
+     *         array builder, a json object builder or a POJO.
+     * @param  bufferSize
+     *         size of buffers.
+     */
+    public RestyJsonStream(Object object, int bufferSize) {
+        if (bufferSize < RestyJsonEncoder.MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException("Too small buffer size");
+        }
+        this.object = object;
+        this.bufferSize = bufferSize;
+        encoder = new Encoder(allocate());
+        serializer = new RestySerializer(encoder);
+    }
+
+    /**
+     * Checks whether the whole text has been read.
+     *
+     * @return  {@code true}, if there are no more bytes.
+     */
+    public boolean isDone() {
+        return (done && ready.isEmpty());
+    }
+
+    /**
+     * Reads a sequence of bytes of the text into the buffer.
+     *
+     * @param  dst
+     *         the buffer.
+     * @return  the number of bytes read or {@code -1}, if the whole text has
+     *          been read.
+     * @throws  IOException
+     *          if an I/O error occurs.
+     * @throws  RestyMappingException
+     *          if there are errors of annotation using.
+     */
+    public int read(ByteBuffer dst) throws IOException, RestyMappingException {
+        int count = 0;
+        while (dst.hasRemaining()) {
+            ByteBuffer head = fill();
+            if (head == null) {
+                break;
+            }
+            int n = Math.min(dst.remaining(), head.remaining());
+            int limit = head.limit();
+            head.limit(head.position() + n);
+            dst.put(head);
+            head.limit(limit);
+            count += n;
+            if (!head.hasRemaining()) {
+                recycle();
+            }
+        }
+        return (count == 0 && isDone() ? -1 : count);
+    }
+
+    /**
+     * Writes the text to the channel. If the channel is in non-blocking mode
+     * and doesn't accept all bytes, the method returns and has to be invoked
+     * again when the channel becomes writable.
+     *
+     * @param  channel
+     *         the channel.
+     * @return  {@code true}, if the whole text has been written.
+     * @throws  IOException
+     *          if an I/O error occurs.
+     * @throws  RestyMappingException
+     *          if there are errors of annotation using.
+     */
+    public boolean writeTo(WritableByteChannel channel)
+            throws IOException, RestyMappingException {
+        while (true) {
+            ByteBuffer head = fill();
+            if (head == null) {
+                return true;
+            }
+            channel.write(head);
+            if (head.hasRemaining()) {
+                return false;
+            }
+            recycle();
+        }
+    }
+
+    /**
+     * Writes the text to the asynchronous channel. The text is converted by
+     * portions between write operations, so no thread waits while the channel
+     * is busy.
+     *
+     * @param  <A>
+     *         the type of the attachment.
+     * @param  channel
+     *         the channel.
+     * @param  attachment
+     *         the object to attach to the operation.
+     * @param  handler
+     *         the handler for consuming the result; it receives the number of
+     *         bytes written.
+     */
+    public <A> void writeTo(AsynchronousByteChannel channel, A attachment,
+            CompletionHandler<Long, ? super A> handler) {
+        new AsyncWrite<>(channel, attachment, handler).proceed();
+    }
+
+    private ByteBuffer allocate() {
+        ByteBuffer b = free.pollFirst();
+        return (b == null ? ByteBuffer.allocate(bufferSize) : b);
+    }
+
+    private ByteBuffer fill() throws IOException, RestyMappingException {
+        while (ready.isEmpty() && !done) {
+            boolean more;
+            if (object != null) {
+                Object o = object;
+                object = null;
+                more = serializer.start(o);
+            } else {
+                more = serializer.step();
+            }
+            if (!more) {
+                done = true;
+                ByteBuffer last = encoder.buffer;
+                if (last.position() > 0) {
+                    last.flip();
+                    ready.addLast(last);
+                }
+            }
+        }
+        return ready.peekFirst();
+    }
+
+    private void recycle() {
+        ByteBuffer b = ready.pollFirst();
+        b.clear();
+        free.addLast(b);
+    }
+
+}
@@ -0,0 +1,283 @@
+package com.github.amsemy.resty.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JSON text of a fixed shape with holes for changing values. The constant
+ * parts are encoded once, when the template is built; writing the template
+ * converts only the values of the holes.
+ *
+ * <pre>
+ * RestyJsonTemplate envelope = RestyJsonTemplate.builder()
+ *         .startObject()
+ *         .name("status").value("ok")
+ *         .name("data").hole()
+ *         .name("meta").startObject()
+ *                 .name("page").hole(Integer.class)
+ *                 .end()
+ *         .end()
+ *         .build();
+ * envelope.write(out, data, page);
+ * </pre>
+ *
+ * <p>Templates are immutable and thread-safe.
+ */
+public final class RestyJsonTemplate {
+
+    /**
+     * Builder of a template. Methods must be called in the order of the JSON
+     * text, as for {@link RestyJsonWriter}.
+     */
+    public static final class Builder {
+
+        private final RestyArrayEncoder encoder = new RestyArrayEncoder(256);
+        private final List<byte[]> segments = new ArrayList<>();
+        private final List<Class<?>> types = new ArrayList<>();
+        private int segmentStart;
+        private boolean written;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds the start of an object.
+         *
+         * @return  this builder.
+         */
+        public Builder startObject() {
+            try {
+                encoder.writeStartObject();
+            } catch (IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+            return this;
+        }
+
+        /**
+         * Adds the start of an array.
+         *
+         * @return  this builder.
+         */
+        public Builder startArray() {
+            try {
+                encoder.writeStartArray();
+            } catch (IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+            return this;
+        }
+
+        /**
+         * Adds the end of the current object or array.
+         *
+         * @return  this builder.
+         */
+        public Builder end() {
+            try {
+                encoder.writeEnd();
+            } catch (IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+            written = (encoder.getDepth() == 0);
+            return this;
+        }
+
+        /**
+         * Adds a name of the next object member.
+         *
+         * @param  name
+         *         the name.
+         * @return  this builder.
+         */
+        public Builder name(String name) {
+            try {
+                encoder.writeName(name);
+            } catch (IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+            return this;
+        }
+
+        /**
+         * Adds a constant value. Value is converted as by {@link RestyJson}.
+         *
+         * @param  value
+         *         the value.
+         * @return  this builder.
+         * @throws  RestyMappingException
+         *          if there are errors of annotation using.
+         */
+        public Builder value(Object value) throws RestyMappingException {
+            try {
+                new RestySerializer(encoder).writeValue(value, null);
+            } catch (IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+            written = (encoder.getDepth() == 0);
+            return this;
+        }
+
+        /**
+         * Adds a hole for a value of any class.
+         *
+         * @return  this builder.
+         */
+        public Builder hole() {
+            return hole(Object.class);
+        }
+
+        /**
+         * Adds a hole for a value of the class. Values of exactly that class
+         * are converted without looking their class up.
+         *
+         * @param  type
+         *         the class of values; {@code null} values are allowed too.
+         * @return  this builder.
+         * @throws  IllegalArgumentException
+         *          if the class is primitive.
+         */
+        public Builder hole(Class<?> type) {
+            if (type.isPrimitive()) {
+                throw new IllegalArgumentException(
+                        "Primitive class of hole: " + type.getName());
+            }
+            try {
+                encoder.skipValue();
+            } catch (IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+            segments.add(encoder.toByteArray(segmentStart, encoder.size()));
+            segmentStart = encoder.size();
+            types.add(type);
+            written = (encoder.getDepth() == 0);
+            return this;
+        }
+
+        /**
+         * Builds the template.
+         *
+         * @return  a template.
+         * @throws  IllegalStateException
+         *          if the JSON text isn't complete.
+         */
+        public RestyJsonTemplate build() {
+            if (!written || encoder.getDepth() > 0) {
+                throw new IllegalStateException("Incomplete JSON text");
+            }
+            List<byte[]> all = new ArrayList<>(segments);
+            all.add(encoder.toByteArray(segmentStart, encoder.size()));
+            return new RestyJsonTemplate(all.toArray(new byte[all.size()][]),
+                    types.toArray(new Class<?>[types.size()]));
+        }
+
+    }
+
+    private static final int MAX_BUFFER_SIZE = 8192;
+
+    private final byte[][] segments;
+    private final Class<?>[] types;
+    private final boolean[] bindable;
+    private final int length;
+
+    private RestyJsonTemplate(byte[][] segments, Class<?>[] types) {
+        this.segments = segments;
+        this.types = types;
+        bindable = new boolean[types.length];
+        for (int i = 0; i < types.length; i ++) {
+            bindable[i] = RestyClassPlan.isBindable(types[i]);
+        }
+        int n = 0;
+        for (byte[] segment : segments) {
+            n += segment.length;
+        }
+        length = n;
+    }
+
+    /**
+     * Creates a builder of a template.
+     *
+     * @return  a builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the number of holes.
+     *
+     * @return  the number of holes.
+     */
+    public int getHoleCount() {
+        return types.length;
+    }
+
+    /**
+     * Writes UTF-8 encoded JSON text of the template to an output stream.
+     *
+     * @param  out
+     *         the output stream.
+     * @param  values
+     *         values of the holes, in order of the holes.
+     * @throws  IOException
+     *          if an I/O error occurs.
+     * @throws  RestyMappingException
+     *          if there are errors of annotation using.
+     * @throws  IllegalArgumentException
+     *          if the values don't match the holes.
+     */
+    public void write(OutputStream out, Object... values)
+            throws IOException, RestyMappingException {
+        RestyStreamEncoder encoder = new RestyStreamEncoder(out,
+                Math.min(length + 64 * types.length + 16, MAX_BUFFER_SIZE));
+        write(encoder, values);
+        encoder.drain();
+    }
+
+    /**
+     * Returns UTF-8 encoded JSON text of the template.
+     *
+     * @param  values
+     *         values of the holes, in order of the holes.
+     * @return  the JSON text.
+     * @throws  RestyMappingException
+     *          if there are errors of annotation using.
+     * @throws  IllegalArgumentException
+     *          if the values don't match the holes.
+     */
+    public byte[] toBytes(Object... values) throws RestyMappingException {
+        RestyArrayEncoder encoder =
+                new RestyArrayEncoder(length + 64 * types.length);
+        try {
+            write(encoder, values);
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+        return encoder.toByteArray(0, encoder.size());
+    }
+
+    private void write(RestyJsonEncoder encoder, Object[] values)
+            throws IOException, RestyMappingException {
+        if (values.length != types.length) {
+            throw new IllegalArgumentException("Expected " + types.length
+                    + " values, but got " + values.length);
+        }
+        for (int i = 0; i < values.length; i ++) {
+            if (values[i] != null && !types[i].isInstance(values[i])) {
+                throw new IllegalArgumentException("Value of hole " + i
+                        + " isn't " + types[i].getName());
+            }
+        }
+        RestySerializer serializer = new RestySerializer(encoder);
+        for (int i = 0; i < values.length; i ++) {
+            encoder.put(segments[i], 0, segments[i].length);
+            serializer.writeValue(values[i],
+                    bindable[i] ? RestyClassPlan.get(types[i]) : null);
+        }
+        byte[] last = segments[values.length];
+        encoder.put(last, 0, last.length);
+    }
+
+}
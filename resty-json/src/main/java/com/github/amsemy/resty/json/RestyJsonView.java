@@ -0,0 +1,514 @@
+package com.github.amsemy.resty.json;
+
+import com.github.amsemy.resty.json.annotation.RstInclude;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonException;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonString;
+import javax.json.JsonStructure;
+import javax.json.JsonValue;
+
+/**
+ * Lazy JSON models of objects. Values of members and elements are converted
+ * when they are read for the first time and then kept. Conversion errors are
+ * thrown as {@link JsonException}.
+ */
+final class RestyJsonView {
+
+    private static final String MSG_CONVERT_FAIL =
+            "Cann't convert '%1$s' class: %2$s";
+    private static final String MSG_TYPEVALUE_CHAIN_EXCEEDED =
+            "Chain of type values of '%1$s' class exceeds %2$d levels";
+
+    /**
+     * JSON object of a POJO or a map.
+     */
+    private static final class LazyObject
+            extends AbstractMap<String, JsonValue> implements JsonObject {
+
+        private final Object pojo;
+        private final RestyClassPlan.Member[] members;
+        private final RstInclude mapInclude;
+        private final String[] names;
+        private final Object[] raw;
+        private final Map<String, Integer> index;
+        private final JsonValue[] values;
+        private final boolean[] omitted;
+        private final boolean[] done;
+        private Set<Map.Entry<String, JsonValue>> entries;
+
+        LazyObject(Object pojo, RestyClassPlan plan)
+                throws RestyMappingException {
+            this.pojo = pojo;
+            members = plan.getMembers();
+            mapInclude = null;
+            names = new String[members.length];
+            for (int i = 0; i < members.length; i ++) {
+                names[i] = members[i].name;
+            }
+            raw = null;
+            index = plan.getMemberIndex();
+            values = new JsonValue[members.length];
+            omitted = new boolean[members.length];
+            done = new boolean[members.length];
+        }
+
+        LazyObject(Map<?, ?> map) {
+            pojo = null;
+            members = null;
+            mapInclude = RestyClassPlan.getDefaultInclude();
+            names = new String[map.size()];
+            raw = new Object[map.size()];
+            index = new HashMap<>();
+            int n = 0;
+            for (Map.Entry<?, ?> e : map.entrySet()) {
+                String name = e.getKey().toString();
+                Integer prev = index.put(name, n);
+                if (prev != null) {
+                    // The last value wins, as in builders.
+                    index.put(name, prev);
+                    raw[prev] = e.getValue();
+                } else {
+                    names[n] = name;
+                    raw[n] = e.getValue();
+                    n ++;
+                }
+            }
+            values = new JsonValue[n];
+            omitted = new boolean[n];
+            done = new boolean[n];
+        }
+
+        @Override
+        public ValueType getValueType() {
+            return ValueType.OBJECT;
+        }
+
+        @Override
+        public Set<Map.Entry<String, JsonValue>> entrySet() {
+            if (entries == null) {
+                entries = new AbstractSet<Map.Entry<String, JsonValue>>() {
+
+                    @Override
+                    public Iterator<Map.Entry<String, JsonValue>> iterator() {
+                        return new EntryIterator();
+                    }
+
+                    @Override
+                    public int size() {
+                        int n = 0;
+                        for (int i = 0; i < values.length; i ++) {
+                            if (!isOmitted(i)) {
+                                n ++;
+                            }
+                        }
+                        return n;
+                    }
+
+                };
+            }
+            return entries;
+        }
+
+        @Override
+        public int size() {
+            return entrySet().size();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            Integer i = index.get(key);
+            return (i != null && !isOmitted(i));
+        }
+
+        @Override
+        public JsonValue get(Object key) {
+            Integer i = index.get(key);
+            return (i != null ? value(i) : null);
+        }
+
+        @Override
+        public JsonArray getJsonArray(String name) {
+            return (JsonArray) get(name);
+        }
+
+        @Override
+        public JsonObject getJsonObject(String name) {
+            return (JsonObject) get(name);
+        }
+
+        @Override
+        public JsonNumber getJsonNumber(String name) {
+            return (JsonNumber) get(name);
+        }
+
+        @Override
+        public JsonString getJsonString(String name) {
+            return (JsonString) get(name);
+        }
+
+        @Override
+        public String getString(String name) {
+            return getJsonString(name).getString();
+        }
+
+        @Override
+        public String getString(String name, String defaultValue) {
+            JsonValue value = get(name);
+            return (value instanceof JsonString
+                    ? ((JsonString) value).getString() : defaultValue);
+        }
+
+        @Override
+        public int getInt(String name) {
+            return getJsonNumber(name).intValue();
+        }
+
+        @Override
+        public int getInt(String name, int defaultValue) {
+            JsonValue value = get(name);
+            return (value instanceof JsonNumber
+                    ? ((JsonNumber) value).intValue() : defaultValue);
+        }
+
+        @Override
+        public boolean getBoolean(String name) {
+            return toBoolean(get(name));
+        }
+
+        @Override
+        public boolean getBoolean(String name, boolean defaultValue) {
+            JsonValue value = get(name);
+            return (value == JsonValue.TRUE || value == JsonValue.FALSE
+                    ? value == JsonValue.TRUE : defaultValue);
+        }
+
+        @Override
+        public boolean isNull(String name) {
+            return get(name).equals(JsonValue.NULL);
+        }
+
+        @Override
+        public String toString() {
+            return toText(this);
+        }
+
+        private boolean isOmitted(int i) {
+            value(i);
+            return omitted[i];
+        }
+
+        /**
+         * Returns the value of the member, or {@code null} if the member is
+         * omitted.
+         */
+        private synchronized JsonValue value(int i) {
+            if (!done[i]) {
+                Object object;
+                RstInclude include;
+                if (members != null) {
+                    try {
+                        object = members[i].resolve(pojo);
+                    } catch (RestyMappingException ex) {
+                        throw new JsonException(ex.getMessage(), ex);
+                    }
+                    include = members[i].include;
+                } else {
+                    object = raw[i];
+                    include = mapInclude;
+                }
+                if (include != RstInclude.ALWAYS
+                        && RestyClassPlan.isOmitted(include, object)) {
+                    omitted[i] = true;
+                } else {
+                    values[i] = toJsonValue(object);
+                }
+                done[i] = true;
+            }
+            return values[i];
+        }
+
+        private final class EntryIterator
+                implements Iterator<Map.Entry<String, JsonValue>> {
+
+            private int next = advance(0);
+
+            @Override
+            public boolean hasNext() {
+                return (next < values.length);
+            }
+
+            @Override
+            public Map.Entry<String, JsonValue> next() {
+                if (next >= values.length) {
+                    throw new NoSuchElementException();
+                }
+                int i = next;
+                next = advance(i + 1);
+                return new AbstractMap.SimpleImmutableEntry<>(names[i],
+                        value(i));
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+
+            private int advance(int i) {
+                while (i < values.length && isOmitted(i)) {
+                    i ++;
+                }
+                return i;
+            }
+
+        }
+
+    }
+
+    /**
+     * JSON array of an array or a list.
+     */
+    private static final class LazyArray extends AbstractList<JsonValue>
+            implements JsonArray {
+
+        private final Object array;
+        private final List<?> list;
+        private final JsonValue[] values;
+
+        LazyArray(Object array) {
+            this.array = array;
+            list = null;
+            values = new JsonValue[Array.getLength(array)];
+        }
+
+        LazyArray(List<?> list) {
+            array = null;
+            this.list = list;
+            values = new JsonValue[list.size()];
+        }
+
+        @Override
+        public ValueType getValueType() {
+            return ValueType.ARRAY;
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        @Override
+        public synchronized JsonValue get(int index) {
+            JsonValue value = values[index];
+            if (value == null) {
+                value = toJsonValue(list != null
+                        ? list.get(index) : Array.get(array, index));
+                values[index] = value;
+            }
+            return value;
+        }
+
+        @Override
+        public JsonObject getJsonObject(int index) {
+            return (JsonObject) get(index);
+        }
+
+        @Override
+        public JsonArray getJsonArray(int index) {
+            return (JsonArray) get(index);
+        }
+
+        @Override
+        public JsonNumber getJsonNumber(int index) {
+            return (JsonNumber) get(index);
+        }
+
+        @Override
+        public JsonString getJsonString(int index) {
+            return (JsonString) get(index);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T extends JsonValue> List<T> getValuesAs(Class<T> type) {
+            return (List<T>) this;
+        }
+
+        @Override
+        public String getString(int index) {
+            return getJsonString(index).getString();
+        }
+
+        @Override
+        public String getString(int index, String defaultValue) {
+            JsonValue value = getOrNull(index);
+            return (value instanceof JsonString
+                    ? ((JsonString) value).getString() : defaultValue);
+        }
+
+        @Override
+        public int getInt(int index) {
+            return getJsonNumber(index).intValue();
+        }
+
+        @Override
+        public int getInt(int index, int defaultValue) {
+            JsonValue value = getOrNull(index);
+            return (value instanceof JsonNumber
+                    ? ((JsonNumber) value).intValue() : defaultValue);
+        }
+
+        @Override
+        public boolean getBoolean(int index) {
+            return toBoolean(get(index));
+        }
+
+        @Override
+        public boolean getBoolean(int index, boolean defaultValue) {
+            JsonValue value = getOrNull(index);
+            return (value == JsonValue.TRUE || value == JsonValue.FALSE
+                    ? value == JsonValue.TRUE : defaultValue);
+        }
+
+        @Override
+        public boolean isNull(int index) {
+            return get(index).equals(JsonValue.NULL);
+        }
+
+        @Override
+        public String toString() {
+            return toText(this);
+        }
+
+        private JsonValue getOrNull(int index) {
+            return (index >= 0 && index < values.length ? get(index) : null);
+        }
+
+    }
+
+    private RestyJsonView() {
+    }
+
+    /**
+     * Creates a lazy JSON model of the object. Object can be an array,
+     * a collection, a map, a json array builder, a json object builder or
+     * a POJO.
+     *
+     * @param  object
+     *         the object.
+     * @return  a json model.
+     * @throws  RestyMappingException
+     *          if there are errors of annotation using.
+     */
+    static JsonStructure view(Object object) throws RestyMappingException {
+        if (object.getClass().isArray()) {
+            return new LazyArray(object);
+        } else if (object instanceof Collection) {
+            return toLazyArray((Collection<?>) object);
+        } else if (object instanceof Map) {
+            return new LazyObject((Map<?, ?>) object);
+        } else if (object instanceof JsonArrayBuilder) {
+            return ((JsonArrayBuilder) object).build();
+        } else if (object instanceof JsonObjectBuilder) {
+            return ((JsonObjectBuilder) object).build();
+        } else {
+            return new LazyObject(object,
+                    RestyClassPlan.get(object.getClass()));
+        }
+    }
+
+    private static JsonValue toJsonValue(Object value) {
+        try {
+            int chain = 0;
+            while (true) {
+                if (value == null) {
+                    return JsonValue.NULL;
+                } else if (value instanceof JsonValue) {
+                    return (JsonValue) value;
+                }
+                Class<?> type = value.getClass();
+                if (type.isArray()) {
+                    return new LazyArray(value);
+                } else if (value instanceof Collection) {
+                    return toLazyArray((Collection<?>) value);
+                } else if (value instanceof Map) {
+                    return new LazyObject((Map<?, ?>) value);
+                } else if (RestyClassPlan.isBindable(type)) {
+                    RestyClassPlan plan = RestyClassPlan.get(type);
+                    plan.checkAnnotations();
+                    if (plan.getKind() == RestyClassPlan.Kind.POJO) {
+                        return new LazyObject(value, plan);
+                    } else if (plan.getKind() == RestyClassPlan.Kind.TYPE) {
+                        if (++ chain > RestySerializer.getMaxDepth()) {
+                            throw new RestyMappingException(
+                                    MSG_TYPEVALUE_CHAIN_EXCEEDED,
+                                    type.getName(),
+                                    RestySerializer.getMaxDepth());
+                        }
+                        value = plan.getTypeValue(value);
+                        continue;
+                    }
+                }
+                // Simple values are converted at once.
+                JsonArrayBuilder builder = Json.createArrayBuilder();
+                try {
+                    new RestySerializer(new RestyBuilderWriter(builder))
+                            .writeValue(value, null);
+                } catch (IOException | IllegalStateException ex) {
+                    throw new RestyMappingException(MSG_CONVERT_FAIL,
+                            type.getName(), ex.getMessage());
+                }
+                return builder.build().get(0);
+            }
+        } catch (RestyMappingException ex) {
+            throw new JsonException(ex.getMessage(), ex);
+        }
+    }
+
+    private static LazyArray toLazyArray(Collection<?> collection) {
+        return (collection instanceof List
+                ? new LazyArray((List<?>) collection)
+                : new LazyArray(Arrays.asList(collection.toArray())));
+    }
+
+    private static boolean toBoolean(JsonValue value) {
+        if (value == JsonValue.TRUE) {
+            return true;
+        } else if (value == JsonValue.FALSE) {
+            return false;
+        } else {
+            throw new ClassCastException("Not a boolean value: " + value);
+        }
+    }
+
+    private static String toText(JsonValue value) {
+        RestyArrayEncoder encoder = new RestyArrayEncoder(256);
+        try {
+            encoder.writeJsonValue(value);
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+        return new String(encoder.toByteArray(0, encoder.size()),
+                StandardCharsets.UTF_8);
+    }
+
+}
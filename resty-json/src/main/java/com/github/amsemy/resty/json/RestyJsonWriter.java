@@ -0,0 +1,162 @@
+package com.github.amsemy.resty.json;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import javax.json.JsonValue;
+
+/**
+ * Event based output of JSON models. A member of an object is written as a
+ * name followed by a value; elements of an array are written as values. The
+ * caller is responsible for the order of events.
+ */
+public abstract class RestyJsonWriter {
+
+    /**
+     * Writes the start of an object.
+     *
+     * @throws  IOException
+     *          if an I/O error occurs.
+     */
+    public abstract void writeStartObject() throws IOException;
+
+    /**
+     * Writes the start of an array.
+     *
+     * @throws  IOException
+     *          if an I/O error occurs.
+     */
+    public abstract void writeStartArray() throws IOException;
+
+    /**
+     * Writes the end of the current object or array.
+     *
+     * @throws  IOException
+     *          if an I/O error occurs.
+     */
+    public abstract void writeEnd() throws IOException;
+
+    /**
+     * Writes a name of the next object member.
+     *
+     * @param  name
+     *         the name.
+     * @throws  IOException
+     *          if an I/O error occurs.
+     */
+    public abstract void writeName(String name) throws IOException;
+
+    /**
+     * Writes a name of the next object member.
+     *
+     * @param  name
+     *         the encoded name.
+     * @throws  IOException
+     *          if an I/O error occurs.
+     */
+    public void writeName(RestyEncodedString name) throws IOException {
+        writeName(name.getValue());
+    }
+
+    /**
+     * Writes a string value.
+     *
+     * @param  value
+     *         the value.
+     * @throws  IOException
+     *          if an I/O error occurs.
+     */
+    public abstract void writeString(String value) throws IOException;
+
+    /**
+     * Writes a string value.
+     *
+     * @param  value
+     *         the encoded value.
+     * @throws  IOException
+     *          if an I/O error occurs.
+     */
+    public void writeString(RestyEncodedString value) throws IOException {
+        writeString(value.getValue());
+    }
+
+    /**
+     * Writes a number value.
+     *
+     * @param  value
+     *         the value.
+     * @throws  IOException
+     *          if an I/O error occurs.
+     */
+    public abstract void writeNumber(long value) throws IOException;
+
+    /**
+     * Writes a number value.
+     *
+     * @param  value
+     *         the value.
+     * @throws  IOException
+     *          if an I/O error occurs.
+     * @throws  NumberFormatException
+     *          if the value is NaN or infinity.
+     */
+    public abstract void writeNumber(double value) throws IOException;
+
+    /**
+     * Writes a number value.
+     *
+     * @param  value
+     *         the value.
+     * @throws  IOException
+     *          if an I/O error occurs.
+     */
+    public abstract void writeNumber(BigDecimal value) throws IOException;
+
+    /**
+     * Writes a number value.
+     *
+     * @param  value
+     *         the value.
+     * @throws  IOException
+     *          if an I/O error occurs.
+     */
+    public abstract void writeNumber(BigInteger value) throws IOException;
+
+    /**
+     * Writes a boolean value.
+     *
+     * @param  value
+     *         the value.
+     * @throws  IOException
+     *          if an I/O error occurs.
+     */
+    public abstract void writeBoolean(boolean value) throws IOException;
+
+    /**
+     * Writes a null value.
+     *
+     * @throws  IOException
+     *          if an I/O error occurs.
+     */
+    public abstract void writeNull() throws IOException;
+
+    /**
+     * Writes a JSON model as a value.
+     *
+     * @param  value
+     *         the JSON model.
+     * @throws  IOException
+     *          if an I/O error occurs.
+     */
+    public abstract void writeJsonValue(JsonValue value) throws IOException;
+
+    /**
+     * Writes buffered data to the underlying output.
+     *
+     * @throws  IOException
+     *          if an I/O error occurs.
+     */
+    public void flush() throws IOException {
+    }
+
+}
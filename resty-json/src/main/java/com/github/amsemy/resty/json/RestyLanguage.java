@@ -0,0 +1,76 @@
+package com.github.amsemy.resty.json;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Language features of newer Java versions: records and sealed classes. This
+ * implementation finds them by reflection, so that it runs on any Java
+ * version; the multi-release JAR contains a direct one for Java 17 and
+ * later.
+ */
+final class RestyLanguage {
+
+    private static final Method GET_RECORD_COMPONENTS =
+            findMethod("java.lang.Class", "getRecordComponents");
+    private static final Method GET_ACCESSOR =
+            findMethod("java.lang.reflect.RecordComponent", "getAccessor");
+    private static final Method GET_PERMITTED_SUBCLASSES =
+            findMethod("java.lang.Class", "getPermittedSubclasses");
+
+    private RestyLanguage() {
+    }
+
+    /**
+     * Returns accessors of record components.
+     *
+     * @param  type
+     *         the class.
+     * @return  accessors in order of declaration of the components, or
+     *          {@code null}, if the class isn't a record.
+     */
+    static Method[] getRecordAccessors(Class<?> type) {
+        if (GET_RECORD_COMPONENTS == null || GET_ACCESSOR == null) {
+            return null;
+        }
+        Object[] components = (Object[]) invoke(GET_RECORD_COMPONENTS, type);
+        if (components == null) {
+            return null;
+        }
+        Method[] result = new Method[components.length];
+        for (int i = 0; i < components.length; i ++) {
+            result[i] = (Method) invoke(GET_ACCESSOR, components[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns direct subclasses permitted by a sealed class.
+     *
+     * @param  type
+     *         the class.
+     * @return  the subclasses, or {@code null}, if the class isn't sealed.
+     */
+    static Class<?>[] getPermittedSubclasses(Class<?> type) {
+        return (GET_PERMITTED_SUBCLASSES == null
+                ? null
+                : (Class<?>[]) invoke(GET_PERMITTED_SUBCLASSES, type));
+    }
+
+    private static Method findMethod(String className, String name) {
+        try {
+            return Class.forName(className).getMethod(name);
+        } catch (ClassNotFoundException | NoSuchMethodException ex) {
+            return null;
+        }
+    }
+
+    private static Object invoke(Method method, Object object) {
+        try {
+            return method.invoke(object);
+        } catch (IllegalAccessException | InvocationTargetException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+}
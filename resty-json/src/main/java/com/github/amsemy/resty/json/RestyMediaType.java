@@ -8,6 +8,9 @@ public final class RestyMediaType {
     public static final String APPLICATION_JSON_UTF8 =
             "application/json; charset=UTF-8";
 
+    public static final String APPLICATION_NDJSON_UTF8 =
+            "application/x-ndjson; charset=UTF-8";
+
     private RestyMediaType() {
     }
 
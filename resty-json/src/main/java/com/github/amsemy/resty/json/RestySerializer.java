@@ -0,0 +1,612 @@
+package com.github.amsemy.resty.json;
+
+import com.github.amsemy.resty.json.annotation.RstInclude;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonValue;
+
+/**
+ * Converter of objects to JSON events. Nested objects and arrays are kept on
+ * an explicit stack of frames, so the conversion can be suspended after any
+ * value and resumed later by the next {@link #step} call.
+ */
+final class RestySerializer {
+
+    /**
+     * Default limit of nesting of objects and arrays.
+     */
+    static final int DEFAULT_MAX_DEPTH = 1000;
+
+    /**
+     * Number of threads of the default executor of parallel getters.
+     */
+    static final int DEFAULT_POOL_SIZE =
+            Runtime.getRuntime().availableProcessors() * 4;
+
+    /**
+     * Number of getters that wait for a thread of the default executor.
+     */
+    static final int DEFAULT_QUEUE_SIZE = DEFAULT_POOL_SIZE * 16;
+
+    private static final String MSG_DEPTH_EXCEEDED =
+            "Nesting of json model exceeds %1$d levels";
+    private static final String MSG_TYPEVALUE_CHAIN_EXCEEDED =
+            "Chain of type values of '%1$s' class exceeds %2$d levels";
+
+    private static volatile int maxDepth = DEFAULT_MAX_DEPTH;
+    private static volatile Executor executor;
+
+    private abstract static class Frame {
+
+        /**
+         * Whether the start and the end of the frame are written.
+         */
+        boolean events = true;
+
+        /**
+         * Writes the next value of the frame.
+         *
+         * @return  {@code false}, if the frame has no more values.
+         */
+        abstract boolean next(RestySerializer s)
+                throws IOException, RestyMappingException;
+
+    }
+
+    private static final class ArrayFrame extends Frame {
+
+        private final Object array;
+        private final RestyClassPlan elementPlan;
+        private final int length;
+        private int index;
+
+        ArrayFrame(Object array, RestyClassPlan elementPlan) {
+            this.array = array;
+            this.elementPlan = elementPlan;
+            length = Array.getLength(array);
+        }
+
+        @Override
+        boolean next(RestySerializer s)
+                throws IOException, RestyMappingException {
+            if (index < length) {
+                s.writeValue(array instanceof Object[]
+                        ? ((Object[]) array)[index]
+                        : Array.get(array, index), elementPlan, null);
+                index ++;
+                return true;
+            } else {
+                return false;
+            }
+        }
+
+    }
+
+    private static final class IteratorFrame extends Frame {
+
+        private final Iterator<?> iterator;
+        private final RestyClassPlan elementPlan;
+
+        IteratorFrame(Iterator<?> iterator, RestyClassPlan elementPlan) {
+            this.iterator = iterator;
+            this.elementPlan = elementPlan;
+        }
+
+        @Override
+        boolean next(RestySerializer s)
+                throws IOException, RestyMappingException {
+            if (iterator.hasNext()) {
+                s.writeValue(iterator.next(), elementPlan, null);
+                return true;
+            } else {
+                return false;
+            }
+        }
+
+    }
+
+    private static final class MapFrame extends Frame {
+
+        private final Iterator<? extends Map.Entry<?, ?>> iterator;
+        private final RestyClassPlan elementPlan;
+
+        MapFrame(Map<?, ?> map, RestyClassPlan elementPlan) {
+            iterator = map.entrySet().iterator();
+            this.elementPlan = elementPlan;
+        }
+
+        @Override
+        boolean next(RestySerializer s)
+                throws IOException, RestyMappingException {
+            while (iterator.hasNext()) {
+                Map.Entry<?, ?> e = iterator.next();
+                Object value = e.getValue();
+                if (s.include == RstInclude.ALWAYS
+                        || !RestyClassPlan.isOmitted(s.include, value)) {
+                    s.out.writeName(e.getKey().toString());
+                    s.writeValue(value, elementPlan, null);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+    }
+
+    private static final class ObjectFrame extends Frame {
+
+        private final RestyClassPlan.Member[] members;
+        private final Object object;
+        private final Object[] started;
+        private int index;
+
+        ObjectFrame(RestyClassPlan.Member[] members, Object object,
+                Object[] started) {
+            this.members = members;
+            this.object = object;
+            this.started = started;
+        }
+
+        @Override
+        boolean next(RestySerializer s)
+                throws IOException, RestyMappingException {
+            while (index < members.length) {
+                RestyClassPlan.Member member = members[index];
+                Object value = (member.deferred
+                        ? member.finish(started[index])
+                        : member.get(object));
+                index ++;
+                if (!member.isOmitted(value)) {
+                    s.out.writeName(member.encodedName);
+                    s.writeValue(value, member.valuePlan, member.elementPlan);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+    }
+
+    private final RestyJsonWriter out;
+    private final RestyJsonEncoder encoder;
+    private final int limit;
+    private final RstInclude include;
+    private Map<Object, Object[]> prefetched;
+    private Frame[] stack = new Frame[16];
+    private int depth;
+
+    /**
+     * Creates a serializer.
+     *
+     * @param  out
+     *         the output of JSON events.
+     */
+    RestySerializer(RestyJsonWriter out) {
+        this.out = out;
+        encoder = (out instanceof RestyJsonEncoder
+                ? (RestyJsonEncoder) out : null);
+        limit = maxDepth;
+        include = RestyClassPlan.getDefaultInclude();
+    }
+
+    /**
+     * Returns the limit of nesting of objects and arrays.
+     *
+     * @return  the limit.
+     */
+    static int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Sets the limit of nesting of objects and arrays for serializers
+     * created later.
+     *
+     * @param  value
+     *         the limit.
+     * @throws  IllegalArgumentException
+     *          if the limit is less than 1.
+     */
+    static void setMaxDepth(int value) {
+        if (value < 1) {
+            throw new IllegalArgumentException(
+                    "Max depth must be positive: " + value);
+        }
+        maxDepth = value;
+    }
+
+    /**
+     * Starts conversion of an object. Object can be an array, a collection,
+     * a map, a json array builder, a json object builder or a POJO.
+     *
+     * @param  object
+     *         the object.
+     * @return  {@code true}, if the conversion must be continued by
+     *          {@link #step} calls.
+     * @throws  IOException
+     *          if an I/O error occurs.
+     * @throws  RestyMappingException
+     *          if there are errors of annotation using.
+     */
+    boolean start(Object object) throws IOException, RestyMappingException {
+        if (object instanceof JsonArrayBuilder) {
+            out.writeJsonValue(((JsonArrayBuilder) object).build());
+        } else if (object instanceof JsonObjectBuilder) {
+            out.writeJsonValue(((JsonObjectBuilder) object).build());
+        } else {
+            Frame frame = open(object, false);
+            if (frame instanceof ArrayFrame
+                    || frame instanceof IteratorFrame) {
+                out.writeStartArray();
+            } else {
+                out.writeStartObject();
+            }
+            push(frame);
+        }
+        return (depth > 0);
+    }
+
+    /**
+     * Converts values of an object completely, without the start and the end
+     * of the object itself. Object can be an array, a collection, a map or
+     * a POJO.
+     *
+     * @param  object
+     *         the object.
+     * @param  pojo
+     *         whether the object is converted as a POJO regardless of its
+     *         class.
+     * @throws  IOException
+     *          if an I/O error occurs.
+     * @throws  RestyMappingException
+     *          if there are errors of annotation using.
+     */
+    void writeContent(Object object, boolean pojo)
+            throws IOException, RestyMappingException {
+        Frame frame = open(object, pojo);
+        frame.events = false;
+        push(frame);
+        while (step()) {
+        }
+    }
+
+    /**
+     * Continues conversion by one value.
+     *
+     * @return  {@code true}, if the conversion must be continued.
+     * @throws  IOException
+     *          if an I/O error occurs.
+     * @throws  RestyMappingException
+     *          if there are errors of annotation using.
+     */
+    boolean step() throws IOException, RestyMappingException {
+        if (depth == 0) {
+            return false;
+        }
+        Frame frame = stack[depth - 1];
+        if (!frame.next(this)) {
+            if (frame.events) {
+                out.writeEnd();
+            }
+            stack[-- depth] = null;
+        }
+        return (depth > 0);
+    }
+
+    /**
+     * Converts an object completely.
+     *
+     * @param  object
+     *         the object.
+     * @throws  IOException
+     *          if an I/O error occurs.
+     * @throws  RestyMappingException
+     *          if there are errors of annotation using.
+     */
+    void write(Object object) throws IOException, RestyMappingException {
+        if (start(object)) {
+            while (step()) {
+            }
+        }
+    }
+
+    /**
+     * Converts a value completely. Value can be of any class.
+     *
+     * @param  value
+     *         the value.
+     * @param  plan
+     *         the plan bound to the declared class of the value, or
+     *         {@code null}.
+     * @throws  IOException
+     *          if an I/O error occurs.
+     * @throws  RestyMappingException
+     *          if there are errors of annotation using.
+     */
+    void writeValue(Object value, RestyClassPlan plan)
+            throws IOException, RestyMappingException {
+        writeValue(value, plan, null);
+        while (step()) {
+        }
+    }
+
+    private void push(Frame frame) throws RestyMappingException {
+        if (depth == limit) {
+            throw new RestyMappingException(MSG_DEPTH_EXCEEDED, limit);
+        }
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+        }
+        stack[depth ++] = frame;
+    }
+
+    /**
+     * Sets the executor of parallel getters.
+     *
+     * @param  value
+     *         the executor, or {@code null} to use the default one.
+     */
+    static void setExecutor(Executor value) {
+        executor = value;
+    }
+
+    private static Executor getExecutor() {
+        Executor result = executor;
+        if (result == null) {
+            synchronized (RestySerializer.class) {
+                result = executor;
+                if (result == null) {
+                    // Getters of large collections are started all at once,
+                    // so the pool and the queue are bounded; the rest of the
+                    // getters are called by the serializing thread
+                    ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                            DEFAULT_POOL_SIZE, DEFAULT_POOL_SIZE,
+                            60, TimeUnit.SECONDS,
+                            new ArrayBlockingQueue<Runnable>(
+                                    DEFAULT_QUEUE_SIZE),
+                            new ThreadFactory() {
+
+                                private final AtomicInteger count =
+                                        new AtomicInteger();
+
+                                @Override
+                                public Thread newThread(Runnable r) {
+                                    Thread t = new Thread(r, "resty-getter-"
+                                            + count.incrementAndGet());
+                                    t.setDaemon(true);
+                                    return t;
+                                }
+
+                            },
+                            new ThreadPoolExecutor.CallerRunsPolicy());
+                    pool.allowCoreThreadTimeOut(true);
+                    result = pool;
+                    executor = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private Frame open(Object object, boolean pojo)
+            throws RestyMappingException {
+        if (pojo) {
+            return openObject(RestyClassPlan.get(object.getClass()), object);
+        } else if (object.getClass().isArray()) {
+            prefetch(object, null);
+            return new ArrayFrame(object, null);
+        } else if (object instanceof Collection) {
+            prefetch(object, null);
+            return new IteratorFrame(((Collection<?>) object).iterator(),
+                    null);
+        } else if (object instanceof Map) {
+            return new MapFrame((Map<?, ?>) object, null);
+        } else {
+            return openObject(RestyClassPlan.get(object.getClass()), object);
+        }
+    }
+
+    private ObjectFrame openObject(RestyClassPlan plan, Object object)
+            throws RestyMappingException {
+        RestyClassPlan.Member[] members = plan.getMembers();
+        Object[] started = null;
+        if (plan.hasDeferredMembers()) {
+            if (prefetched != null) {
+                started = prefetched.remove(object);
+            }
+            if (started == null) {
+                started = start(members, object);
+            }
+        }
+        return new ObjectFrame(members, object, started);
+    }
+
+    /**
+     * Starts deferred members of all POJO elements of an array or
+     * a collection, so that their getters run at the same time. Elements are
+     * checked against the declared class of elements or, if it is unknown,
+     * the class of the first element.
+     */
+    private void prefetch(Object container, RestyClassPlan elementPlan)
+            throws RestyMappingException {
+        Iterable<?> elements;
+        if (container instanceof Collection) {
+            elements = (Collection<?>) container;
+        } else if (container instanceof Object[]) {
+            elements = Arrays.asList((Object[]) container);
+        } else {
+            return;
+        }
+        Iterator<?> i = elements.iterator();
+        if (elementPlan == null) {
+            Object first = (i.hasNext() ? i.next() : null);
+            if (first == null) {
+                return;
+            }
+            elementPlan = RestyClassPlan.get(first.getClass());
+        }
+        if (elementPlan.getKind() != RestyClassPlan.Kind.POJO
+                || !elementPlan.hasDeferredMembers()) {
+            return;
+        }
+        RestyClassPlan.Member[] members = elementPlan.getMembers();
+        Class<?> type = elementPlan.getType();
+        if (prefetched == null) {
+            prefetched = new IdentityHashMap<>();
+        }
+        for (Object e : elements) {
+            if (e != null && e.getClass() == type
+                    && !prefetched.containsKey(e)) {
+                prefetched.put(e, start(members, e));
+            }
+        }
+    }
+
+    private static Object[] start(RestyClassPlan.Member[] members,
+            Object object) throws RestyMappingException {
+        Object[] result = new Object[members.length];
+        for (int i = 0; i < members.length; i ++) {
+            if (members[i].deferred) {
+                result[i] = members[i].start(object,
+                        members[i].parallel ? getExecutor() : null);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Writes a value. Values of exactly the class of the bound plan skip the
+     * checks of built-in classes and the lookup of the plan.
+     *
+     * @param  value
+     *         the value.
+     * @param  plan
+     *         the plan bound to the declared class of the value, or
+     *         {@code null}.
+     * @param  elementPlan
+     *         the plan bound to the declared class of the elements, or
+     *         {@code null}.
+     */
+    private void writeValue(Object value, RestyClassPlan plan,
+            RestyClassPlan elementPlan)
+            throws IOException, RestyMappingException {
+        int chain = 0;
+        while (true) {
+            if (value == null) {
+                out.writeNull();
+                return;
+            }
+            Class<?> type = value.getClass();
+            if (plan != null && plan.getType() != type) {
+                plan = plan.getSubtypePlan(type);
+            }
+            if (plan == null) {
+                if (type.isArray()) {
+                    prefetch(value, elementPlan);
+                    out.writeStartArray();
+                    push(new ArrayFrame(value, elementPlan));
+                } else if (value instanceof BigDecimal) {
+                    out.writeNumber((BigDecimal) value);
+                } else if (value instanceof BigInteger) {
+                    out.writeNumber((BigInteger) value);
+                } else if (value instanceof Boolean) {
+                    out.writeBoolean((Boolean) value);
+                } else if (value instanceof Byte) {
+                    out.writeNumber((Byte) value);
+                } else if (value instanceof Character) {
+                    out.writeNumber((Character) value);
+                } else if (value instanceof Collection) {
+                    prefetch(value, elementPlan);
+                    out.writeStartArray();
+                    push(new IteratorFrame(
+                            ((Collection<?>) value).iterator(), elementPlan));
+                } else if (value instanceof Double) {
+                    out.writeNumber((Double) value);
+                } else if (value instanceof Float) {
+                    out.writeNumber((Float) value);
+                } else if (value instanceof Integer) {
+                    out.writeNumber((Integer) value);
+                } else if (value instanceof JsonArrayBuilder) {
+                    out.writeJsonValue(((JsonArrayBuilder) value).build());
+                } else if (value instanceof JsonObjectBuilder) {
+                    out.writeJsonValue(((JsonObjectBuilder) value).build());
+                } else if (value instanceof JsonValue) {
+                    out.writeJsonValue((JsonValue) value);
+                } else if (value instanceof Long) {
+                    out.writeNumber((Long) value);
+                } else if (value instanceof Map) {
+                    out.writeStartObject();
+                    push(new MapFrame((Map<?, ?>) value, elementPlan));
+                } else if (value instanceof Short) {
+                    out.writeNumber((Short) value);
+                } else if (value instanceof String) {
+                    out.writeString((String) value);
+                } else {
+                    plan = RestyClassPlan.get(type);
+                }
+                if (plan == null) {
+                    return;
+                }
+            }
+            plan.checkAnnotations();
+            switch (plan.getKind()) {
+                case ADAPTER:
+                    plan.getAdapter().write(value, out);
+                    break;
+                case POJO:
+                    ObjectFrame frame = openObject(plan, value);
+                    out.writeStartObject();
+                    push(frame);
+                    break;
+                case TYPE:
+                    if (++ chain > limit) {
+                        throw new RestyMappingException(
+                                MSG_TYPEVALUE_CHAIN_EXCEEDED,
+                                plan.getType().getName(), limit);
+                    }
+                    value = plan.getTypeValue(value);
+                    plan = null;
+                    elementPlan = null;
+                    continue;
+                case ENUM:
+                    out.writeString(plan.getEnumName((Enum<?>) value));
+                    break;
+                case UUID:
+                    if (encoder != null) {
+                        encoder.writeUuid((UUID) value);
+                    } else {
+                        out.writeString(value.toString());
+                    }
+                    break;
+                case TIME:
+                    if (encoder != null) {
+                        RestyTimeFormat.write(value, encoder);
+                    } else {
+                        out.writeString(value.toString());
+                    }
+                    break;
+                default:
+                    out.writeString(value.toString());
+            }
+            return;
+        }
+    }
+
+}
@@ -0,0 +1,297 @@
+package com.github.amsemy.resty.json;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Buffered JSON text with bounded memory usage. The text is kept in memory
+ * until its length exceeds a threshold; then it is moved to a temporary file
+ * and the rest of the text is written to the file. The whole text is known
+ * before sending, so its length can be used as {@code Content-Length} and the
+ * text can be sent again if sending fails. Text from the file is sent without
+ * copying it to the heap.
+ *
+ * <p>Buffers are not thread-safe.
+ */
+public class RestySpillBuffer implements Closeable {
+
+    private class Encoder extends RestyJsonEncoder {
+
+        Encoder() {
+            super(ByteBuffer.allocate(bufferSize));
+        }
+
+        @Override
+        protected ByteBuffer overflow(ByteBuffer full) throws IOException {
+            return store(full);
+        }
+
+    }
+
+    /**
+     * Default size of buffers.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final long threshold;
+    private final Path directory;
+    private final int bufferSize;
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private Encoder encoder;
+    private FileChannel file;
+    private long length;
+    private boolean closed;
+
+    /**
+     * Creates a buffer that spills to the default temporary-file directory.
+     *
+     * @param  threshold
+     *         the maximum number of bytes kept in memory.
+     */
+    public RestySpillBuffer(long threshold) {
+        this(threshold, null, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a buffer.
+     *
+     * @param  threshold
+     *         the maximum number of bytes kept in memory.
+     * @param  directory
+     *         the directory for the temporary file or {@code null} for the
+     *         default temporary-file directory.
+     * @param  bufferSize
+     *         size of buffers.
+     */
+    public RestySpillBuffer(long threshold, Path directory, int bufferSize) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Negative threshold");
+        }
+        if (bufferSize < RestyJsonEncoder.MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException("Too small buffer size");
+        }
+        this.threshold = threshold;
+        this.directory = directory;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Releases memory and deletes the temporary file. The text can't be read
+     * or written after the buffer is closed. Closing a closed buffer has no
+     * effect.
+     *
+     * @throws  IOException
+     *          if an I/O error occurs.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        chunks.clear();
+        encoder = null;
+        if (file != null) {
+            try {
+                file.close();
+            } finally {
+                file = null;
+            }
+        }
+    }
+
+    /**
+     * Checks whether the text has been moved to the temporary file.
+     *
+     * @return  {@code true}, if the text is in the file.
+     */
+    public boolean isSpilled() {
+        return (file != null);
+    }
+
+    /**
+     * Returns the length of the text.
+     *
+     * @return  the number of bytes.
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * Returns the text as a read-only byte buffer. Text from the temporary
+     * file is mapped into memory.
+     *
+     * @return  a buffer.
+     * @throws  IOException
+     *          if an I/O error occurs or the text is too long to be mapped.
+     * @throws  IllegalStateException
+     *          if the buffer is closed.
+     */
+    public ByteBuffer map() throws IOException {
+        checkOpen();
+        if (file != null) {
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("Too long text to be mapped");
+            }
+            return file.map(FileChannel.MapMode.READ_ONLY, 0, length);
+        } else if (chunks.size() == 1) {
+            return chunks.get(0).asReadOnlyBuffer();
+        } else {
+            ByteBuffer result = ByteBuffer.allocate((int) length);
+            for (ByteBuffer chunk : chunks) {
+                result.put(chunk.duplicate());
+            }
+            result.flip();
+            return result.asReadOnlyBuffer();
+        }
+    }
+
+    /**
+     * Transfers the whole text to the channel. The method can be invoked again
+     * to send the text once more.
+     *
+     * @param  target
+     *         the blocking channel.
+     * @throws  IOException
+     *          if an I/O error occurs.
+     * @throws  IllegalStateException
+     *          if the buffer is closed.
+     */
+    public void transferTo(WritableByteChannel target) throws IOException {
+        checkOpen();
+        long position = 0;
+        while (position < length) {
+            position += transferTo(position, length - position, target);
+        }
+    }
+
+    /**
+     * Transfers a part of the text to the channel. Fewer bytes than requested
+     * are transferred, if a non-blocking channel doesn't accept more bytes.
+     *
+     * @param  position
+     *         the position of the first byte of the part.
+     * @param  count
+     *         the maximum number of bytes to transfer.
+     * @param  target
+     *         the channel.
+     * @return  the number of transferred bytes.
+     * @throws  IOException
+     *          if an I/O error occurs.
+     * @throws  IllegalStateException
+     *          if the buffer is closed.
+     */
+    public long transferTo(long position, long count,
+            WritableByteChannel target) throws IOException {
+        checkOpen();
+        if (position < 0 || count < 0) {
+            throw new IllegalArgumentException();
+        }
+        count = Math.min(count, length - position);
+        if (count <= 0) {
+            return 0;
+        }
+        if (file != null) {
+            return file.transferTo(position, count, target);
+        }
+        long transferred = 0;
+        long offset = 0;
+        for (ByteBuffer chunk : chunks) {
+            int size = chunk.remaining();
+            if (offset + size > position) {
+                ByteBuffer part = chunk.duplicate();
+                part.position(part.position() + (int) (position - offset));
+                if (part.remaining() > count - transferred) {
+                    part.limit(part.position()
+                            + (int) (count - transferred));
+                }
+                int n = part.remaining();
+                int written = target.write(part);
+                transferred += written;
+                position += written;
+                if (written < n || transferred == count) {
+                    break;
+                }
+            }
+            offset += size;
+        }
+        return transferred;
+    }
+
+    /**
+     * Converts an object to JSON text and appends the text to the buffer.
+     *
+     * @param  object
+     *         the object. Object can be an array, a collection, a map, a json
+     *         array builder, a json object builder or a POJO.
+     * @throws  IOException
+     *          if an I/O error occurs.
+     * @throws  RestyMappingException
+     *          if there are errors of annotation using.
+     * @throws  IllegalStateException
+     *          if the buffer is closed.
+     */
+    public void write(Object object)
+            throws IOException, RestyMappingException {
+        checkOpen();
+        if (encoder == null) {
+            encoder = new Encoder();
+        }
+        new RestySerializer(encoder).write(object);
+        if (encoder.buffer.position() > 0) {
+            encoder.buffer = store(encoder.buffer);
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Buffer is closed");
+        }
+    }
+
+    private ByteBuffer store(ByteBuffer full) throws IOException {
+        full.flip();
+        int size = full.remaining();
+        if (file == null && length + size <= threshold) {
+            chunks.add(full);
+            length += size;
+            return ByteBuffer.allocate(bufferSize);
+        }
+        if (file == null) {
+            spill();
+        }
+        while (full.hasRemaining()) {
+            file.write(full);
+        }
+        length += size;
+        full.clear();
+        return full;
+    }
+
+    private void spill() throws IOException {
+        Path path = (directory == null
+                ? Files.createTempFile("resty", ".json")
+                : Files.createTempFile(directory, "resty", ".json"));
+        try {
+            file = FileChannel.open(path, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE);
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(path);
+            throw ex;
+        }
+        for (ByteBuffer chunk : chunks) {
+            while (chunk.hasRemaining()) {
+                file.write(chunk);
+            }
+        }
+        chunks.clear();
+    }
+
+}
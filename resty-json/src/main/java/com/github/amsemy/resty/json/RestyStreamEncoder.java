@@ -0,0 +1,64 @@
+package com.github.amsemy.resty.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Encoder that writes full buffers to an output stream.
+ */
+class RestyStreamEncoder extends RestyJsonEncoder {
+
+    private final OutputStream out;
+
+    /**
+     * Creates an encoder.
+     *
+     * @param  out
+     *         the output stream.
+     * @param  bufferSize
+     *         size of the buffer.
+     */
+    RestyStreamEncoder(OutputStream out, int bufferSize) {
+        super(ByteBuffer.allocate(bufferSize));
+        this.out = out;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    /**
+     * Writes bytes encoded by another encoder.
+     *
+     * @param  encoded
+     *         the buffer with the bytes between its position and limit.
+     * @throws  IOException
+     *          if an I/O error occurs.
+     */
+    void writeEncoded(ByteBuffer encoded) throws IOException {
+        put(encoded.array(), encoded.position(), encoded.remaining());
+    }
+
+    /**
+     * Writes encoded bytes of the buffer to the output stream.
+     *
+     * @throws  IOException
+     *          if an I/O error occurs.
+     */
+    void drain() throws IOException {
+        if (buffer.position() > 0) {
+            out.write(buffer.array(), 0, buffer.position());
+            buffer.clear();
+        }
+    }
+
+    @Override
+    protected ByteBuffer overflow(ByteBuffer full) throws IOException {
+        drain();
+        return full;
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.github.amsemy.resty.json;
+
+import java.io.IOException;
+
+/**
+ * Formatting of {@code java.time} values. This implementation writes the
+ * text returned by {@code toString()}; the multi-release JAR contains an
+ * implementation for Java 17 and later that formats values straight into the
+ * buffer of an encoder.
+ */
+final class RestyTimeFormat {
+
+    private RestyTimeFormat() {
+    }
+
+    /**
+     * Writes a value of a supported class as a string value.
+     *
+     * @param  value
+     *         the value.
+     * @param  out
+     *         the encoder.
+     * @throws  IOException
+     *          if an I/O error occurs.
+     */
+    static void write(Object value, RestyJsonEncoder out) throws IOException {
+        out.writeString(value.toString());
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.github.amsemy.resty.json;
+
+import java.io.IOException;
+import javax.json.stream.JsonParser;
+
+/**
+ * Custom conversion of objects of a class which can't be annotated, for
+ * example a class of a third-party library. An adapter is registered by
+ * {@link RestyJson#registerAdapter} and is used for the registered class and
+ * its subclasses and implementations.
+ *
+ * <p>Adapters are applied to objects which aren't arrays, collections, maps,
+ * numbers, booleans, strings or JSON models. Adapters must be thread-safe.
+ *
+ * @param  <T>
+ *         the adapted class.
+ */
+public abstract class RestyTypeAdapter<T> {
+
+    /**
+     * Writes an object as exactly one JSON value: a simple value, an object
+     * or an array.
+     *
+     * @param  value
+     *         the object, never {@code null}.
+     * @param  out
+     *         the output of JSON events.
+     * @throws  IOException
+     *          if an I/O error occurs.
+     * @throws  RestyMappingException
+     *          if the object can't be converted.
+     */
+    public abstract void write(T value, RestyJsonWriter out)
+            throws IOException, RestyMappingException;
+
+    /**
+     * Tells whether the adapter can read objects by {@link #read}.
+     *
+     * @return  {@code true}, if reading is supported.
+     */
+    public boolean canRead() {
+        return false;
+    }
+
+    /**
+     * Reads an object from the next JSON value of a parser.
+     *
+     * @param  parser
+     *         the parser.
+     * @return  an object.
+     * @throws  RestyMappingException
+     *          if the value can't be converted.
+     * @throws  UnsupportedOperationException
+     *          if reading isn't supported.
+     */
+    public T read(JsonParser parser) throws RestyMappingException {
+        throw new UnsupportedOperationException();
+    }
+
+}
@@ -0,0 +1,163 @@
+package com.github.amsemy.resty.json;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.Function;
+
+/**
+ * Reader of a value of a POJO member. This implementation is used on Java 17
+ * and later: getters are called through hidden classes generated by the
+ * lambda metafactory, fields are read through method handles. Members which
+ * cann't be reached that way are read by reflection.
+ */
+abstract class RestyAccessor {
+
+    private static final MethodType GETTER_TYPE =
+            MethodType.methodType(Object.class, Object.class);
+    private static final MethodType FACTORY_TYPE =
+            MethodType.methodType(Function.class);
+
+    /**
+     * Accessor that calls a generated function.
+     */
+    private static final class FunctionAccessor extends RestyAccessor {
+
+        private final Function<Object, Object> function;
+
+        FunctionAccessor(Function<Object, Object> function) {
+            this.function = function;
+        }
+
+        @Override
+        Object get(Object object) throws InvocationTargetException {
+            try {
+                return function.apply(object);
+            } catch (Throwable ex) {
+                throw new InvocationTargetException(ex);
+            }
+        }
+
+    }
+
+    /**
+     * Accessor that invokes a method handle of the {@code (Object)Object}
+     * type.
+     */
+    private static final class HandleAccessor extends RestyAccessor {
+
+        private final MethodHandle handle;
+
+        /**
+         * Creates an accessor.
+         *
+         * @param  handle
+         *         the handle of a getter or a field; the object is ignored
+         *         for static members.
+         * @param  isStatic
+         *         whether the member is static.
+         */
+        HandleAccessor(MethodHandle handle, boolean isStatic) {
+            this.handle = (isStatic
+                    ? MethodHandles.dropArguments(handle, 0, Object.class)
+                    : handle).asType(GETTER_TYPE);
+        }
+
+        @Override
+        Object get(Object object) throws InvocationTargetException {
+            try {
+                return (Object) handle.invokeExact(object);
+            } catch (Throwable ex) {
+                throw new InvocationTargetException(ex);
+            }
+        }
+
+    }
+
+    /**
+     * Reads a value of the member.
+     *
+     * @param  object
+     *         the POJO.
+     * @return  a value.
+     * @throws  ReflectiveOperationException
+     *          if the value cann't be read; an exception thrown by a getter
+     *          is wrapped in an {@code InvocationTargetException}.
+     */
+    abstract Object get(Object object) throws ReflectiveOperationException;
+
+    /**
+     * Creates a reader of the field.
+     *
+     * @param  field
+     *         the accessible field.
+     * @return  an accessor.
+     */
+    static RestyAccessor of(Field field) {
+        try {
+            return new HandleAccessor(
+                    lookup(field.getDeclaringClass()).unreflectGetter(field),
+                    Modifier.isStatic(field.getModifiers()));
+        } catch (IllegalAccessException ex) {
+            return new RestyAccessor() {
+
+                @Override
+                Object get(Object object) throws IllegalAccessException {
+                    return field.get(object);
+                }
+
+            };
+        }
+    }
+
+    /**
+     * Creates a reader of the getter.
+     *
+     * @param  method
+     *         the accessible method without parameters.
+     * @return  an accessor.
+     */
+    @SuppressWarnings("unchecked")
+    static RestyAccessor of(Method method) {
+        MethodHandle handle;
+        MethodHandles.Lookup lookup;
+        try {
+            lookup = lookup(method.getDeclaringClass());
+            handle = lookup.unreflect(method);
+        } catch (IllegalAccessException ex) {
+            return new RestyAccessor() {
+
+                @Override
+                Object get(Object object) throws ReflectiveOperationException {
+                    return method.invoke(object);
+                }
+
+            };
+        }
+        boolean isStatic = Modifier.isStatic(method.getModifiers());
+        if (!isStatic && method.getReturnType() != void.class) {
+            try {
+                CallSite site = LambdaMetafactory.metafactory(lookup, "apply",
+                        FACTORY_TYPE, GETTER_TYPE, handle,
+                        handle.type().wrap());
+                return new FunctionAccessor(
+                        (Function<Object, Object>) site.getTarget().invoke());
+            } catch (Throwable ex) {
+                // Falls back to the method handle.
+            }
+        }
+        return new HandleAccessor(handle, isStatic);
+    }
+
+    private static MethodHandles.Lookup lookup(Class<?> type)
+            throws IllegalAccessException {
+        return MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+    }
+
+}
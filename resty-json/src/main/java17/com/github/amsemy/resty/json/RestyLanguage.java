@@ -0,0 +1,46 @@
+package com.github.amsemy.resty.json;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+
+/**
+ * Language features of newer Java versions: records and sealed classes. This
+ * implementation is used on Java 17 and later.
+ */
+final class RestyLanguage {
+
+    private RestyLanguage() {
+    }
+
+    /**
+     * Returns accessors of record components.
+     *
+     * @param  type
+     *         the class.
+     * @return  accessors in order of declaration of the components, or
+     *          {@code null}, if the class isn't a record.
+     */
+    static Method[] getRecordAccessors(Class<?> type) {
+        if (!type.isRecord()) {
+            return null;
+        }
+        RecordComponent[] components = type.getRecordComponents();
+        Method[] result = new Method[components.length];
+        for (int i = 0; i < components.length; i ++) {
+            result[i] = components[i].getAccessor();
+        }
+        return result;
+    }
+
+    /**
+     * Returns direct subclasses permitted by a sealed class.
+     *
+     * @param  type
+     *         the class.
+     * @return  the subclasses, or {@code null}, if the class isn't sealed.
+     */
+    static Class<?>[] getPermittedSubclasses(Class<?> type) {
+        return (type.isSealed() ? type.getPermittedSubclasses() : null);
+    }
+
+}
@@ -0,0 +1,158 @@
+package com.github.amsemy.resty.json;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+
+/**
+ * Formatting of {@code java.time} values straight into the buffer of an
+ * encoder. This implementation is used on Java 17 and later. The text is the
+ * same as {@code toString()} returns.
+ */
+final class RestyTimeFormat {
+
+    private RestyTimeFormat() {
+    }
+
+    /**
+     * Writes a value of a supported class as a string value.
+     *
+     * @param  value
+     *         the value.
+     * @param  out
+     *         the encoder.
+     * @throws  IOException
+     *          if an I/O error occurs.
+     */
+    static void write(Object value, RestyJsonEncoder out) throws IOException {
+        byte[] b = out.scratch;
+        int n;
+        if (value instanceof LocalDate) {
+            LocalDate d = (LocalDate) value;
+            n = putDate(b, 0, d.getYear(), d.getMonthValue(),
+                    d.getDayOfMonth());
+        } else if (value instanceof LocalTime) {
+            LocalTime t = (LocalTime) value;
+            n = putTime(b, 0, t.getHour(), t.getMinute(), t.getSecond(),
+                    t.getNano(), false);
+        } else if (value instanceof LocalDateTime) {
+            n = putDateTime(b, 0, (LocalDateTime) value);
+        } else if (value instanceof OffsetDateTime) {
+            OffsetDateTime dt = (OffsetDateTime) value;
+            n = putDateTime(b, 0, dt.toLocalDateTime());
+            if (n >= 0) {
+                n = putAscii(b, n, dt.getOffset().getId());
+            }
+        } else {
+            n = putInstant(b, 0, (Instant) value);
+        }
+        if (n < 0) {
+            out.writeString(value.toString());
+        } else {
+            out.writeAsciiString(b, n);
+        }
+    }
+
+    private static int putAscii(byte[] b, int offset, String s) {
+        int length = s.length();
+        if (offset + length > b.length) {
+            return -1;
+        }
+        for (int i = 0; i < length; i ++) {
+            b[offset ++] = (byte) s.charAt(i);
+        }
+        return offset;
+    }
+
+    private static int putDate(byte[] b, int offset, int year, int month,
+            int day) {
+        if (year < 0 || year > 9999) {
+            return -1;
+        }
+        offset = putDigits(b, offset, year, 4);
+        b[offset ++] = '-';
+        offset = putDigits(b, offset, month, 2);
+        b[offset ++] = '-';
+        return putDigits(b, offset, day, 2);
+    }
+
+    private static int putDateTime(byte[] b, int offset, LocalDateTime dt) {
+        offset = putDate(b, offset, dt.getYear(), dt.getMonthValue(),
+                dt.getDayOfMonth());
+        if (offset < 0) {
+            return -1;
+        }
+        b[offset ++] = 'T';
+        return putTime(b, offset, dt.getHour(), dt.getMinute(),
+                dt.getSecond(), dt.getNano(), false);
+    }
+
+    private static int putDigits(byte[] b, int offset, int value,
+            int digits) {
+        for (int i = offset + digits - 1; i >= offset; i --) {
+            b[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return offset + digits;
+    }
+
+    private static int putInstant(byte[] b, int offset, Instant instant) {
+        long seconds = instant.getEpochSecond();
+        long epochDay = floorDiv(seconds, 86400);
+        int secondOfDay = (int) (seconds - epochDay * 86400);
+        // Civil date from the number of days since 1970-01-01.
+        long z = epochDay + 719468;
+        long era = (z >= 0 ? z : z - 146096) / 146097;
+        long doe = z - era * 146097;
+        long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        long mp = (5 * doy + 2) / 153;
+        int day = (int) (doy - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        long year = yoe + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < 0 || year > 9999) {
+            return -1;
+        }
+        offset = putDate(b, offset, (int) year, month, day);
+        b[offset ++] = 'T';
+        offset = putTime(b, offset, secondOfDay / 3600,
+                secondOfDay / 60 % 60, secondOfDay % 60, instant.getNano(),
+                true);
+        b[offset ++] = 'Z';
+        return offset;
+    }
+
+    private static int putTime(byte[] b, int offset, int hour, int minute,
+            int second, int nano, boolean withSeconds) {
+        offset = putDigits(b, offset, hour, 2);
+        b[offset ++] = ':';
+        offset = putDigits(b, offset, minute, 2);
+        if (withSeconds || second > 0 || nano > 0) {
+            b[offset ++] = ':';
+            offset = putDigits(b, offset, second, 2);
+            if (nano > 0) {
+                b[offset ++] = '.';
+                if (nano % 1000000 == 0) {
+                    offset = putDigits(b, offset, nano / 1000000, 3);
+                } else if (nano % 1000 == 0) {
+                    offset = putDigits(b, offset, nano / 1000, 6);
+                } else {
+                    offset = putDigits(b, offset, nano, 9);
+                }
+            }
+        }
+        return offset;
+    }
+
+    private static long floorDiv(long x, long y) {
+        long r = x / y;
+        if ((x % y != 0) && ((x ^ y) < 0)) {
+            r --;
+        }
+        return r;
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.github.amsemy.resty.json;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+
+public class RestyBufferPoolTest {
+
+    @Test
+    public void testSizeClasses() {
+        RestyBufferPool pool = new RestyBufferPool(1024, 8192, 1 << 20);
+        ByteBuffer small = pool.acquire(10);
+        assertTrue(small.isDirect());
+        assertEquals(1024, small.capacity());
+        assertEquals(2048, pool.acquire(1025).capacity());
+        assertEquals(8192, pool.acquire(8192).capacity());
+        assertEquals(10000, pool.acquire(10000).capacity());
+    }
+
+    @Test
+    public void testReuse() {
+        RestyBufferPool pool = new RestyBufferPool(1024, 8192, 1 << 20);
+        ByteBuffer buffer = pool.acquire(3000);
+        buffer.put((byte) 1);
+        pool.release(buffer);
+        assertEquals(4096, pool.getPooledBytes());
+        ByteBuffer again = pool.acquire(4000);
+        assertSame(buffer, again);
+        assertEquals(0, again.position());
+        assertEquals(0, pool.getPooledBytes());
+        assertNotSame(buffer, pool.acquire(4000));
+    }
+
+    @Test
+    public void testForeignBuffers() {
+        RestyBufferPool pool = new RestyBufferPool(1024, 8192, 1 << 20);
+        pool.release(ByteBuffer.allocate(1024));
+        pool.release(ByteBuffer.allocateDirect(1000));
+        pool.release(ByteBuffer.allocateDirect(16384));
+        pool.release(ByteBuffer.allocateDirect(1024).asReadOnlyBuffer());
+        assertEquals(0, pool.getPooledBytes());
+    }
+
+    @Test
+    public void testLimit() {
+        RestyBufferPool pool = new RestyBufferPool(1024, 8192, 5000);
+        pool.release(pool.acquire(4096));
+        pool.release(pool.acquire(4096));
+        assertEquals(4096, pool.getPooledBytes());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidClasses() {
+        new RestyBufferPool(1000, 8192, 0);
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.github.amsemy.resty.json;
+
+import com.github.amsemy.resty.json.annotation.RstField;
+import com.github.amsemy.resty.json.annotation.RstPojo;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+
+@SuppressWarnings({"FieldMayBeFinal", "UnusedDeclaration"})
+public class RestyDirectBufferTest {
+
+    @RstPojo
+    private static class Item {
+
+        @RstField
+        public int id;
+
+        @RstField
+        public String title;
+
+        Item(int id) {
+            this.id = id;
+            title = "Item № " + id;
+        }
+
+    }
+
+    private static List<Item> items(int count) {
+        List<Item> result = new ArrayList<>();
+        for (int i = 0; i < count; i ++) {
+            result.add(new Item(i));
+        }
+        return result;
+    }
+
+    private static byte[] stream(Object object) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RestyJson.stream(object).writeTo(Channels.newChannel(out));
+        return out.toByteArray();
+    }
+
+    private static byte[] transfer(RestyDirectBuffer buffer) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        buffer.transferTo(Channels.newChannel(out));
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testSmall() throws Exception {
+        List<Item> items = items(3);
+        try (RestyDirectBuffer buffer = new RestyDirectBuffer()) {
+            buffer.write(items);
+            ByteBuffer[] buffers = buffer.getBuffers();
+            assertEquals(1, buffers.length);
+            assertTrue(buffers[0].isDirect());
+            byte[] bytes = transfer(buffer);
+            assertEquals(buffer.length(), bytes.length);
+            assertArrayEquals(stream(items), bytes);
+        }
+    }
+
+    @Test
+    public void testChain() throws Exception {
+        RestyBufferPool pool = new RestyBufferPool(64, 1024, 1 << 20);
+        List<Item> items = items(500);
+        try (RestyDirectBuffer buffer = new RestyDirectBuffer(pool)) {
+            buffer.write(items);
+            buffer.write(items(1));
+            ByteBuffer[] buffers = buffer.getBuffers();
+            assertTrue(buffers.length > 10);
+            assertEquals(64, buffers[0].capacity());
+            assertEquals(128, buffers[1].capacity());
+            assertEquals(1024, buffers[buffers.length - 2].capacity());
+            ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            expected.write(stream(items));
+            expected.write(stream(items(1)));
+            byte[] bytes = transfer(buffer);
+            assertEquals(buffer.length(), bytes.length);
+            assertArrayEquals(expected.toByteArray(), bytes);
+            assertArrayEquals(bytes, transfer(buffer));
+        }
+    }
+
+    @Test
+    public void testRelease() throws Exception {
+        RestyBufferPool pool = new RestyBufferPool(64, 1024, 1 << 20);
+        RestyDirectBuffer buffer = new RestyDirectBuffer(pool);
+        buffer.write(items(100));
+        ByteBuffer first = buffer.getBuffers()[0];
+        long total = 0;
+        for (ByteBuffer b : buffer.getBuffers()) {
+            total += b.capacity();
+        }
+        assertEquals(0, pool.getPooledBytes());
+        buffer.close();
+        buffer.close();
+        assertEquals(total, pool.getPooledBytes());
+        try (RestyDirectBuffer next = new RestyDirectBuffer(pool)) {
+            next.write(items(1));
+            assertEquals(total - 64, pool.getPooledBytes());
+        }
+        try {
+            buffer.getBuffers();
+            fail();
+        } catch (IllegalStateException ex) {
+            // ok
+        }
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.github.amsemy.resty.json;
+
+import com.github.amsemy.resty.json.annotation.RstField;
+import com.github.amsemy.resty.json.annotation.RstPojo;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@SuppressWarnings({"FieldMayBeFinal", "UnusedDeclaration"})
+public class RestyETagTest {
+
+    @RstPojo
+    private static class Item {
+
+        @RstField
+        public String name = "Vaska \"the cat\" кот";
+
+        @RstField
+        public Object value = 1;
+
+        @RstField
+        public List<Integer> list = new ArrayList<>(Arrays.asList(1, 2));
+
+    }
+
+    @Test
+    public void testStrong() throws Exception {
+        Item item = new Item();
+        String etag = RestyETag.strong(item);
+
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        RestyJsonStream stream = RestyJson.stream(item);
+        ByteBuffer buf = ByteBuffer.allocate(7);
+        while (stream.read(buf) >= 0) {
+            buf.flip();
+            digest.update(buf);
+            buf.clear();
+        }
+        StringBuilder expected = new StringBuilder("\"");
+        for (byte b : digest.digest()) {
+            expected.append(String.format("%02x", b));
+        }
+        expected.append('"');
+        assertEquals(expected.toString(), etag);
+
+        assertEquals(etag, RestyETag.strong(new Item()));
+        item.value = "1";
+        assertFalse(etag.equals(RestyETag.strong(item)));
+    }
+
+    @Test
+    public void testWeak() throws Exception {
+        Item item = new Item();
+        String etag = RestyETag.weak(item);
+        assertTrue(etag.matches("W/\"[0-9a-f]{16}\""));
+        assertEquals(etag, RestyETag.weak(new Item()));
+
+        item.value = "1";
+        String changed = RestyETag.weak(item);
+        assertFalse(etag.equals(changed));
+        item.value = 1.0;
+        assertFalse(changed.equals(RestyETag.weak(item)));
+
+        item = new Item();
+        item.list.add(3);
+        assertFalse(etag.equals(RestyETag.weak(item)));
+        item = new Item();
+        item.list = Arrays.asList(12);
+        assertFalse(etag.equals(RestyETag.weak(item)));
+        item = new Item();
+        item.name += ".";
+        assertFalse(etag.equals(RestyETag.weak(item)));
+    }
+
+    @Test
+    public void testMatches() throws Exception {
+        String etag = RestyETag.weak(new Item());
+        String strong = etag.substring(2);
+        assertFalse(RestyETag.matches(null, etag));
+        assertTrue(RestyETag.matches("*", etag));
+        assertTrue(RestyETag.matches(etag, etag));
+        assertTrue(RestyETag.matches(strong, etag));
+        assertTrue(RestyETag.matches("\"x\", " + etag + " ,\"y\"", etag));
+        assertFalse(RestyETag.matches("\"x\", W/\"y\"", etag));
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.github.amsemy.resty.json;
+
+import com.github.amsemy.resty.json.RestyJsonCompressor.Format;
+import com.github.amsemy.resty.json.annotation.RstField;
+import com.github.amsemy.resty.json.annotation.RstPojo;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+import javax.json.Json;
+import javax.json.JsonStructure;
+
+@SuppressWarnings({"FieldMayBeFinal", "UnusedDeclaration"})
+public class RestyJsonCompressorTest {
+
+    @RstPojo
+    private static class Item {
+
+        @RstField
+        public int id;
+
+        @RstField
+        public String title;
+
+        Item(int id) {
+            this.id = id;
+            title = "Item number " + id;
+        }
+
+    }
+
+    private static class CountingStream extends ByteArrayOutputStream {
+
+        int flushes;
+
+        @Override
+        public void flush() {
+            flushes ++;
+        }
+
+    }
+
+    private static List<Item> items(int count) {
+        List<Item> result = new ArrayList<>();
+        for (int i = 0; i < count; i ++) {
+            result.add(new Item(i));
+        }
+        return result;
+    }
+
+    private static JsonStructure parse(InputStream in) {
+        return Json.createReader(
+                new InputStreamReader(in, StandardCharsets.UTF_8)).read();
+    }
+
+    @Test
+    public void testWriteGzip() throws Exception {
+        List<Item> items = items(1000);
+        RestyJsonCompressor compressor =
+                new RestyJsonCompressor(Format.GZIP, 6, 64, 0);
+        for (int i = 0; i < 3; i ++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            compressor.write(items, out);
+            assertEquals(RestyJson.build(items), parse(new GZIPInputStream(
+                    new ByteArrayInputStream(out.toByteArray()))));
+        }
+        compressor.close();
+    }
+
+    @Test
+    public void testWriteDeflate() throws Exception {
+        List<Item> items = items(1000);
+        RestyJsonCompressor compressor =
+                new RestyJsonCompressor(Format.DEFLATE, 1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        compressor.write(items, out);
+        assertEquals(RestyJson.build(items), parse(new InflaterInputStream(
+                new ByteArrayInputStream(out.toByteArray()))));
+        compressor.close();
+    }
+
+    @Test
+    public void testFlushInterval() throws Exception {
+        List<Item> items = items(1000);
+        CountingStream out = new CountingStream();
+        new RestyJsonCompressor(Format.GZIP, 6, 256, 4096).write(items, out);
+        assertTrue(out.flushes > 5);
+
+        // A flushed part of the data can be decompressed before the end.
+        byte[] bytes = out.toByteArray();
+        InputStream in = new GZIPInputStream(new ByteArrayInputStream(
+                bytes, 0, bytes.length / 2));
+        byte[] part = new byte[4096];
+        int n = 0;
+        try {
+            int k;
+            while (n < part.length
+                    && (k = in.read(part, n, part.length - n)) > 0) {
+                n += k;
+            }
+        } catch (IOException ex) {
+        }
+        assertEquals(part.length, n);
+        assertTrue(new String(part, StandardCharsets.UTF_8)
+                .startsWith("[{\"id\":0,\"title\":\"Item number 0\"}"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidLevel() {
+        new RestyJsonCompressor(Format.GZIP, 10);
+    }
+
+}
@@ -0,0 +1,155 @@
+package com.github.amsemy.resty.json;
+
+import com.github.amsemy.resty.json.annotation.RstField;
+import com.github.amsemy.resty.json.annotation.RstGetter;
+import com.github.amsemy.resty.json.annotation.RstPojo;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.json.Json;
+
+@SuppressWarnings({"FieldMayBeFinal", "UnusedDeclaration"})
+public class RestyJsonLinesTest {
+
+    @RstPojo
+    private static class Item {
+
+        @RstField
+        public int id;
+
+        @RstField
+        public String note = "multi\nline";
+
+        Item(int id) {
+            this.id = id;
+        }
+
+    }
+
+    @RstPojo
+    private static class Broken {
+
+        @RstGetter("")
+        public int get() {
+            return 0;
+        }
+
+    }
+
+    private static class CountingStream extends ByteArrayOutputStream {
+
+        int flushes;
+        int writes;
+
+        @Override
+        public void flush() {
+            flushes ++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            super.write(b, off, len);
+            writes ++;
+        }
+
+    }
+
+    private static List<Object> items(int count) {
+        List<Object> result = new ArrayList<>();
+        for (int i = 0; i < count; i ++) {
+            result.add(new Item(i));
+        }
+        return result;
+    }
+
+    private static void assertLines(List<Object> items, byte[] bytes)
+            throws Exception {
+        String[] lines = new String(bytes, StandardCharsets.UTF_8)
+                .split("\n", -1);
+        assertEquals(items.size() + 1, lines.length);
+        for (int i = 0; i < items.size(); i ++) {
+            assertEquals(RestyJson.build(items.get(i)), Json.createReader(
+                    new StringReader(lines[i])).read());
+        }
+        assertEquals("", lines[items.size()]);
+    }
+
+    @Test
+    public void testWrite() throws Exception {
+        List<Object> items = items(500);
+        CountingStream out = new CountingStream();
+        assertEquals(500, new RestyJsonLines(100).write(items, out));
+        assertEquals(6, out.flushes);
+        assertLines(items, out.toByteArray());
+    }
+
+    @Test
+    public void testWriteBufferSize() throws Exception {
+        List<Object> items = items(100);
+        CountingStream out = new CountingStream();
+        assertEquals(100, new RestyJsonLines(0, null, 0,
+                RestyJsonEncoder.MIN_BUFFER_SIZE).write(items, out));
+        assertLines(items, out.toByteArray());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWriteBufferSize_TooSmall() {
+        new RestyJsonLines(0, null, 0, RestyJsonEncoder.MIN_BUFFER_SIZE - 1);
+    }
+
+    @Test
+    public void testWriteParallel() throws Exception {
+        List<Object> items = items(500);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            CountingStream out = new CountingStream();
+            assertEquals(500, new RestyJsonLines(0, executor, 8)
+                    .write(items.iterator(), out));
+            assertEquals(1, out.flushes);
+            assertLines(items, out.toByteArray());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testWriteParallelBufferSize() throws Exception {
+        List<Object> items = items(500);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            CountingStream out = new CountingStream();
+            assertEquals(500, new RestyJsonLines(0, executor, 8, 1 << 20)
+                    .write(items, out));
+            assertEquals(1, out.writes);
+            assertLines(items, out.toByteArray());
+
+            out = new CountingStream();
+            assertEquals(500, new RestyJsonLines(0, executor, 8,
+                    RestyJsonEncoder.MIN_BUFFER_SIZE).write(items, out));
+            assertLines(items, out.toByteArray());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected = RestyMappingException.class)
+    public void testWriteParallelFailure() throws Exception {
+        List<Object> items = items(10);
+        items.add(new Broken());
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            new RestyJsonLines(0, executor, 4)
+                    .write(items, new ByteArrayOutputStream());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}
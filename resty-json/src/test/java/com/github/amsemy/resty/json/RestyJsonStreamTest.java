@@ -0,0 +1,386 @@
+package com.github.amsemy.resty.json;
+
+import com.github.amsemy.resty.json.annotation.RstField;
+import com.github.amsemy.resty.json.annotation.RstGetter;
+import com.github.amsemy.resty.json.annotation.RstPojo;
+import com.github.amsemy.resty.json.annotation.RstType;
+import com.github.amsemy.resty.json.annotation.RstTypeValue;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousByteChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Future;
+import javax.json.Json;
+import javax.json.JsonStructure;
+
+@SuppressWarnings({"FieldMayBeFinal", "UnusedDeclaration"})
+public class RestyJsonStreamTest {
+
+    @RstType
+    private static class Color {
+
+        @RstTypeValue
+        public String shortName = "striped";
+
+    }
+
+    @RstPojo
+    private static class Animal {
+
+        @RstField
+        private int age = 3;
+
+        @RstField("height")
+        public double h = 25.5;
+
+        @RstField
+        public Object nothing = null;
+
+    }
+
+    @RstPojo
+    private static class Cat extends Animal {
+
+        @RstField
+        public String name = "Vaska \"the cat\"\nкот 🐱";
+
+        @RstField
+        public boolean hungry = true;
+
+        @RstField
+        public long[] weights = {1L, Long.MIN_VALUE, Long.MAX_VALUE};
+
+        @RstGetter("color")
+        public Color getColor() {
+            return new Color();
+        }
+
+    }
+
+    @RstPojo
+    private static class Data {
+
+        @RstField
+        public List<Object> cats = new ArrayList<>();
+
+        @RstField
+        public Map<String, Object> map = new LinkedHashMap<>();
+
+        {
+            for (int i = 0; i < 100; i ++) {
+                cats.add(new Cat());
+            }
+            map.put("json", Json.createObjectBuilder().add("a", 1).build());
+            map.put("empty", new Object[0]);
+        }
+
+    }
+
+    private enum Size {
+
+        SMALL,
+
+        LARGE {
+            @Override
+            public String toString() {
+                return "large";
+            }
+        }
+
+    }
+
+    @RstPojo
+    private static class Order {
+
+        @RstField
+        public int id;
+
+        @RstField
+        public Size size = Size.SMALL;
+
+        Order(int id) {
+            this.id = id;
+        }
+
+    }
+
+    @RstPojo
+    private static class SpecialOrder extends Order {
+
+        @RstField
+        public String note = "fragile";
+
+        SpecialOrder(int id) {
+            super(id);
+        }
+
+    }
+
+    @RstPojo
+    private static class Shop {
+
+        @RstField
+        public List<Order> orders = Arrays.asList(new Order(1),
+                new SpecialOrder(2), null, new Order(3));
+
+        @RstField
+        public Map<String, Color> colors = new LinkedHashMap<>();
+
+        @RstField
+        public Order[] archive = {new Order(4), new SpecialOrder(5)};
+
+        @RstField
+        public Order last = new SpecialOrder(6);
+
+        @RstField
+        public List<Size> sizes = Arrays.asList(Size.LARGE, Size.SMALL);
+
+        @RstGetter("nested")
+        public List<List<Order>> getNested() {
+            return Arrays.asList(orders, Arrays.asList(new Order(7)));
+        }
+
+        {
+            colors.put("main", new Color());
+            colors.put("none", null);
+        }
+
+    }
+
+    private static class LimitedChannel implements WritableByteChannel {
+
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private int limit;
+
+        @Override
+        public int write(ByteBuffer src) {
+            int n = Math.min(limit, src.remaining());
+            for (int i = 0; i < n; i ++) {
+                out.write(src.get());
+            }
+            limit -= n;
+            return n;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+
+    }
+
+    private static class InlineAsyncChannel
+            implements AsynchronousByteChannel {
+
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        @Override
+        public <A> void read(ByteBuffer dst, A attachment,
+                CompletionHandler<Integer, ? super A> handler) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Future<Integer> read(ByteBuffer dst) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <A> void write(ByteBuffer src, A attachment,
+                CompletionHandler<Integer, ? super A> handler) {
+            int n = Math.min(7, src.remaining());
+            for (int i = 0; i < n; i ++) {
+                out.write(src.get());
+            }
+            handler.completed(n, attachment);
+        }
+
+        @Override
+        public Future<Integer> write(ByteBuffer src) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+
+    }
+
+    private static JsonStructure parse(byte[] bytes) {
+        return Json.createReader(new StringReader(
+                new String(bytes, StandardCharsets.UTF_8))).read();
+    }
+
+    private static byte[] readAll(RestyJsonStream stream, int chunk)
+            throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteBuffer buf = ByteBuffer.allocate(chunk);
+        while (stream.read(buf) >= 0) {
+            buf.flip();
+            out.write(buf.array(), 0, buf.limit());
+            buf.clear();
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testRead() throws Exception {
+        Data data = new Data();
+        byte[] bytes = readAll(new RestyJsonStream(data, 16), 5);
+        assertEquals(RestyJson.build(data), parse(bytes));
+
+        bytes = readAll(RestyJson.stream(new int[] {10, 20, 30}), 1024);
+        assertEquals("[10,20,30]",
+                new String(bytes, StandardCharsets.UTF_8));
+
+        bytes = readAll(RestyJson.stream(new Object[0]), 1024);
+        assertEquals("[]", new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testReadEscapes() throws Exception {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("s", "\"\\/\b\f\n\r\t\u0001é€🐱\ud800");
+        byte[] bytes = readAll(RestyJson.stream(map), 3);
+        assertEquals("{\"s\":\"\\\"\\\\/\\b\\f\\n\\r\\t\\u0001"
+                + "é€🐱\\ud800\"}",
+                new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testWriteToChannel() throws Exception {
+        Data data = new Data();
+        RestyJsonStream stream = new RestyJsonStream(data, 64);
+        LimitedChannel channel = new LimitedChannel();
+        int suspends = 0;
+        while (true) {
+            channel.limit = 100;
+            if (stream.writeTo(channel)) {
+                break;
+            }
+            assertFalse(stream.isDone());
+            suspends ++;
+        }
+        assertTrue(suspends > 1);
+        assertTrue(stream.isDone());
+        assertEquals(RestyJson.build(data),
+                parse(channel.out.toByteArray()));
+    }
+
+    @Test
+    public void testWriteToAsyncChannel() throws Exception {
+        Data data = new Data();
+        InlineAsyncChannel channel = new InlineAsyncChannel();
+        final long[] result = {-1};
+        RestyJson.stream(Arrays.asList(data, data)).writeTo(channel, null,
+                new CompletionHandler<Long, Void>() {
+
+                    @Override
+                    public void completed(Long written, Void nothing) {
+                        result[0] = written;
+                    }
+
+                    @Override
+                    public void failed(Throwable ex, Void nothing) {
+                        fail(ex.toString());
+                    }
+
+                });
+        byte[] bytes = channel.out.toByteArray();
+        assertEquals(bytes.length, result[0]);
+        assertEquals(RestyJson.build(Arrays.asList(data, data)),
+                parse(bytes));
+    }
+
+    @Test
+    public void testReadSpecialValues() throws Exception {
+        List<Object> values = new ArrayList<>();
+        values.add(Size.SMALL);
+        values.add(Size.LARGE);
+        values.add(UUID.randomUUID());
+        values.add(new UUID(0L, 0L));
+        values.add(new UUID(-1L, -1L));
+        values.add(LocalDate.of(2015, 3, 7));
+        values.add(LocalDate.of(-5, 1, 1));
+        values.add(LocalDate.of(12345, 1, 1));
+        values.add(LocalTime.of(9, 5));
+        values.add(LocalTime.of(9, 5, 0, 1));
+        values.add(LocalTime.of(23, 59, 59, 120000000));
+        values.add(LocalTime.of(0, 0, 1, 123456000));
+        values.add(LocalDateTime.of(2015, 12, 31, 23, 0, 7));
+        values.add(OffsetDateTime.of(2015, 1, 2, 3, 4, 5, 6,
+                ZoneOffset.ofHoursMinutes(-3, -30)));
+        values.add(OffsetDateTime.of(2015, 1, 2, 3, 4, 0, 0,
+                ZoneOffset.UTC));
+        values.add(Instant.ofEpochSecond(0));
+        values.add(Instant.ofEpochSecond(951782400L, 5000000));
+        values.add(Instant.ofEpochSecond(-1L, 999999999));
+        values.add(Instant.ofEpochSecond(-62135596801L));
+        values.add(Instant.MAX);
+        StringBuilder expected = new StringBuilder("[");
+        for (Object value : values) {
+            if (expected.length() > 1) {
+                expected.append(',');
+            }
+            expected.append('"')
+                    .append(value instanceof Enum
+                            ? ((Enum<?>) value).name() : value.toString())
+                    .append('"');
+        }
+        expected.append(']');
+        byte[] bytes = readAll(new RestyJsonStream(values, 16), 7);
+        assertEquals(expected.toString(),
+                new String(bytes, StandardCharsets.UTF_8));
+        assertEquals(RestyJson.build(values), parse(bytes));
+    }
+
+    @Test
+    public void testReadTypedCollections() throws Exception {
+        Shop shop = new Shop();
+        byte[] bytes = readAll(new RestyJsonStream(shop, 32), 11);
+        JsonStructure json = parse(bytes);
+        assertEquals(RestyJson.build(shop), json);
+        assertEquals("{\"nested\":[[{\"id\":1,\"size\":\"SMALL\"},"
+                + "{\"note\":\"fragile\",\"id\":2,\"size\":\"SMALL\"},"
+                + "null,{\"id\":3,\"size\":\"SMALL\"}],"
+                + "[{\"id\":7,\"size\":\"SMALL\"}]],"
+                + "\"orders\":[{\"id\":1,\"size\":\"SMALL\"},"
+                + "{\"note\":\"fragile\",\"id\":2,\"size\":\"SMALL\"},"
+                + "null,{\"id\":3,\"size\":\"SMALL\"}],"
+                + "\"colors\":{\"main\":\"striped\",\"none\":null},"
+                + "\"archive\":[{\"id\":4,\"size\":\"SMALL\"},"
+                + "{\"note\":\"fragile\",\"id\":5,\"size\":\"SMALL\"}],"
+                + "\"last\":{\"note\":\"fragile\",\"id\":6,"
+                + "\"size\":\"SMALL\"},"
+                + "\"sizes\":[\"LARGE\",\"SMALL\"]}",
+                new String(bytes, StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.github.amsemy.resty.json;
+
+import com.github.amsemy.resty.json.annotation.RstField;
+import com.github.amsemy.resty.json.annotation.RstPojo;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+@SuppressWarnings({"FieldMayBeFinal", "UnusedDeclaration"})
+public class RestyJsonTemplateTest {
+
+    @RstPojo
+    private static class Item {
+
+        @RstField
+        public String name;
+
+        Item(String name) {
+            this.name = name;
+        }
+
+    }
+
+    @RstPojo
+    private static class SpecialItem extends Item {
+
+        @RstField
+        public boolean special = true;
+
+        SpecialItem(String name) {
+            super(name);
+        }
+
+    }
+
+    private static RestyJsonTemplate envelope() throws Exception {
+        return RestyJsonTemplate.builder()
+                .startObject()
+                .name("status").value("ok")
+                .name("data").hole(Item.class)
+                .name("meta").startObject()
+                        .name("tags").value(Arrays.asList("a", "b"))
+                        .name("page").hole(Integer.class)
+                        .name("list").startArray()
+                                .value(1).hole().hole().value(null)
+                                .end()
+                        .end()
+                .end()
+                .build();
+    }
+
+    @Test
+    public void testWrite() throws Exception {
+        RestyJsonTemplate template = envelope();
+        assertEquals(4, template.getHoleCount());
+        String expected = "{\"status\":\"ok\",\"data\":{\"name\":\"x\"},"
+                + "\"meta\":{\"tags\":[\"a\",\"b\"],\"page\":3,"
+                + "\"list\":[1,\"é\",[2,3],null]}}";
+        Object[] values = {new Item("x"), 3, "é", new int[] {2, 3}};
+        assertEquals(expected, new String(template.toBytes(values),
+                StandardCharsets.UTF_8));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        template.write(out, values);
+        assertEquals(expected, new String(out.toByteArray(),
+                StandardCharsets.UTF_8));
+
+        assertEquals("{\"status\":\"ok\",\"data\":{\"special\":true,"
+                + "\"name\":\"y\"},\"meta\":{\"tags\":[\"a\",\"b\"],"
+                + "\"page\":null,\"list\":[1,null,false,null]}}",
+                new String(template.toBytes(new SpecialItem("y"), null,
+                        null, false), StandardCharsets.UTF_8));
+
+        template = RestyJsonTemplate.builder().hole().build();
+        assertEquals("[true]", new String(template.toBytes(
+                (Object) new boolean[] {true}), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testInvalidValues() throws Exception {
+        RestyJsonTemplate template = envelope();
+        try {
+            template.toBytes(new Item("x"), 3, "a");
+            fail();
+        } catch (IllegalArgumentException ex) {
+        }
+        try {
+            template.toBytes(new Item("x"), "3", "a", "b");
+            fail();
+        } catch (IllegalArgumentException ex) {
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testIncomplete() throws Exception {
+        RestyJsonTemplate.builder().startObject().name("a").hole().build();
+    }
+
+}
@@ -2,6 +2,7 @@ package com.github.amsemy.resty.json;
 
 import com.github.amsemy.resty.json.annotation.RstField;
 import com.github.amsemy.resty.json.annotation.RstGetter;
+import com.github.amsemy.resty.json.annotation.RstInclude;
 import com.github.amsemy.resty.json.annotation.RstPojo;
 import com.github.amsemy.resty.json.annotation.RstType;
 import com.github.amsemy.resty.json.annotation.RstTypeValue;
@@ -9,11 +10,22 @@ import org.junit.Before;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.json.Json;
 import javax.json.JsonArray;
 import javax.json.JsonArrayBuilder;
@@ -83,6 +95,132 @@ public class RestyJsonTest {
         public Cat cat = new Cat();
     }
 
+    @RstPojo
+    private static class Node {
+
+        @RstField
+        public Node child;
+
+    }
+
+    @RstType
+    private static class Loop {
+
+        @RstTypeValue
+        public Loop self = this;
+
+    }
+
+    @RstPojo
+    private static class Sparse {
+
+        @RstField
+        public String text = null;
+
+        @RstField(include = RstInclude.ALWAYS)
+        public String always = null;
+
+        @RstField(include = RstInclude.NON_NULL)
+        public int[] nonNull = {};
+
+        @RstField(include = RstInclude.NON_EMPTY)
+        public Collection<Object> nonEmpty = new ArrayList<>();
+
+        @RstField(include = RstInclude.NON_EMPTY)
+        public int zero = 0;
+
+        @RstField(include = RstInclude.NON_DEFAULT)
+        public int nonDefault = 0;
+
+        @RstField(include = RstInclude.NON_DEFAULT)
+        public String emptyText = "";
+
+        @RstField(include = RstInclude.NON_DEFAULT)
+        public double number = 0.5;
+
+        @RstField
+        public Map<String, Object> map = new HashMap<>();
+
+        @RstGetter(value = "flag", include = RstInclude.NON_DEFAULT)
+        public boolean isFlag() {
+            return false;
+        }
+
+        {
+            map.put("nothing", null);
+        }
+
+    }
+
+    @RstPojo
+    private static class Remote {
+
+        private final CountDownLatch latch;
+
+        Remote(CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        @RstGetter(value = "slow", parallel = true)
+        public String getSlow() throws InterruptedException {
+            latch.countDown();
+            return (latch.await(10, TimeUnit.SECONDS) ? "done" : "timeout");
+        }
+
+        @RstGetter(value = "async")
+        public Future<Cat> getAsync() {
+            FutureTask<Cat> task = new FutureTask<>(new Callable<Cat>() {
+
+                @Override
+                public Cat call() {
+                    return new Cat();
+                }
+
+            });
+            new Thread(task).start();
+            return task;
+        }
+
+        @RstGetter(value = "none")
+        public Future<String> getNone() {
+            return null;
+        }
+
+    }
+
+    @RstPojo
+    private static class CountedRemote {
+
+        static final AtomicInteger ACTIVE = new AtomicInteger();
+        static final AtomicInteger MAX_ACTIVE = new AtomicInteger();
+
+        @RstGetter(value = "slow", parallel = true)
+        public String getSlow() throws InterruptedException {
+            int count = ACTIVE.incrementAndGet();
+            int max = MAX_ACTIVE.get();
+            while (count > max && !MAX_ACTIVE.compareAndSet(max, count)) {
+                max = MAX_ACTIVE.get();
+            }
+            try {
+                Thread.sleep(1);
+            } finally {
+                ACTIVE.decrementAndGet();
+            }
+            return "done";
+        }
+
+    }
+
+    @RstPojo
+    private static class BrokenRemote {
+
+        @RstGetter(value = "broken", parallel = true)
+        public String getBroken() {
+            throw new IllegalStateException();
+        }
+
+    }
+
     private int[] emptyArray;
     private int[] filledArray;
     private Collection<Object> emptyCollection;
@@ -220,4 +358,145 @@ public class RestyJsonTest {
         assertEquals("striped", result);
     }
 
+    @Test
+    public void testMaxDepth() throws Exception {
+        Node root = new Node();
+        Node node = root;
+        for (int i = 1; i < 50000; i ++) {
+            node.child = new Node();
+            node = node.child;
+        }
+        assertEquals(1000, RestyJson.getMaxDepth());
+        try {
+            RestyJson.build(root);
+            fail();
+        } catch (RestyMappingException ex) {
+        }
+        try {
+            RestyJson.build(new Loop[] {new Loop()});
+            fail();
+        } catch (RestyMappingException ex) {
+        }
+        RestyJson.setMaxDepth(50000);
+        try {
+            JsonObject result = (JsonObject) RestyJson.build(root);
+            for (int i = 1; i < 50000; i ++) {
+                result = result.getJsonObject("child");
+            }
+            assertTrue(result.isNull("child"));
+            RestyJsonStream stream = RestyJson.stream(root);
+            ByteBuffer buf = ByteBuffer.allocate(4096);
+            long length = 0;
+            while (stream.read(buf) >= 0) {
+                length += buf.position();
+                buf.clear();
+            }
+            assertEquals(50000 * "{\"child\":}".length() + "null".length(),
+                    length);
+            node.child = new Node();
+            try {
+                RestyJson.build(root);
+                fail();
+            } catch (RestyMappingException ex) {
+            }
+        } finally {
+            RestyJson.setMaxDepth(1000);
+        }
+    }
+
+    @Test
+    public void testInclude() throws Exception {
+        JsonObject result;
+
+        result = (JsonObject) RestyJson.build(new Sparse());
+        assertEquals(Json.createObjectBuilder()
+                .addNull("text")
+                .addNull("always")
+                .add("nonNull", Json.createArrayBuilder())
+                .add("zero", 0)
+                .add("number", 0.5)
+                .add("map", Json.createObjectBuilder().addNull("nothing"))
+                .build(), result);
+
+        assertEquals(RstInclude.ALWAYS, RestyJson.getInclude());
+        RestyJson.setInclude(RstInclude.NON_NULL);
+        try {
+            result = (JsonObject) RestyJson.build(new Sparse());
+            assertEquals(Json.createObjectBuilder()
+                    .addNull("always")
+                    .add("nonNull", Json.createArrayBuilder())
+                    .add("zero", 0)
+                    .add("number", 0.5)
+                    .add("map", Json.createObjectBuilder())
+                    .build(), result);
+        } finally {
+            RestyJson.setInclude(RstInclude.DEFAULT);
+        }
+        assertEquals(RstInclude.ALWAYS, RestyJson.getInclude());
+    }
+
+    @Test
+    public void testParallelGetters() throws Exception {
+        JsonObject cat = Json.createObjectBuilder()
+                .add("age", 3)
+                .add("height", 25)
+                .add("width", 9)
+                .add("name", "Vaska")
+                .add("color", "striped")
+                .build();
+        JsonObject remote = Json.createObjectBuilder()
+                .add("slow", "done")
+                .add("async", cat)
+                .addNull("none")
+                .build();
+        JsonArray result;
+
+        CountDownLatch latch = new CountDownLatch(3);
+        result = (JsonArray) RestyJson.build(new Remote[] {new Remote(latch),
+                new Remote(latch), new Remote(latch)});
+        assertEquals(Json.createArrayBuilder()
+                .add(remote).add(remote).add(remote).build(), result);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        RestyJson.setExecutor(executor);
+        try {
+            latch = new CountDownLatch(2);
+            Map<String, Object> map = new HashMap<>();
+            map.put("list", Arrays.asList(new Remote(latch),
+                    new Remote(latch)));
+            assertEquals(Json.createObjectBuilder()
+                    .add("list", Json.createArrayBuilder()
+                            .add(remote).add(remote))
+                    .build(), RestyJson.build(map));
+        } finally {
+            RestyJson.setExecutor(null);
+            executor.shutdown();
+        }
+
+        try {
+            RestyJson.build(new BrokenRemote());
+            fail();
+        } catch (RestyMappingException ex) {
+        }
+    }
+
+    @Test
+    public void testParallelGetters_DefaultExecutorBounded()
+            throws Exception {
+        int count = (RestySerializer.DEFAULT_QUEUE_SIZE
+                + RestySerializer.DEFAULT_POOL_SIZE) * 3;
+        List<CountedRemote> list = new ArrayList<>();
+        for (int i = 0; i < count; i ++) {
+            list.add(new CountedRemote());
+        }
+        JsonArray result = (JsonArray) RestyJson.build(list);
+
+        assertEquals(count, result.size());
+        assertEquals("done", result.getJsonObject(count - 1)
+                .getString("slow"));
+        assertTrue(String.valueOf(CountedRemote.MAX_ACTIVE.get()),
+                CountedRemote.MAX_ACTIVE.get()
+                        <= RestySerializer.DEFAULT_POOL_SIZE + 1);
+    }
+
 }
@@ -0,0 +1,159 @@
+package com.github.amsemy.resty.json;
+
+import com.github.amsemy.resty.json.annotation.RstField;
+import com.github.amsemy.resty.json.annotation.RstGetter;
+import com.github.amsemy.resty.json.annotation.RstInclude;
+import com.github.amsemy.resty.json.annotation.RstPojo;
+import com.github.amsemy.resty.json.annotation.RstType;
+import com.github.amsemy.resty.json.annotation.RstTypeValue;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonException;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+
+@SuppressWarnings({"FieldMayBeFinal", "UnusedDeclaration"})
+public class RestyJsonViewTest {
+
+    @RstType
+    private static class Color {
+
+        @RstTypeValue
+        public String shortName = "striped";
+
+    }
+
+    @RstPojo
+    private static class Cat {
+
+        private int calls;
+
+        @RstField
+        public String name = "Vaska";
+
+        @RstField
+        public int age = 3;
+
+        @RstField
+        public boolean hungry = true;
+
+        @RstField
+        public Color color = new Color();
+
+        @RstField(include = RstInclude.NON_NULL)
+        public String nick = null;
+
+        @RstField
+        public Object nothing = null;
+
+        @RstField
+        public int[] weights = {4, 5};
+
+        @RstField
+        public List<Cat> kittens = new ArrayList<>();
+
+        @RstField
+        public Map<String, Object> tags = new LinkedHashMap<>();
+
+        @RstGetter("counted")
+        public int getCounted() {
+            return ++ calls;
+        }
+
+        {
+            tags.put("a", 1);
+            tags.put("b", new HashSet<>(Arrays.asList("x")));
+        }
+
+    }
+
+    @RstPojo
+    private static class Broken {
+
+        @RstField
+        public String name = "broken";
+
+        @RstGetter("fail")
+        public String getFail() {
+            throw new IllegalStateException();
+        }
+
+    }
+
+    @Test
+    public void testView() throws Exception {
+        Cat cat = new Cat();
+        cat.kittens.add(new Cat());
+        JsonObject view = (JsonObject) RestyJson.view(cat);
+
+        assertEquals(JsonValue.ValueType.OBJECT, view.getValueType());
+        assertEquals("Vaska", view.getString("name"));
+        assertEquals(3, view.getInt("age"));
+        assertTrue(view.getBoolean("hungry"));
+        assertFalse(view.getBoolean("name", false));
+        assertEquals("striped", view.getString("color"));
+        assertEquals(7, view.getInt("color", 7));
+        assertFalse(view.containsKey("nick"));
+        assertNull(view.get("nick"));
+        assertTrue(view.isNull("nothing"));
+        assertEquals(5, view.getJsonArray("weights").getInt(1));
+        assertEquals("Vaska", view.getJsonArray("kittens")
+                .getJsonObject(0).getString("name"));
+        assertEquals("x", view.getJsonObject("tags").getJsonArray("b")
+                .getString(0));
+        assertEquals("x", view.getJsonObject("tags").getJsonArray("b")
+                .getValuesAs(JsonString.class).get(0).getString());
+        assertEquals(9, view.size());
+
+        // Values are converted once.
+        assertEquals(1, view.getInt("counted"));
+        assertEquals(1, view.getInt("counted"));
+        assertEquals(1, cat.calls);
+
+        Cat first = new Cat();
+        first.kittens.add(new Cat());
+        Cat second = new Cat();
+        second.kittens.add(new Cat());
+        JsonObject fresh = (JsonObject) RestyJson.view(first);
+        assertEquals(RestyJson.build(second), fresh);
+        assertEquals(fresh, Json.createReader(
+                new StringReader(fresh.toString())).read());
+    }
+
+    @Test
+    public void testArray() throws Exception {
+        JsonArray view = (JsonArray) RestyJson.view(
+                Arrays.asList(1, "two", null, new Cat()));
+        assertEquals(4, view.size());
+        assertEquals(1, view.getInt(0));
+        assertEquals("two", view.getString(1));
+        assertEquals("none", view.getString(2, "none"));
+        assertEquals(42, view.getInt(10, 42));
+        assertTrue(view.isNull(2));
+        assertEquals(3, view.getJsonObject(3).getInt("age"));
+    }
+
+    @Test
+    public void testLazyFailure() throws Exception {
+        JsonObject view = (JsonObject) RestyJson.view(new Broken());
+        assertEquals("broken", view.getString("name"));
+        try {
+            view.get("fail");
+            fail();
+        } catch (JsonException ex) {
+            assertTrue(ex.getCause() instanceof RestyMappingException);
+        }
+    }
+
+}
@@ -0,0 +1,169 @@
+package com.github.amsemy.resty.json;
+
+import com.github.amsemy.resty.json.annotation.RstField;
+import com.github.amsemy.resty.json.annotation.RstPojo;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import javax.json.Json;
+import javax.json.JsonStructure;
+
+@SuppressWarnings({"EmptyCatchBlock", "FieldMayBeFinal",
+        "UnusedDeclaration"})
+public class RestySpillBufferTest {
+
+    @RstPojo
+    private static class Item {
+
+        @RstField
+        public int id;
+
+        @RstField
+        public String title;
+
+        Item(int id) {
+            this.id = id;
+            title = "Item number " + id;
+        }
+
+    }
+
+    private static List<Item> items(int count) {
+        List<Item> result = new ArrayList<>();
+        for (int i = 0; i < count; i ++) {
+            result.add(new Item(i));
+        }
+        return result;
+    }
+
+    private static JsonStructure parse(byte[] bytes) {
+        return Json.createReader(new StringReader(
+                new String(bytes, StandardCharsets.UTF_8))).read();
+    }
+
+    private static byte[] transfer(RestySpillBuffer buffer) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        buffer.transferTo(Channels.newChannel(out));
+        return out.toByteArray();
+    }
+
+    private static void assertClosed(RestySpillBuffer buffer)
+            throws Exception {
+        assertFalse(buffer.isSpilled());
+        try {
+            buffer.map();
+            fail();
+        } catch (IllegalStateException ex) {
+        }
+        try {
+            transfer(buffer);
+            fail();
+        } catch (IllegalStateException ex) {
+        }
+        try {
+            buffer.transferTo(0, 1, Channels.newChannel(
+                    new ByteArrayOutputStream()));
+            fail();
+        } catch (IllegalStateException ex) {
+        }
+        try {
+            buffer.write(items(1));
+            fail();
+        } catch (IllegalStateException ex) {
+        }
+    }
+
+    private static int countFiles(Path dir) throws Exception {
+        int count = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file : files) {
+                count ++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void testInMemory() throws Exception {
+        List<Item> items = items(100);
+        try (RestySpillBuffer buffer = new RestySpillBuffer(1 << 20)) {
+            buffer.write(items);
+            assertFalse(buffer.isSpilled());
+            byte[] bytes = transfer(buffer);
+            assertEquals(buffer.length(), bytes.length);
+            assertEquals(RestyJson.build(items), parse(bytes));
+            assertArrayEquals(bytes, transfer(buffer));
+
+            ByteBuffer mapped = buffer.map();
+            byte[] copy = new byte[mapped.remaining()];
+            mapped.get(copy);
+            assertArrayEquals(bytes, copy);
+        }
+    }
+
+    @Test
+    public void testSpill() throws Exception {
+        List<Item> items = items(1000);
+        Path dir = Files.createTempDirectory("resty-test");
+        try {
+            RestySpillBuffer buffer = new RestySpillBuffer(1000, dir, 256);
+            buffer.write(items);
+            assertTrue(buffer.isSpilled());
+            assertTrue(countFiles(dir) <= 1);
+            byte[] bytes = transfer(buffer);
+            assertEquals(buffer.length(), bytes.length);
+            assertEquals(RestyJson.build(items), parse(bytes));
+
+            ByteBuffer mapped = buffer.map();
+            byte[] copy = new byte[mapped.remaining()];
+            mapped.get(copy);
+            assertArrayEquals(bytes, copy);
+
+            buffer.close();
+            assertEquals(0, countFiles(dir));
+            assertClosed(buffer);
+        } finally {
+            Files.delete(dir);
+        }
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        RestySpillBuffer buffer = new RestySpillBuffer(1 << 20);
+        buffer.write(items(10));
+        buffer.close();
+        assertClosed(buffer);
+        buffer.close();
+    }
+
+    @Test
+    public void testPartialTransfer() throws Exception {
+        List<Item> items = items(50);
+        try (RestySpillBuffer buffer = new RestySpillBuffer(1 << 20,
+                null, 64)) {
+            buffer.write(items);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            WritableByteChannel channel = Channels.newChannel(out);
+            long position = 0;
+            while (position < buffer.length()) {
+                long n = buffer.transferTo(position, 100, channel);
+                assertTrue(n > 0 && n <= 100);
+                position += n;
+            }
+            assertEquals(0, buffer.transferTo(position, 100, channel));
+            assertEquals(RestyJson.build(items), parse(out.toByteArray()));
+        }
+    }
+
+}
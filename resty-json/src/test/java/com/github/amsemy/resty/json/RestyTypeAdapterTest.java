@@ -0,0 +1,240 @@
+package com.github.amsemy.resty.json;
+
+import com.github.amsemy.resty.json.annotation.RstField;
+import com.github.amsemy.resty.json.annotation.RstPojo;
+import org.junit.After;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
+
+@SuppressWarnings({"FieldMayBeFinal", "UnusedDeclaration"})
+public class RestyTypeAdapterTest {
+
+    private interface Identified {
+
+        long getId();
+
+    }
+
+    private static class Money {
+
+        private final BigDecimal amount;
+        private final String currency;
+
+        Money(String amount, String currency) {
+            this.amount = new BigDecimal(amount);
+            this.currency = currency;
+        }
+
+    }
+
+    private static class Item implements Identified {
+
+        @Override
+        public long getId() {
+            return 42;
+        }
+
+    }
+
+    @RstPojo
+    private static class SpecialItem extends Item {
+
+        @RstField
+        public String name = "special";
+
+    }
+
+    @RstPojo
+    private static class Order {
+
+        @RstField
+        public Money total = new Money("10.50", "EUR");
+
+        @RstField
+        public List<Identified> items = Arrays.<Identified>asList(
+                new Item(), new SpecialItem());
+
+        @RstField
+        public Money nothing = null;
+
+    }
+
+    private static class MoneyAdapter extends RestyTypeAdapter<Money> {
+
+        @Override
+        public void write(Money value, RestyJsonWriter out)
+                throws IOException {
+            out.writeStartObject();
+            out.writeName("amount");
+            out.writeNumber(value.amount);
+            out.writeName("currency");
+            out.writeString(value.currency);
+            out.writeEnd();
+        }
+
+        @Override
+        public boolean canRead() {
+            return true;
+        }
+
+        @Override
+        public Money read(JsonParser parser) throws RestyMappingException {
+            String amount = null;
+            String currency = null;
+            if (parser.next() != JsonParser.Event.START_OBJECT) {
+                throw new RestyMappingException("Object expected");
+            }
+            while (parser.next() == JsonParser.Event.KEY_NAME) {
+                String name = parser.getString();
+                parser.next();
+                if (name.equals("amount")) {
+                    amount = parser.getString();
+                } else {
+                    currency = parser.getString();
+                }
+            }
+            return new Money(amount, currency);
+        }
+
+    }
+
+    private static class IdAdapter extends RestyTypeAdapter<Identified> {
+
+        @Override
+        public void write(Identified value, RestyJsonWriter out)
+                throws IOException {
+            out.writeNumber(value.getId());
+        }
+
+    }
+
+    private static class BrokenAdapter extends RestyTypeAdapter<Money> {
+
+        @Override
+        public void write(Money value, RestyJsonWriter out)
+                throws IOException {
+            out.writeString(value.currency);
+            out.writeString(value.currency);
+        }
+
+    }
+
+    private static String stream(Object object) throws Exception {
+        RestyJsonStream stream = RestyJson.stream(object);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteBuffer buf = ByteBuffer.allocate(64);
+        while (stream.read(buf) >= 0) {
+            buf.flip();
+            out.write(buf.array(), 0, buf.limit());
+            buf.clear();
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @After
+    public void tearDown() {
+        RestyJson.unregisterAdapter(Money.class);
+        RestyJson.unregisterAdapter(Identified.class);
+        RestyJson.unregisterAdapter(SpecialItem.class);
+    }
+
+    @Test
+    public void testWrite() throws Exception {
+        Order order = new Order();
+        JsonObject json = (JsonObject) RestyJson.build(order);
+        assertTrue(json.get("total") instanceof javax.json.JsonString);
+
+        RestyJson.registerAdapter(Money.class, new MoneyAdapter());
+        RestyJson.registerAdapter(Identified.class, new IdAdapter());
+        json = (JsonObject) RestyJson.build(order);
+        assertEquals("{\"amount\":10.50,\"currency\":\"EUR\"}",
+                json.getJsonObject("total").toString());
+        assertEquals("[42,42]", json.getJsonArray("items").toString());
+        assertTrue(json.isNull("nothing"));
+        assertEquals(json, Json.createReader(
+                new StringReader(stream(order))).read());
+
+        RestyJson.registerAdapter(SpecialItem.class, new IdAdapter() {
+
+            @Override
+            public void write(Identified value, RestyJsonWriter out)
+                    throws IOException {
+                out.writeString("special");
+            }
+
+        });
+        json = (JsonObject) RestyJson.build(order);
+        assertEquals("[42,\"special\"]",
+                json.getJsonArray("items").toString());
+        assertEquals(json, Json.createReader(
+                new StringReader(stream(order))).read());
+
+        RestyJson.unregisterAdapter(Identified.class);
+        RestyJson.unregisterAdapter(SpecialItem.class);
+        json = (JsonObject) RestyJson.build(order);
+        assertEquals("{\"name\":\"special\"}",
+                json.getJsonArray("items").getJsonObject(1).toString());
+    }
+
+    @Test
+    public void testRead() throws Exception {
+        RestyJson.registerAdapter(Money.class, new MoneyAdapter());
+        JsonParser parser = Json.createParser(new StringReader(
+                "{\"amount\":\"7.25\",\"currency\":\"USD\"}"));
+        Money money = RestyJson.read(parser, Money.class);
+        assertEquals(new BigDecimal("7.25"), money.amount);
+        assertEquals("USD", money.currency);
+
+        RestyJson.registerAdapter(Identified.class, new IdAdapter());
+        try {
+            RestyJson.read(parser, Item.class);
+            fail();
+        } catch (RestyMappingException ex) {
+        }
+    }
+
+    @Test
+    public void testReadSubclass() throws Exception {
+        RestyJson.registerAdapter(Identified.class, new IdAdapter() {
+
+            @Override
+            public boolean canRead() {
+                return true;
+            }
+
+            @Override
+            public Identified read(JsonParser parser) {
+                parser.next();
+                return new Item();
+            }
+
+        });
+        JsonParser parser = Json.createParser(new StringReader("[1, 2]"));
+        parser.next();
+        assertNotNull(RestyJson.read(parser, Item.class));
+        try {
+            RestyJson.read(parser, SpecialItem.class);
+            fail();
+        } catch (RestyMappingException ex) {
+        }
+    }
+
+    @Test(expected = RestyMappingException.class)
+    public void testBrokenAdapter() throws Exception {
+        RestyJson.registerAdapter(Money.class, new BrokenAdapter());
+        RestyJson.build(new Order());
+    }
+
+}
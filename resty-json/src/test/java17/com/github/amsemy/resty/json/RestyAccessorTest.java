@@ -0,0 +1,52 @@
+package com.github.amsemy.resty.json;
+
+import com.github.amsemy.resty.json.annotation.RstField;
+import com.github.amsemy.resty.json.annotation.RstGetter;
+import com.github.amsemy.resty.json.annotation.RstPojo;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.nio.charset.StandardCharsets;
+
+public class RestyAccessorTest {
+
+    @RstPojo
+    public static class Statics {
+
+        @RstField
+        static String s = "st";
+
+        @RstField
+        int x = 1;
+
+        @RstGetter("KIND")
+        public static String kind() {
+            return "p";
+        }
+
+    }
+
+    @Test
+    public void testStaticField() throws Exception {
+        RestyAccessor accessor = RestyAccessor.of(
+                Statics.class.getDeclaredField("s"));
+        assertEquals("st", accessor.get(new Statics()));
+        assertEquals("st", accessor.get(null));
+    }
+
+    @Test
+    public void testStaticGetter() throws Exception {
+        RestyAccessor accessor = RestyAccessor.of(
+                Statics.class.getMethod("kind"));
+        assertEquals("p", accessor.get(new Statics()));
+        assertEquals("p", accessor.get(null));
+    }
+
+    @Test
+    public void testStaticMembers() throws Exception {
+        assertEquals("{\"KIND\":\"p\",\"s\":\"st\",\"x\":1}", new String(
+                RestyJsonTemplate.builder().hole().build()
+                        .toBytes(new Statics()), StandardCharsets.UTF_8));
+    }
+
+}
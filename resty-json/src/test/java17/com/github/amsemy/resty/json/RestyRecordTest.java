@@ -0,0 +1,124 @@
+package com.github.amsemy.resty.json;
+
+import com.github.amsemy.resty.json.annotation.RstField;
+import com.github.amsemy.resty.json.annotation.RstGetter;
+import com.github.amsemy.resty.json.annotation.RstInclude;
+import com.github.amsemy.resty.json.annotation.RstPojo;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import javax.json.Json;
+import javax.json.JsonStructure;
+
+public class RestyRecordTest {
+
+    private record Point(int x, int y) {
+    }
+
+    private record Tagged(
+            @RstField("label") String name,
+            @RstField(include = RstInclude.NON_NULL) String note,
+            List<Point> points) {
+
+        @RstGetter("size")
+        public int size() {
+            return points.size();
+        }
+
+    }
+
+    private record Renamed(String raw) {
+
+        @Override
+        @RstGetter("value")
+        public String raw() {
+            return raw.toUpperCase();
+        }
+
+    }
+
+    @RstPojo
+    private record Annotated(int id) {
+    }
+
+    private sealed interface Shape permits Circle, Square, Polygon {
+    }
+
+    private record Circle(double radius) implements Shape {
+    }
+
+    private record Square(double side) implements Shape {
+    }
+
+    private static sealed abstract class Polygon implements Shape
+            permits Triangle {
+    }
+
+    @RstPojo
+    private static final class Triangle extends Polygon {
+
+        @RstField
+        private final int corners = 3;
+
+    }
+
+    private record Drawing(Shape main, List<Shape> shapes) {
+    }
+
+    private static JsonStructure parse(String text) {
+        return Json.createReader(new StringReader(text)).read();
+    }
+
+    private static String text(Object object) throws Exception {
+        return new String(RestyJsonTemplate.builder().hole().build()
+                .toBytes(object), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testComponents() throws Exception {
+        assertEquals("{\"x\":1,\"y\":2}", text(new Point(1, 2)));
+        assertEquals(parse("{\"x\":1,\"y\":2}"),
+                RestyJson.build(new Point(1, 2)));
+        assertEquals("{\"id\":7}", text(new Annotated(7)));
+    }
+
+    @Test
+    public void testOverrides() throws Exception {
+        Tagged tagged = new Tagged("a", null,
+                Arrays.asList(new Point(0, 0), new Point(1, 1)));
+        assertEquals("{\"label\":\"a\",\"points\":[{\"x\":0,\"y\":0},"
+                + "{\"x\":1,\"y\":1}],\"size\":2}", text(tagged));
+        assertEquals("{\"value\":\"ABC\"}", text(new Renamed("abc")));
+    }
+
+    @Test
+    public void testSealed() throws Exception {
+        Drawing drawing = new Drawing(new Circle(1.5), Arrays.asList(
+                new Square(2), new Triangle(), new Circle(0.5)));
+        assertEquals("{\"main\":{\"radius\":1.5},\"shapes\":[{\"side\":2.0},"
+                + "{\"corners\":3},{\"radius\":0.5}]}", text(drawing));
+        RestyClassPlan plan = RestyClassPlan.get(Shape.class);
+        assertTrue(RestyClassPlan.isBindable(Shape.class));
+        assertSame(RestyClassPlan.get(Circle.class),
+                plan.getSubtypePlan(Circle.class));
+        assertSame(RestyClassPlan.get(Triangle.class),
+                plan.getSubtypePlan(Triangle.class));
+        assertNull(plan.getSubtypePlan(Polygon.class));
+        assertNull(plan.getSubtypePlan(String.class));
+    }
+
+    @Test
+    public void testSealedHole() throws Exception {
+        RestyJsonTemplate template = RestyJsonTemplate.builder()
+                .startArray().hole(Shape.class).hole(Shape.class).end()
+                .build();
+        assertEquals("[{\"side\":1.0},null]", new String(
+                template.toBytes(new Square(1), null),
+                StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.github.amsemy.resty.request.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Указывает, что поле класса получает значение параметра запроса. Тип
+ * значения определяется типом поля: {@code String}, {@code Boolean},
+ * {@code Short}, {@code Integer}, {@code Long}, {@code Float} и
+ * соответствующие им примитивные типы, {@code java.util.Date} и
+ * {@code java.time.LocalDate}. Проверки выполняются так же, как
+ * соответствующие методы {@code assert...} валидатора запроса, и
+ * применяются только к непустым значениям; отсутствующий или пустой
+ * параметр является ошибкой, только если он обязательный.
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RstParam {
+
+    /**
+     * (Необязательно) Возвращает имя параметра запроса. По умолчанию
+     * используется имя поля.
+     *
+     * @return  Имя параметра или {@code ""}.
+     */
+    String value() default "";
+
+    /**
+     * (Необязательно) Возвращает признак обязательного параметра, который
+     * должен быть указан и заполнен.
+     *
+     * @return  {@code true}, если параметр обязательный.
+     */
+    boolean required() default false;
+
+    /**
+     * (Необязательно) Возвращает минимальный размер значения.
+     *
+     * @return  Минимальный размер.
+     */
+    int minSize() default 0;
+
+    /**
+     * (Необязательно) Возвращает максимальный размер значения.
+     *
+     * @return  Максимальный размер.
+     */
+    int maxSize() default Integer.MAX_VALUE;
+
+    /**
+     * (Необязательно) Возвращает описание ошибки. По умолчанию используется
+     * сообщение валидатора запроса.
+     *
+     * @return  Описание ошибки или {@code ""}.
+     */
+    String message() default "";
+
+}
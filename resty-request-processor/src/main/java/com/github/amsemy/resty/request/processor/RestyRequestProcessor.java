@@ -0,0 +1,476 @@
+package com.github.amsemy.resty.request.processor;
+
+import com.github.amsemy.resty.request.annotation.RstParam;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Процессор аннотаций, создающий связыватели параметров запроса для классов
+ * с полями, отмеченными аннотацией {@link RstParam}. Созданный связыватель
+ * наследует {@code RestyRequestBinder}, находится в пакете класса и
+ * называется по имени класса, в котором имена вложенных классов разделены
+ * символом {@code _}, с суффиксом {@value #SUFFIX}. Связыватель проверяет и
+ * получает параметры так же, как план {@code RestyRequestPlan}, но без
+ * отражения: поля записываются напрямую, а ошибки записываются методами
+ * {@code assert...} связывателя.
+ *
+ * <p>Неправильное использование аннотаций является ошибкой компиляции.
+ * Поля не могут быть {@code private}, {@code static} и {@code final}, а
+ * поля суперклассов из других пакетов должны быть {@code public}. Класс не
+ * может быть {@code private}, абстрактным, параметризованным или
+ * нестатическим вложенным классом и должен иметь доступный конструктор без
+ * параметров.
+ */
+@SupportedAnnotationTypes("com.github.amsemy.resty.request.annotation.RstParam")
+public class RestyRequestProcessor extends AbstractProcessor {
+
+    /**
+     * Параметр запроса, связанный с полем.
+     */
+    private static final class Member {
+
+        final VariableElement field;
+
+        /**
+         * Класс, к которому приводится объект для записи поля, или
+         * {@code null}.
+         */
+        final String owner;
+
+        final String paramName;
+
+        /**
+         * Имя типа значения в методах запроса или {@code null} для строк.
+         */
+        final String type;
+
+        final boolean required;
+        final int minSize;
+        final int maxSize;
+
+        /**
+         * Описание ошибки или {@code null} для сообщения по умолчанию.
+         */
+        final String message;
+
+        Member(VariableElement field, String owner, RstParam annotation,
+                String type) {
+            this.field = field;
+            this.owner = owner;
+            String name = annotation.value();
+            paramName = (name.isEmpty()
+                    ? field.getSimpleName().toString() : name);
+            this.type = type;
+            required = annotation.required();
+            minSize = annotation.minSize();
+            maxSize = annotation.maxSize();
+            message = (annotation.message().isEmpty()
+                    ? null : annotation.message());
+        }
+
+        boolean hasSize() {
+            return (minSize != 0 || maxSize != Integer.MAX_VALUE);
+        }
+
+    }
+
+    /**
+     * Суффикс имени созданного связывателя. Совпадает с
+     * {@code RestyRequestBinder.SUFFIX}.
+     */
+    public static final String SUFFIX = "_RestyBinder";
+
+    private static final String MSG_ANNOTATION_INVALID_USING =
+            "Invalid annotation '%1$s' using";
+    private static final String MSG_CLASS_INVALID =
+            "Cann't generate binder of private, abstract, generic or inner"
+            + " class";
+    private static final String MSG_CONSTRUCTOR_ABSENT =
+            "Cann't find accessible default constructor in '%1$s' class";
+    private static final String MSG_FIELD_INACCESSIBLE =
+            "Field '%1$s' isn't accessible from '%2$s' binder";
+    private static final String MSG_PARAM_DUPLICATION =
+            "Duplication of request param '%1$s' mapping in '%2$s' class";
+    private static final String MSG_UNSUPPORTED_TYPE =
+            "Unsupported type of field '%1$s'";
+    private static final String MSG_WRITE_FAIL =
+            "Cann't write binder '%1$s': %2$s";
+
+    private static final String LOCAL_DATE = "java.time.LocalDate";
+
+    private static final Map<String, String> TYPES = new HashMap<>();
+
+    static {
+        TYPES.put("boolean", "Boolean");
+        TYPES.put("java.lang.Boolean", "Boolean");
+        TYPES.put("java.util.Date", "Date");
+        TYPES.put("float", "Float");
+        TYPES.put("java.lang.Float", "Float");
+        TYPES.put("int", "Integer");
+        TYPES.put("java.lang.Integer", "Integer");
+        TYPES.put(LOCAL_DATE, "LocalDate");
+        TYPES.put("long", "Long");
+        TYPES.put("java.lang.Long", "Long");
+        TYPES.put("short", "Short");
+        TYPES.put("java.lang.Short", "Short");
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations,
+            RoundEnvironment roundEnv) {
+        Set<TypeElement> types = new LinkedHashSet<>();
+        for (Element element
+                : roundEnv.getElementsAnnotatedWith(RstParam.class)) {
+            Element enclosing = element.getEnclosingElement();
+            if (element.getKind() == ElementKind.FIELD
+                    && enclosing.getKind() == ElementKind.CLASS) {
+                types.add((TypeElement) enclosing);
+            } else {
+                error(element, MSG_ANNOTATION_INVALID_USING,
+                        RstParam.class.getSimpleName());
+            }
+        }
+        for (TypeElement type : types) {
+            List<Member> members = getMembers(type);
+            if (members != null) {
+                write(type, members);
+            }
+        }
+        return true;
+    }
+
+    private boolean addMembers(TypeElement type, TypeElement cls,
+            List<Member> list, Set<String> names) {
+        boolean valid = true;
+        TypeMirror superclass = cls.getSuperclass();
+        if (superclass.getKind() == TypeKind.DECLARED) {
+            valid = addMembers(type,
+                    (TypeElement) ((DeclaredType) superclass).asElement(),
+                    list, names);
+        }
+        boolean samePackage = getPackage(cls).equals(getPackage(type));
+        for (VariableElement field
+                : ElementFilter.fieldsIn(cls.getEnclosedElements())) {
+            RstParam annotation = field.getAnnotation(RstParam.class);
+            if (annotation == null) {
+                continue;
+            }
+            Set<Modifier> modifiers = field.getModifiers();
+            if (modifiers.contains(Modifier.STATIC)
+                    || modifiers.contains(Modifier.FINAL)
+                    || annotation.minSize() < 0
+                    || annotation.minSize() > annotation.maxSize()) {
+                error(field, MSG_ANNOTATION_INVALID_USING,
+                        RstParam.class.getSimpleName());
+                valid = false;
+                continue;
+            }
+            if (modifiers.contains(Modifier.PRIVATE) || !samePackage
+                    && !modifiers.contains(Modifier.PUBLIC)) {
+                error(field, MSG_FIELD_INACCESSIBLE, field.getSimpleName(),
+                        getBinderName(type));
+                valid = false;
+                continue;
+            }
+            String valueType = getValueType(field.asType());
+            if (valueType == null) {
+                error(field, MSG_UNSUPPORTED_TYPE, field.getSimpleName());
+                valid = false;
+                continue;
+            }
+            // Приведение к суперклассу нужно для скрытых полей
+            String owner = (cls == type || !samePackage
+                    && !cls.getModifiers().contains(Modifier.PUBLIC)
+                    ? null : cls.getQualifiedName().toString());
+            Member member = new Member(field, owner, annotation,
+                    valueType.equals("String") ? null : valueType);
+            if (!names.add(member.paramName)) {
+                error(field, MSG_PARAM_DUPLICATION, member.paramName,
+                        type.getQualifiedName());
+                valid = false;
+                continue;
+            }
+            list.add(member);
+        }
+        return valid;
+    }
+
+    private void error(Element element, String format, Object... args) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                String.format(format, args), element);
+    }
+
+    private static String getBinderName(TypeElement type) {
+        StringBuilder sb = new StringBuilder();
+        Element element = type;
+        while (element.getKind().isClass()) {
+            if (sb.length() > 0) {
+                sb.insert(0, '_');
+            }
+            sb.insert(0, element.getSimpleName());
+            element = element.getEnclosingElement();
+        }
+        return sb.append(SUFFIX).toString();
+    }
+
+    private List<Member> getMembers(TypeElement type) {
+        boolean valid = true;
+        Element element = type;
+        while (element.getKind().isClass()) {
+            TypeElement cls = (TypeElement) element;
+            Set<Modifier> modifiers = cls.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE)
+                    || cls.getNestingKind() == NestingKind.MEMBER
+                    && !modifiers.contains(Modifier.STATIC)
+                    || cls.getNestingKind() == NestingKind.LOCAL
+                    || cls.getNestingKind() == NestingKind.ANONYMOUS) {
+                valid = false;
+            }
+            element = element.getEnclosingElement();
+        }
+        if (!valid || type.getModifiers().contains(Modifier.ABSTRACT)
+                || !type.getTypeParameters().isEmpty()) {
+            error(type, MSG_CLASS_INVALID);
+            return null;
+        }
+        boolean hasConstructor = false;
+        for (ExecutableElement constructor
+                : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty()
+                    && !constructor.getModifiers().contains(
+                            Modifier.PRIVATE)) {
+                hasConstructor = true;
+            }
+        }
+        if (!hasConstructor) {
+            error(type, MSG_CONSTRUCTOR_ABSENT, type.getQualifiedName());
+            return null;
+        }
+        List<Member> list = new ArrayList<>();
+        if (!addMembers(type, type, list, new HashSet<String>())) {
+            return null;
+        }
+        return list;
+    }
+
+    private static String getPackage(Element element) {
+        while (element.getKind() != ElementKind.PACKAGE) {
+            element = element.getEnclosingElement();
+        }
+        return ((PackageElement) element).getQualifiedName().toString();
+    }
+
+    private static String getValueType(TypeMirror type) {
+        String name;
+        if (type.getKind().isPrimitive()) {
+            name = type.toString();
+        } else if (type.getKind() == TypeKind.DECLARED) {
+            name = ((TypeElement) ((DeclaredType) type).asElement())
+                    .getQualifiedName().toString();
+            if (name.equals("java.lang.String")) {
+                return "String";
+            }
+        } else {
+            return null;
+        }
+        return TYPES.get(name);
+    }
+
+    private static String literal(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(value.length() + 2);
+        sb.append('"');
+        for (int i = 0; i < value.length(); i ++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < ' ' || c > '~') {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private void write(TypeElement type, List<Member> members) {
+        String packageName = getPackage(type);
+        String binderName = getBinderName(type);
+        String fullName = (packageName.isEmpty()
+                ? binderName : packageName + "." + binderName);
+        String typeName = type.getQualifiedName().toString();
+        try {
+            JavaFileObject file = processingEnv.getFiler()
+                    .createSourceFile(fullName, type);
+            try (PrintWriter out = new PrintWriter(file.openWriter())) {
+                writeBinder(out, packageName, binderName, typeName, members);
+            }
+        } catch (IOException ex) {
+            error(type, MSG_WRITE_FAIL, fullName, ex.getMessage());
+        }
+    }
+
+    private static void writeBinder(PrintWriter out, String packageName,
+            String binderName, String typeName, List<Member> members) {
+        if (!packageName.isEmpty()) {
+            out.println("package " + packageName + ";");
+            out.println();
+        }
+        out.println("import com.github.amsemy.resty.request.RestyRequest;");
+        out.println("import com.github.amsemy.resty.request.RestyRequest"
+                + ".Param;");
+        out.println("import com.github.amsemy.resty.request.RestyRequest"
+                + ".RestyValidator;");
+        out.println("import com.github.amsemy.resty.request.RestyRequest"
+                + ".Size;");
+        out.println("import com.github.amsemy.resty.request"
+                + ".RestyRequestBinder;");
+        out.println("import java.util.Locale;");
+        out.println();
+        out.println("/**");
+        // Созданный код содержит только символы ASCII, чтобы не зависеть от
+        // кодировки компилятора
+        out.println(" * Request params binder of {@link " + typeName
+                + "} class.");
+        out.println(" * Generated by RestyRequestProcessor.");
+        out.println(" */");
+        out.println("public final class " + binderName
+                + " extends RestyRequestBinder<" + typeName + "> {");
+        out.println();
+        for (int i = 0; i < members.size(); i ++) {
+            Member member = members.get(i);
+            out.println("    private static final Param P" + i
+                    + " = RestyRequest.param(" + literal(member.paramName)
+                    + ");");
+            if (member.hasSize()) {
+                out.println("    private static final Size S" + i
+                        + " = RestyRequest.size(" + member.minSize + ", "
+                        + member.maxSize + ");");
+            }
+        }
+        out.println();
+        out.println("    @Override");
+        out.println("    public " + typeName
+                + " bind(RestyRequest request, Locale locale) {");
+        out.println("        " + typeName + " target = new " + typeName
+                + "();");
+        out.println("        run(request, locale, target);");
+        out.println("        return target;");
+        out.println("    }");
+        out.println();
+        out.println("    @Override");
+        out.println("    public Class<" + typeName + "> getType() {");
+        out.println("        return " + typeName + ".class;");
+        out.println("    }");
+        out.println();
+        out.println("    @Override");
+        out.println("    public boolean validate(RestyRequest request,"
+                + " Locale locale) {");
+        out.println("        return run(request, locale, null);");
+        out.println("    }");
+        out.println();
+        out.println("    private static boolean run(RestyRequest request,"
+                + " Locale locale, " + typeName + " target) {");
+        out.println("        RestyValidator validator = null;");
+        out.println("        String value;");
+        for (int i = 0; i < members.size(); i ++) {
+            writeMember(out, i, members.get(i));
+        }
+        out.println("        return (validator == null);");
+        out.println("    }");
+        out.println();
+        out.println("}");
+    }
+
+    private static void writeMember(PrintWriter out, int i, Member member) {
+        String param = "P" + i;
+        String message = literal(member.message);
+        out.println();
+        out.println("        value = request.getString(" + param + ");");
+        out.println("        if (value == null || value.isEmpty()) {");
+        if (member.required) {
+            out.println("            validator = assertNotEmpty(validator,"
+                    + " request, locale, " + param + ", " + message + ");");
+        } else {
+            out.println("            // Optional param");
+        }
+        if (member.hasSize()) {
+            String size = "S" + i;
+            out.println("        } else if (value.length() < " + size
+                    + ".min || value.length() > " + size + ".max) {");
+            out.println("            validator = assertSize(validator,"
+                    + " request, locale, " + param + ", " + size + ", "
+                    + message + ");");
+        }
+        String value = "value";
+        if (member.type != null) {
+            String check = (member.type.equals("LocalDate")
+                    ? "Date" : member.type);
+            out.println("        } else if (!request.check" + check + "("
+                    + param + ")) {");
+            out.println("            validator = assert" + check
+                    + "(validator, request, locale, " + param + ", "
+                    + message + ");");
+            value = (member.type.equals("LocalDate")
+                    ? "com.github.amsemy.resty.request.RestyLocalDates.get("
+                            + "request, " + param + ")"
+                    : "request.get" + member.type + "(" + param + ")");
+        }
+        out.println("        } else if (target != null) {");
+        String target = (member.owner == null
+                ? "target" : "((" + member.owner + ") target)");
+        out.println("            " + target + "."
+                + member.field.getSimpleName() + " = " + value + ";");
+        out.println("        }");
+    }
+
+}
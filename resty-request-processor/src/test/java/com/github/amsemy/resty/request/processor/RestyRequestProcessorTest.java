@@ -0,0 +1,212 @@
+package com.github.amsemy.resty.request.processor;
+
+import com.github.amsemy.resty.request.RestyParams;
+import com.github.amsemy.resty.request.RestyRequest;
+import com.github.amsemy.resty.request.RestyRequestBinder;
+import com.github.amsemy.resty.request.RestyRequestPlan;
+import com.github.amsemy.resty.request.annotation.RstParam;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import javax.json.JsonValue;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+public class RestyRequestProcessorTest {
+
+    private static final String PERSON = ""
+            + "package sample;\n"
+            + "import com.github.amsemy.resty.request.annotation.RstParam;\n"
+            + "public class Person {\n"
+            + "    @RstParam(required = true, maxSize = 5) String name;\n"
+            + "    @RstParam(\"years\") int age = -1;\n"
+            + "    @RstParam Integer height;\n"
+            + "    @RstParam java.util.Date birthday;\n"
+            + "    @RstParam java.time.LocalDate since;\n"
+            + "    @RstParam boolean active;\n"
+            + "    @RstParam(message = \"err\\\"Code\") Short code;\n"
+            + "    @RstParam Float ratio;\n"
+            + "    @RstParam Long id;\n"
+            + "    String ignored;\n"
+            + "    public static class Employee extends Person {\n"
+            + "        @RstParam(minSize = 2, maxSize = 3) String dept;\n"
+            + "        @RstParam(\"id2\") Long id;\n"
+            + "    }\n"
+            + "}\n";
+
+    private static final String INVALID = ""
+            + "package sample;\n"
+            + "import com.github.amsemy.resty.request.annotation.RstParam;\n"
+            + "public class Invalid {\n"
+            + "    @RstParam private String first;\n"
+            + "    @RstParam static String second;\n"
+            + "    @RstParam Object third;\n"
+            + "    @RstParam(\"a\") String fourth;\n"
+            + "    @RstParam(\"a\") String fifth;\n"
+            + "    @RstParam(minSize = 3, maxSize = 2) String sixth;\n"
+            + "    public class Inner {\n"
+            + "        @RstParam String value;\n"
+            + "    }\n"
+            + "}\n";
+
+    private static class Source extends SimpleJavaFileObject {
+
+        private final String code;
+
+        Source(String className, String code) {
+            super(URI.create("string:///" + className.replace('.', '/')
+                    + Kind.SOURCE.extension), Kind.SOURCE);
+            this.code = code;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return code;
+        }
+
+    }
+
+    private static String classPath(Class<?>... classes) throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (Class<?> cls : classes) {
+            if (sb.length() > 0) {
+                sb.append(File.pathSeparatorChar);
+            }
+            sb.append(new File(cls.getProtectionDomain().getCodeSource()
+                    .getLocation().toURI()).getPath());
+        }
+        return sb.toString();
+    }
+
+    private static List<Diagnostic<? extends JavaFileObject>> compile(
+            File dir, String className, String code) throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics =
+                new DiagnosticCollector<>();
+        List<String> options = Arrays.asList("-d", dir.getPath(),
+                "-classpath", classPath(RstParam.class, RestyRequest.class,
+                        JsonValue.class));
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null,
+                diagnostics, options, null,
+                Arrays.asList(new Source(className, code)));
+        task.setProcessors(Arrays.asList(new RestyRequestProcessor()));
+        task.call();
+        List<Diagnostic<? extends JavaFileObject>> errors = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic
+                : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                errors.add(diagnostic);
+            }
+        }
+        return errors;
+    }
+
+    private static void assertSameFields(Class<?> cls, Object expected,
+            Object actual) throws Exception {
+        for (Class<?> c = cls; c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                field.setAccessible(true);
+                assertEquals(field.getName(), field.get(expected),
+                        field.get(actual));
+            }
+        }
+    }
+
+    private static void assertSameResult(Class<?> cls, RestyParams params)
+            throws Exception {
+        RestyRequestBinder<?> binder = RestyRequestBinder.get(cls);
+        RestyRequestPlan<?> plan = RestyRequestPlan.get(cls);
+        RestyRequest expectedReq = new RestyRequest(params);
+        RestyRequest actualReq = new RestyRequest(params);
+
+        Object expected = plan.bind(expectedReq, Locale.ENGLISH);
+        Object actual = binder.bind(actualReq, Locale.ENGLISH);
+        assertSameFields(cls, expected, actual);
+        assertEquals(expectedReq.getErrors(), actualReq.getErrors());
+
+        RestyRequest validatedReq = new RestyRequest(params);
+        assertEquals(expectedReq.isValid(),
+                binder.validate(validatedReq, Locale.ENGLISH));
+        assertEquals(expectedReq.getErrors(), validatedReq.getErrors());
+    }
+
+    @Test
+    public void testGenerate() throws Exception {
+        File dir = Files.createTempDirectory("resty").toFile();
+        List<Diagnostic<? extends JavaFileObject>> errors =
+                compile(dir, "sample.Person", PERSON);
+        assertTrue(errors.toString(), errors.isEmpty());
+
+        ClassLoader loader = new URLClassLoader(new URL[] {
+                dir.toURI().toURL()}, getClass().getClassLoader());
+        Class<?> person = loader.loadClass("sample.Person");
+        Class<?> employee = loader.loadClass("sample.Person$Employee");
+        assertEquals("sample.Person_RestyBinder",
+                RestyRequestBinder.get(person).getClass().getName());
+        assertEquals("sample.Person_Employee_RestyBinder",
+                RestyRequestBinder.get(employee).getClass().getName());
+        assertSame(employee, RestyRequestBinder.get(employee).getType());
+
+        RestyParams valid = RestyParams.buildEmptyParams();
+        valid.add("name", "Ann");
+        valid.add("years", "42");
+        valid.add("height", "");
+        valid.add("birthday", "1980-02-29");
+        valid.add("since", "2010-09-07");
+        valid.add("active", "TRUE");
+        valid.add("code", "7");
+        valid.add("ratio", "1.5");
+        valid.add("id", "9000000000");
+        valid.add("id2", "1");
+        valid.add("ignored", "x");
+        valid.add("dept", "IT");
+        assertSameResult(person, valid);
+        assertSameResult(employee, valid);
+
+        RestyParams invalid = RestyParams.buildEmptyParams();
+        invalid.add("name", "");
+        invalid.add("years", "x");
+        invalid.add("birthday", "1980/02/29");
+        invalid.add("since", "2010-02-30");
+        invalid.add("active", "yes");
+        invalid.add("code", "99999");
+        invalid.add("ratio", "1,5");
+        invalid.add("id", "1.0");
+        invalid.add("dept", "IT-dept");
+        assertSameResult(person, invalid);
+        assertSameResult(employee, invalid);
+
+        RestyParams tooLong = RestyParams.buildEmptyParams();
+        tooLong.add("name", "Annabel");
+        tooLong.add("dept", "I");
+        assertSameResult(employee, tooLong);
+    }
+
+    @Test
+    public void testErrors() throws Exception {
+        File dir = Files.createTempDirectory("resty").toFile();
+        List<Diagnostic<? extends JavaFileObject>> errors =
+                compile(dir, "sample.Invalid", INVALID);
+
+        assertEquals(errors.toString(), 6, errors.size());
+        assertFalse(new File(dir, "sample/Invalid_RestyBinder.class")
+                .exists());
+        assertFalse(new File(dir, "sample/Invalid_Inner_RestyBinder.class")
+                .exists());
+    }
+
+}
@@ -0,0 +1,186 @@
+package com.github.amsemy.resty.request;
+
+import java.text.ParseException;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * Формат дат в параметрах запроса. Строки разбираются так же, как
+ * {@link SimpleDateFormat} с заданным шаблоном в часовом поясе по умолчанию,
+ * но экземпляр {@link SimpleDateFormat} создаётся один раз для каждого
+ * потока. Даты вида {@code yyyy-MM-dd} в формате по умолчанию разбираются
+ * без него.
+ *
+ * <p>Форматы потокобезопасны. Их следует создавать один раз и использовать
+ * повторно. Даты без времени разбираются методом
+ * {@code RestyLocalDates.parse}, который требует Java 8 и выше.
+ */
+public final class RestyDateFormat {
+
+    /**
+     * Шаблон формата по умолчанию.
+     */
+    public static final String DEFAULT_PATTERN = "yyyy-MM-dd";
+
+    private static final RestyDateFormat DEFAULT =
+            new RestyDateFormat(DEFAULT_PATTERN);
+
+    private final String pattern;
+    private final boolean defaultPattern;
+    private final ThreadLocal<SimpleDateFormat> formats;
+
+    /**
+     * Создаёт формат.
+     *
+     * @param  pattern
+     *         Шаблон {@link SimpleDateFormat}.
+     * @throws  IllegalArgumentException
+     *          Если шаблон неправильный.
+     */
+    public RestyDateFormat(String pattern) {
+        final SimpleDateFormat prototype = new SimpleDateFormat(pattern);
+        this.pattern = pattern;
+        defaultPattern = pattern.equals(DEFAULT_PATTERN);
+        formats = new ThreadLocal<SimpleDateFormat>() {
+
+            @Override
+            protected SimpleDateFormat initialValue() {
+                return (SimpleDateFormat) prototype.clone();
+            }
+
+        };
+    }
+
+    /**
+     * Возвращает формат с шаблоном по умолчанию.
+     *
+     * @return  Формат.
+     */
+    public static RestyDateFormat getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Возвращает шаблон формата.
+     *
+     * @return  Шаблон.
+     */
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Проверяет, что строка является датой. Как и
+     * {@link SimpleDateFormat#parse(String)}, допускает значения вне пределов
+     * полей и текст после даты.
+     *
+     * @param  value
+     *         Строка.
+     * @return  {@code true}, если проверка успешна.
+     */
+    public boolean isDate(String value) {
+        if (defaultPattern && RestyParsers.isDateForm(value)) {
+            return true;
+        }
+        return (format().parse(value, new ParsePosition(0)) != null);
+    }
+
+    /**
+     * Разбирает дату в часовом поясе по умолчанию.
+     *
+     * @param  value
+     *         Строка с датой.
+     * @return  Дата.
+     * @throws  IllegalArgumentException
+     *          Если строка не является датой.
+     */
+    public Date parse(String value) {
+        if (defaultPattern) {
+            Date result = RestyDateParser.parse(value);
+            if (result != null) {
+                return result;
+            }
+        }
+        return parseFormat(value);
+    }
+
+    /**
+     * Разбирает дату без времени. Строки, которые не являются датой вида
+     * {@code yyyy-MM-dd} с полями в допустимых пределах, разбираются как
+     * {@link Date} в часовом поясе по умолчанию.
+     *
+     * @param  value
+     *         Строка с датой.
+     * @return  Дата ({@code java.time.LocalDate}).
+     * @throws  IllegalArgumentException
+     *          Если строка не является датой.
+     */
+    Object parseLocalDate(String value) {
+        if (defaultPattern) {
+            int date = RestyParsers.parseDate(value);
+            if (date >= 0) {
+                return RestyLocalDateFactory.get().of(date);
+            }
+        }
+        return RestyLocalDateFactory.get().of(parseFormat(value));
+    }
+
+    /**
+     * Разбирает дату так же, как {@link #parse}, но без исключений.
+     *
+     * @param  value
+     *         Строка с датой.
+     * @return  Дата или {@code null}, если строка не является датой.
+     */
+    Date tryParse(String value) {
+        if (defaultPattern) {
+            Date result = RestyDateParser.parse(value);
+            if (result != null) {
+                return result;
+            }
+        }
+        return format().parse(value, new ParsePosition(0));
+    }
+
+    /**
+     * Разбирает дату без времени так же, как {@link #parseLocalDate}, но
+     * без исключений.
+     *
+     * @param  value
+     *         Строка с датой.
+     * @return  Дата ({@code java.time.LocalDate}) или {@code null}, если
+     *          строка не является датой.
+     */
+    Object tryParseLocalDate(String value) {
+        if (defaultPattern) {
+            int date = RestyParsers.parseDate(value);
+            if (date >= 0) {
+                return RestyLocalDateFactory.get().of(date);
+            }
+        }
+        Date result = format().parse(value, new ParsePosition(0));
+        return (result == null ? null : RestyLocalDateFactory.get().of(result));
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+
+    private SimpleDateFormat format() {
+        SimpleDateFormat result = formats.get();
+        result.setTimeZone(TimeZone.getDefault());
+        return result;
+    }
+
+    private Date parseFormat(String value) {
+        try {
+            return format().parse(value);
+        } catch (ParseException ex) {
+            throw new IllegalArgumentException(ex);
+        }
+    }
+
+}
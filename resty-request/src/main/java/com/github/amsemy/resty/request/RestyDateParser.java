@@ -0,0 +1,52 @@
+package com.github.amsemy.resty.request;
+
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Разбор дат вида {@code yyyy-MM-dd} без создания {@link SimpleDateFormat}.
+ * Используется календарь того же вида, что и в {@link SimpleDateFormat}, по
+ * одному на поток. Многоверсионный JAR содержит реализацию для Java 17 и
+ * выше.
+ */
+final class RestyDateParser {
+
+    private static final ThreadLocal<Calendar> CALENDARS =
+            new ThreadLocal<Calendar>() {
+
+        @Override
+        protected Calendar initialValue() {
+            return Calendar.getInstance(
+                    Locale.getDefault(Locale.Category.FORMAT));
+        }
+
+    };
+
+    private RestyDateParser() {
+    }
+
+    /**
+     * Разбирает дату в часовом поясе по умолчанию.
+     *
+     * @param  value
+     *         Строка с датой.
+     * @return  Дата или {@code null}, если строка имеет другой вид или поля
+     *          вне пределов; такие строки разбираются
+     *          {@link SimpleDateFormat}.
+     */
+    static Date parse(String value) {
+        int date = RestyParsers.parseDate(value);
+        if (date < 0) {
+            return null;
+        }
+        Calendar calendar = CALENDARS.get();
+        calendar.setTimeZone(TimeZone.getDefault());
+        calendar.clear();
+        calendar.set(date / 10000, date / 100 % 100 - 1, date % 100);
+        return calendar.getTime();
+    }
+
+}
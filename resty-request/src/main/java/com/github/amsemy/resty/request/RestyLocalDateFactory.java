@@ -0,0 +1,67 @@
+package com.github.amsemy.resty.request;
+
+import java.util.Date;
+
+/**
+ * Создание дат без времени ({@code java.time.LocalDate}). Классы пакета
+ * собираются для Java 7 и не могут ссылаться на {@code java.time}, поэтому
+ * реализация находится в классе {@code RestyLocalDates}, собираемом для
+ * Java 8, и загружается по имени при первом обращении.
+ */
+abstract class RestyLocalDateFactory {
+
+    private static final String IMPL_NAME =
+            "com.github.amsemy.resty.request.RestyLocalDates$Factory";
+
+    private static final String MSG_CREATE_FAIL =
+            "Cann't create factory '%1$s' of local dates";
+
+    private static final class Holder {
+
+        static final RestyLocalDateFactory INSTANCE = load();
+
+    }
+
+    /**
+     * Возвращает фабрику дат.
+     *
+     * @return  Фабрика.
+     * @throws  IllegalStateException
+     *          Если фабрику не удалось создать, например, на Java 7.
+     */
+    static RestyLocalDateFactory get() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Создаёт дату по её полям.
+     *
+     * @param  date
+     *         Дата в виде числа {@code yyyyMMdd} с полями в допустимых
+     *         пределах.
+     * @return  Дата.
+     */
+    abstract Object of(int date);
+
+    /**
+     * Создаёт дату, соответствующую моменту времени в часовом поясе по
+     * умолчанию.
+     *
+     * @param  date
+     *         Момент времени.
+     * @return  Дата.
+     */
+    abstract Object of(Date date);
+
+    private static RestyLocalDateFactory load() {
+        try {
+            return (RestyLocalDateFactory) Class.forName(IMPL_NAME)
+                    .getConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException
+                | LinkageError ex) {
+            throw new IllegalStateException(String.format(MSG_CREATE_FAIL,
+                    IMPL_NAME), ex);
+        }
+    }
+
+}
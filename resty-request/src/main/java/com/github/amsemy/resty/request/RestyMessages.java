@@ -0,0 +1,211 @@
+package com.github.amsemy.resty.request;
+
+import java.util.ArrayList;
+import java.util.Formattable;
+import java.util.List;
+import java.util.Locale;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Кэш сообщений ресурсных комплектов. Для каждого комплекта, ключа и локали
+ * найденного комплекта строка сообщения получается из комплекта один раз и
+ * разбирается в шаблон. Запрошенная локаль в ключ кэша не входит: она
+ * обычно приходит от клиента, а поиск комплекта по ней кэширует сам
+ * {@link ResourceBundle}. Поэтому размер кэша ограничен числом комплектов и
+ * ключей в них. Кэш общий для всех валидаторов, так как валидаторы обычно
+ * создаются для каждого запроса. Предполагается, что комплекты не меняются
+ * во время работы.
+ */
+final class RestyMessages {
+
+    private static final class Key {
+
+        private final Locale locale;
+        private final String basename;
+        private final String key;
+        private final int hash;
+
+        Key(Locale locale, String basename, String key) {
+            this.locale = locale;
+            this.basename = basename;
+            this.key = key;
+            hash = (locale.hashCode() * 31 + basename.hashCode()) * 31
+                    + key.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return (hash == other.hash && key.equals(other.key)
+                    && basename.equals(other.basename)
+                    && locale.equals(other.locale));
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+    }
+
+    /**
+     * Строка сообщения, разобранная для форматирования. Строки, в которых
+     * есть только спецификаторы {@code %s}, {@code %n$s}, {@code %%} и
+     * {@code %n}, форматируются без {@link String#format}; остальные строки
+     * и параметры, реализующие {@link Formattable}, передаются ему.
+     */
+    static final class Template {
+
+        private final String pattern;
+        private final String[] literals;
+        private final int[] indices;
+
+        Template(String pattern) {
+            this.pattern = pattern;
+            List<String> literalList = new ArrayList<>();
+            List<Integer> indexList = new ArrayList<>();
+            if (parse(pattern, literalList, indexList)) {
+                literals = literalList.toArray(new String[0]);
+                indices = new int[indexList.size()];
+                for (int i = 0; i < indices.length; i ++) {
+                    indices[i] = indexList.get(i);
+                }
+            } else {
+                literals = null;
+                indices = null;
+            }
+        }
+
+        /**
+         * Форматирует сообщение так же, как {@link String#format}.
+         *
+         * @param  args
+         *         Параметры для форматирования сообщения.
+         * @return  Сообщение.
+         */
+        String format(Object... args) {
+            if (literals == null) {
+                return String.format(pattern, args);
+            }
+            int length = pattern.length();
+            for (int index : indices) {
+                if (index >= args.length
+                        || args[index] instanceof Formattable) {
+                    return String.format(pattern, args);
+                }
+                length += 16;
+            }
+            StringBuilder sb = new StringBuilder(length);
+            sb.append(literals[0]);
+            for (int i = 0; i < indices.length; i ++) {
+                sb.append(String.valueOf(args[indices[i]]));
+                sb.append(literals[i + 1]);
+            }
+            return sb.toString();
+        }
+
+        /**
+         * Возвращает строку сообщения без форматирования.
+         *
+         * @return  Строка сообщения.
+         */
+        String getPattern() {
+            return pattern;
+        }
+
+        private static boolean parse(String pattern, List<String> literals,
+                List<Integer> indices) {
+            StringBuilder sb = new StringBuilder();
+            int ordinary = 0;
+            int length = pattern.length();
+            int i = 0;
+            while (i < length) {
+                char c = pattern.charAt(i ++);
+                if (c != '%') {
+                    sb.append(c);
+                    continue;
+                }
+                if (i == length) {
+                    return false;
+                }
+                c = pattern.charAt(i);
+                if (c == '%') {
+                    sb.append('%');
+                    i ++;
+                } else if (c == 'n') {
+                    sb.append(System.lineSeparator());
+                    i ++;
+                } else {
+                    int index;
+                    if (c == 's') {
+                        index = ordinary ++;
+                        i ++;
+                    } else {
+                        int end = i;
+                        while (end < length && end - i < 4
+                                && pattern.charAt(end) >= '0'
+                                && pattern.charAt(end) <= '9') {
+                            end ++;
+                        }
+                        if (end == i || end + 1 >= length
+                                || pattern.charAt(end) != '$'
+                                || pattern.charAt(end + 1) != 's') {
+                            return false;
+                        }
+                        index = Integer.parseInt(pattern.substring(i, end))
+                                - 1;
+                        if (index < 0) {
+                            return false;
+                        }
+                        i = end + 2;
+                    }
+                    literals.add(sb.toString());
+                    sb.setLength(0);
+                    indices.add(index);
+                }
+            }
+            literals.add(sb.toString());
+            return true;
+        }
+
+    }
+
+    private static final ConcurrentMap<Key, Template> TEMPLATES =
+            new ConcurrentHashMap<>();
+
+    private RestyMessages() {
+    }
+
+    /**
+     * Возвращает разобранную строку сообщения.
+     *
+     * @param  key
+     *         Ключ сообщения.
+     * @param  basename
+     *         Имя ресурсного комплекта.
+     * @param  locale
+     *         Локаль.
+     * @return  Строка сообщения.
+     * @throws  java.util.MissingResourceException
+     *          Если комплект или сообщение не найдены.
+     */
+    static Template get(String key, String basename, Locale locale) {
+        ResourceBundle rb = ResourceBundle.getBundle(basename, locale);
+        Key cacheKey = new Key(rb.getLocale(), basename, key);
+        Template result = TEMPLATES.get(cacheKey);
+        if (result == null) {
+            result = new Template(rb.getString(key));
+            TEMPLATES.putIfAbsent(cacheKey, result);
+        }
+        return result;
+    }
+
+}
@@ -5,6 +5,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import javax.json.JsonArray;
 import javax.json.JsonNumber;
 import javax.json.JsonObject;
@@ -15,8 +16,94 @@ import javax.json.JsonValue;
  * Параметры запроса к ресурсу. Поддерживает вложенные друг в друга структуры,
  * значения полей которых будут хранится с именами параметров, соответствующими
  * полному пути до поля вида {@code foo[bar][baz]}.
+ *
+ * <p>Вместе с параметрами хранится индекс: дерево сегментов путей, по которому
+ * подзапросы находят вложенные параметры, не перебирая все параметры. Индекс
+ * строится при первом обращении, дополняется методами {@link #put},
+ * {@link #putAll} и {@link #add} и перестраивается после удаления параметров
+ * методами {@link #remove} и {@link #clear}. Изменения через представления
+ * {@link #keySet}, {@link #entrySet} и {@link #values} учитываются, если они
+ * сделаны до следующего обращения к индексу. На Java 17 и выше также
+ * учитываются методы {@code compute}, {@code computeIfAbsent},
+ * {@code computeIfPresent}, {@code merge}, {@code putIfAbsent} и
+ * {@code remove(key, value)}; на Java 8–16 после изменения параметров этими
+ * методами индекс нужно сбросить вызовом {@link #keySet}.
+ *
+ * <p>Чтение параметров, в том числе построение индекса, можно выполнять из
+ * нескольких потоков, если параметры при этом не изменяются.
  */
-public class RestyParams extends HashMap<String, List<String>> {
+public class RestyParams extends RestyParamsMap {
+
+    /**
+     * Узел индекса параметров, соответствующий пути вида {@code foo[bar]}.
+     */
+    static final class Node {
+
+        /**
+         * Полный путь до узла.
+         */
+        final String key;
+
+        private boolean present;
+        private Map<String, Node> children;
+
+        private Node(String key) {
+            this.key = key;
+        }
+
+        /**
+         * Возвращает дочерний узел.
+         *
+         * @param  name
+         *         Сегмент пути.
+         * @return  Узел или {@code null}, если параметров с таким путём нет.
+         */
+        Node getChild(String name) {
+            return (children == null ? null : children.get(name));
+        }
+
+        /**
+         * Добавляет имена вложенных параметров относительно пути узла в виде
+         * {@code bar[baz]}.
+         *
+         * @param  names
+         *         Множество имён.
+         */
+        void addNames(Set<String> names) {
+            addNames(names, key.length() + 1);
+        }
+
+        private void addNames(Set<String> names, int start) {
+            if (children != null) {
+                for (Node child : children.values()) {
+                    if (child.present) {
+                        String k = child.key;
+                        int i = k.indexOf(']', start);
+                        names.add(i == k.length() - 1
+                                ? k.substring(start, i)
+                                : k.substring(start, i) + k.substring(i + 1));
+                    }
+                    child.addNames(names, start);
+                }
+            }
+        }
+
+        private Node child(String name, String childKey) {
+            if (children == null) {
+                children = new HashMap<>();
+            }
+            Node result = children.get(name);
+            if (result == null) {
+                result = new Node(childKey);
+                children.put(name, result);
+            }
+            return result;
+        }
+
+    }
+
+    private transient volatile Node index;
+    private transient int indexVersion;
 
     private RestyParams(int initialCapacity) {
         super(initialCapacity);
@@ -60,6 +147,22 @@ public class RestyParams extends HashMap<String, List<String>> {
         return true;
     }
 
+    @Override
+    void keyAdded(String key) {
+        Node root = index;
+        if (root != null && addToIndex(root, key)) {
+            indexVersion ++;
+        }
+    }
+
+    @Override
+    void keysChanged() {
+        if (index != null) {
+            index = null;
+            indexVersion ++;
+        }
+    }
+
     /**
      * Создаёт пустые параметры запроса.
      *
@@ -117,6 +220,111 @@ public class RestyParams extends HashMap<String, List<String>> {
         return result;
     }
 
+    /**
+     * Находит узел индекса по сегментам пути.
+     *
+     * @param  path
+     *         Сегменты пути или {@code null} для корня.
+     * @return  Узел или {@code null}, если параметров с таким путём нет.
+     */
+    Node findNode(String[] path) {
+        Node node = getIndex();
+        if (path != null) {
+            for (int i = 0; i < path.length && node != null; i ++) {
+                node = node.getChild(path[i]);
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Возвращает номер версии индекса. Номер меняется, когда в индексе
+     * появляются новые узлы или индекс перестраивается, так что найденные
+     * ранее узлы нужно искать заново.
+     *
+     * @return  Номер версии.
+     */
+    int getIndexVersion() {
+        return indexVersion;
+    }
+
+    /**
+     * Проверяет, что имя является одним сегментом пути, то есть не содержит
+     * квадратных скобок.
+     *
+     * @param  name
+     *         Имя параметра.
+     * @return  {@code true}, если имя является сегментом пути.
+     */
+    static boolean isSegment(String name) {
+        return (name.indexOf('[') < 0 && name.indexOf(']') < 0);
+    }
+
+    // Возвращает true, если в индексе появились новые узлы.
+    private static boolean addToIndex(Node root, String key) {
+        if (key == null) {
+            return false;
+        }
+        int open = key.indexOf('[');
+        if (open < 0) {
+            Node node = root.getChild(key);
+            boolean added = (node == null);
+            if (added) {
+                node = root.child(key, key);
+            }
+            node.present = true;
+            return added;
+        }
+        // Пути другого вида в индекс не попадают.
+        if (key.lastIndexOf(']', open) >= 0) {
+            return false;
+        }
+        int pos = open;
+        while (pos < key.length()) {
+            int close = key.indexOf(']', pos);
+            if (key.charAt(pos) != '[' || close < 0
+                    || key.lastIndexOf('[', close) != pos) {
+                return false;
+            }
+            pos = close + 1;
+        }
+        String name = key.substring(0, open);
+        Node node = root.getChild(name);
+        boolean added = (node == null);
+        if (added) {
+            node = root.child(name, name);
+        }
+        pos = open;
+        while (pos < key.length()) {
+            int close = key.indexOf(']', pos);
+            name = key.substring(pos + 1, close);
+            Node child = node.getChild(name);
+            if (child == null) {
+                child = node.child(name, (close == key.length() - 1
+                        ? key : key.substring(0, close + 1)));
+                added = true;
+            }
+            node = child;
+            pos = close + 1;
+        }
+        node.present = true;
+        return added;
+    }
+
+    // Индекс строится целиком и только затем публикуется, чтобы другие
+    // потоки не увидели его недостроенным.
+    private Node getIndex() {
+        Node result = index;
+        if (result == null) {
+            result = new Node("");
+            for (String key : keys()) {
+                addToIndex(result, key);
+            }
+            index = result;
+        }
+        return result;
+    }
+
     private void setJsonValue(JsonValue json, String paramPath) {
         switch (json.getValueType()) {
             case ARRAY:
@@ -0,0 +1,94 @@
+package com.github.amsemy.resty.request;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Отображение параметров запроса, сообщающее об изменении набора имён
+ * параметров. Реализация для Java 7: отслеживаются методы {@link #put},
+ * {@link #putAll}, {@link #remove}, {@link #clear} и представления
+ * {@link #keySet}, {@link #entrySet} и {@link #values}. Реализация для Java 17
+ * и выше отслеживает также методы, появившиеся в Java 8.
+ */
+abstract class RestyParamsMap extends HashMap<String, List<String>> {
+
+    RestyParamsMap(int initialCapacity) {
+        super(initialCapacity);
+    }
+
+    RestyParamsMap(Map<String, List<String>> map) {
+        super(map);
+    }
+
+    /**
+     * Вызывается после того, как параметр мог появиться.
+     *
+     * @param  key
+     *         Имя параметра.
+     */
+    abstract void keyAdded(String key);
+
+    /**
+     * Вызывается, когда параметры удалены или могут быть изменены через
+     * представления.
+     */
+    abstract void keysChanged();
+
+    /**
+     * Возвращает множество имён параметров, не сообщая об изменениях.
+     *
+     * @return  Множество имён параметров.
+     */
+    final Set<String> keys() {
+        return super.keySet();
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        keysChanged();
+    }
+
+    @Override
+    public Set<Map.Entry<String, List<String>>> entrySet() {
+        keysChanged();
+        return super.entrySet();
+    }
+
+    @Override
+    public Set<String> keySet() {
+        keysChanged();
+        return super.keySet();
+    }
+
+    @Override
+    public List<String> put(String key, List<String> value) {
+        List<String> result = super.put(key, value);
+        keyAdded(key);
+        return result;
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ? extends List<String>> m) {
+        super.putAll(m);
+        for (String key : m.keySet()) {
+            keyAdded(key);
+        }
+    }
+
+    @Override
+    public List<String> remove(Object key) {
+        keysChanged();
+        return super.remove(key);
+    }
+
+    @Override
+    public Collection<List<String>> values() {
+        keysChanged();
+        return super.values();
+    }
+
+}
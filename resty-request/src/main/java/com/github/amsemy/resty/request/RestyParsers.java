@@ -0,0 +1,351 @@
+package com.github.amsemy.resty.request;
+
+import java.text.SimpleDateFormat;
+
+/**
+ * Разбор и проверка значений параметров без исключений. Методы принимают те
+ * же строки, что и {@link Long#parseLong} и {@link Float#parseFloat}, но
+ * вместо исключения возвращают значение по умолчанию или признак ошибки.
+ * Даты вида {@code yyyy-MM-dd} разбираются без создания
+ * {@link SimpleDateFormat}.
+ */
+final class RestyParsers {
+
+    private static final int MAX_EXACT_FLOAT_MANTISSA = 1 << 24;
+
+    // Степени десяти, точно представимые в float.
+    private static final float[] FLOAT_POWERS_OF_TEN = {
+            1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f,
+            1e10f};
+
+    private RestyParsers() {
+    }
+
+    /**
+     * Проверяет, что строка является логическим значением {@code true} или
+     * {@code false} без учёта регистра.
+     *
+     * @param  value
+     *         Строка.
+     * @return  {@code true}, если проверка успешна.
+     */
+    static boolean isBoolean(String value) {
+        return (value.equalsIgnoreCase("true")
+                || value.equalsIgnoreCase("false"));
+    }
+
+    /**
+     * Проверяет, что строка имеет вид {@code dddd-dd-dd}. Как и
+     * {@link SimpleDateFormat}, допускает значения вне пределов полей.
+     *
+     * @param  value
+     *         Строка.
+     * @return  {@code true}, если проверка успешна.
+     */
+    static boolean isDateForm(String value) {
+        if (value.length() != 10 || value.charAt(4) != '-'
+                || value.charAt(7) != '-') {
+            return false;
+        }
+        for (int i = 0; i < 10; i ++) {
+            if (i != 4 && i != 7 && !isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Проверяет, что строка является числом с плавающей точкой в формате
+     * {@link Double#valueOf(String)}.
+     *
+     * @param  value
+     *         Строка.
+     * @return  {@code true}, если проверка успешна.
+     */
+    static boolean isFloat(String value) {
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) <= ' ') {
+            start ++;
+        }
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end --;
+        }
+        int i = start;
+        if (i < end && (value.charAt(i) == '+' || value.charAt(i) == '-')) {
+            i ++;
+        }
+        if (value.startsWith("NaN", i)) {
+            return (i + 3 == end);
+        } else if (value.startsWith("Infinity", i)) {
+            return (i + 8 == end);
+        }
+        int digits = 0;
+        char exponent;
+        if (i + 1 < end && value.charAt(i) == '0'
+                && (value.charAt(i + 1) == 'x'
+                        || value.charAt(i + 1) == 'X')) {
+            i += 2;
+            for (; i < end && Character.digit(value.charAt(i), 16) >= 0
+                    && value.charAt(i) < 128; i ++) {
+                digits ++;
+            }
+            if (i < end && value.charAt(i) == '.') {
+                i ++;
+                for (; i < end && Character.digit(value.charAt(i), 16) >= 0
+                        && value.charAt(i) < 128; i ++) {
+                    digits ++;
+                }
+            }
+            if (digits == 0 || i == end
+                    || (value.charAt(i) != 'p' && value.charAt(i) != 'P')) {
+                return false;
+            }
+            exponent = 'p';
+        } else {
+            for (; i < end && isDigit(value.charAt(i)); i ++) {
+                digits ++;
+            }
+            if (i < end && value.charAt(i) == '.') {
+                i ++;
+                for (; i < end && isDigit(value.charAt(i)); i ++) {
+                    digits ++;
+                }
+            }
+            if (digits == 0) {
+                return false;
+            }
+            exponent = 'e';
+        }
+        if (i < end && Character.toLowerCase(value.charAt(i)) == exponent) {
+            i ++;
+            if (i < end
+                    && (value.charAt(i) == '+' || value.charAt(i) == '-')) {
+                i ++;
+            }
+            int expDigits = 0;
+            for (; i < end && isDigit(value.charAt(i)); i ++) {
+                expDigits ++;
+            }
+            if (expDigits == 0) {
+                return false;
+            }
+        }
+        if (i < end && "fFdD".indexOf(value.charAt(i)) >= 0) {
+            i ++;
+        }
+        return (i == end);
+    }
+
+    /**
+     * Проверяет, что строка является целым числом в заданных пределах.
+     *
+     * @param  value
+     *         Строка.
+     * @param  min
+     *         Наименьшее допустимое значение.
+     * @param  max
+     *         Наибольшее допустимое значение.
+     * @return  {@code true}, если проверка успешна.
+     */
+    static boolean isLong(String value, long min, long max) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        boolean negative = (value.charAt(0) == '-');
+        long result = accumulate(value, negative);
+        if (result > 0) {
+            return false;
+        }
+        result = (negative ? result : -result);
+        return (result >= min && result <= max);
+    }
+
+    /**
+     * Разбирает логическое значение {@code true} или {@code false} без учёта
+     * регистра.
+     *
+     * @param  value
+     *         Строка или {@code null}.
+     * @param  defaultValue
+     *         Значение по умолчанию.
+     * @return  Значение или значение по умолчанию, если строка не является
+     *          логическим значением.
+     */
+    static boolean parseBoolean(String value, boolean defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        } else if (value.equalsIgnoreCase("true")) {
+            return true;
+        } else if (value.equalsIgnoreCase("false")) {
+            return false;
+        } else {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Разбирает дату вида {@code yyyy-MM-dd} с полями в пределах
+     * григорианского календаря.
+     *
+     * @param  value
+     *         Строка.
+     * @return  Дата в виде числа {@code yyyyMMdd} или {@code -1}, если
+     *          строка имеет другой вид или поля вне пределов.
+     */
+    static int parseDate(String value) {
+        if (!isDateForm(value)) {
+            return -1;
+        }
+        int year = digits(value, 0, 4);
+        int month = digits(value, 5, 7);
+        int day = digits(value, 8, 10);
+        if (month < 1 || month > 12 || day < 1
+                || day > lengthOfMonth(year, month)) {
+            return -1;
+        }
+        return year * 10000 + month * 100 + day;
+    }
+
+    /**
+     * Разбирает число с плавающей точкой.
+     *
+     * @param  value
+     *         Строка или {@code null}.
+     * @param  defaultValue
+     *         Значение по умолчанию.
+     * @return  Значение или значение по умолчанию, если строка не является
+     *          числом.
+     */
+    static float parseFloat(String value, float defaultValue) {
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        // Короткие десятичные дроби вычисляются одной точной операцией.
+        int length = value.length();
+        int i = 0;
+        boolean negative = false;
+        char c = value.charAt(0);
+        if (c == '-' || c == '+') {
+            negative = (c == '-');
+            i ++;
+        }
+        long mantissa = 0;
+        int count = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean point = false;
+        boolean simple = (i < length);
+        for (; i < length && simple; i ++) {
+            c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                count ++;
+                if (mantissa > 0 || c != '0') {
+                    digits ++;
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (point) {
+                    scale ++;
+                }
+                simple = (digits <= 8);
+            } else if (c == '.' && !point) {
+                point = true;
+            } else {
+                simple = false;
+            }
+        }
+        if (simple && count > 0
+                && mantissa <= MAX_EXACT_FLOAT_MANTISSA
+                && scale < FLOAT_POWERS_OF_TEN.length) {
+            float result = (float) mantissa / FLOAT_POWERS_OF_TEN[scale];
+            return (negative ? -result : result);
+        }
+        return (isFloat(value) ? Float.parseFloat(value) : defaultValue);
+    }
+
+    /**
+     * Разбирает целое число в заданных пределах.
+     *
+     * @param  value
+     *         Строка или {@code null}.
+     * @param  min
+     *         Наименьшее допустимое значение.
+     * @param  max
+     *         Наибольшее допустимое значение.
+     * @param  defaultValue
+     *         Значение по умолчанию.
+     * @return  Значение или значение по умолчанию, если строка не является
+     *          числом в заданных пределах.
+     */
+    static long parseLong(String value, long min, long max,
+            long defaultValue) {
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        boolean negative = (value.charAt(0) == '-');
+        long result = accumulate(value, negative);
+        if (result > 0) {
+            return defaultValue;
+        }
+        result = (negative ? result : -result);
+        return (result >= min && result <= max ? result : defaultValue);
+    }
+
+    /**
+     * Накапливает число со знаком минус, как {@link Long#parseLong}, чтобы
+     * поместилось {@link Long#MIN_VALUE}.
+     *
+     * @return  Число со знаком минус или {@code 1}, если строка не является
+     *          числом.
+     */
+    private static long accumulate(String value, boolean negative) {
+        int length = value.length();
+        int i = 0;
+        char c = value.charAt(0);
+        if (c == '-' || c == '+') {
+            if (length == 1) {
+                return 1;
+            }
+            i ++;
+        }
+        long limit = (negative ? Long.MIN_VALUE : -Long.MAX_VALUE);
+        long multmin = limit / 10;
+        long result = 0;
+        for (; i < length; i ++) {
+            int digit = Character.digit(value.charAt(i), 10);
+            if (digit < 0 || result < multmin) {
+                return 1;
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                return 1;
+            }
+            result -= digit;
+        }
+        return result;
+    }
+
+    private static int digits(String value, int start, int end) {
+        int result = 0;
+        for (int i = start; i < end; i ++) {
+            result = result * 10 + (value.charAt(i) - '0');
+        }
+        return result;
+    }
+
+    private static boolean isDigit(char c) {
+        return (c >= '0' && c <= '9');
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        if (month == 2) {
+            boolean leap = (year % 4 == 0
+                    && (year % 100 != 0 || year % 400 == 0));
+            return (leap ? 29 : 28);
+        }
+        return (month == 4 || month == 6 || month == 9 || month == 11
+                ? 30 : 31);
+    }
+
+}
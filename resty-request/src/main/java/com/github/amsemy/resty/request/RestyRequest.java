@@ -1,14 +1,13 @@
 package com.github.amsemy.resty.request;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import com.github.amsemy.resty.request.RestyValueCache.Type;
+
 import java.util.Date;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.ResourceBundle;
 import java.util.Set;
 
 /**
@@ -33,6 +32,29 @@ public class RestyRequest {
 
     }
 
+    /**
+     * Подготовленный ключ параметра запроса. Хранит полный путь до параметра,
+     * поэтому проверки и получение значений в запросах с тем же путём не
+     * формируют путь заново. Создаётся методом {@link RestyRequest#prepare}
+     * один раз, например при создании валидатора. В запросах с другим путём
+     * ключ используется как обычный параметр.
+     */
+    public static class Key extends Param {
+
+        private final String requestPath;
+        private final String fullPath;
+
+        private Key(String paramName, int index, String requestPath,
+                String fullPath) {
+            super(paramName, index);
+            this.requestPath = requestPath;
+            this.fullPath = fullPath;
+            // Хэш строки вычисляется один раз и хранится в ней.
+            fullPath.hashCode();
+        }
+
+    }
+
     /**
      * Сообщение об ошибке.
      */
@@ -156,8 +178,11 @@ public class RestyRequest {
          * @see  RestyValidator#makeValidation
          */
         protected boolean assertBoolean(Param param, Message message) {
-            message = defaultI18nMessage(param, message, "assertBoolean");
-            return makeValidation(param, checkBoolean(param), message);
+            boolean condition = checkBoolean(param);
+            if (!condition) {
+                message = defaultI18nMessage(param, message, "assertBoolean");
+            }
+            return makeValidation(param, condition, message);
         }
 
         /**
@@ -187,8 +212,11 @@ public class RestyRequest {
          * @see  RestyValidator#makeValidation
          */
         protected boolean assertDate(Param param, Message message) {
-            message = defaultI18nMessage(param, message, "assertDate");
-            return makeValidation(param, checkDate(param), message);
+            boolean condition = checkDate(param);
+            if (!condition) {
+                message = defaultI18nMessage(param, message, "assertDate");
+            }
+            return makeValidation(param, condition, message);
         }
 
         /**
@@ -218,8 +246,11 @@ public class RestyRequest {
          * @see  RestyValidator#makeValidation
          */
         protected boolean assertExists(Param param, Message message) {
-            message = defaultI18nMessage(param, message, "assertExists");
-            return makeValidation(param, checkExists(param), message);
+            boolean condition = checkExists(param);
+            if (!condition) {
+                message = defaultI18nMessage(param, message, "assertExists");
+            }
+            return makeValidation(param, condition, message);
         }
 
         /**
@@ -249,8 +280,11 @@ public class RestyRequest {
          * @see  RestyValidator#makeValidation
          */
         protected boolean assertFloat(Param param, Message message) {
-            message = defaultI18nMessage(param, message, "assertFloat");
-            return makeValidation(param, checkFloat(param), message);
+            boolean condition = checkFloat(param);
+            if (!condition) {
+                message = defaultI18nMessage(param, message, "assertFloat");
+            }
+            return makeValidation(param, condition, message);
         }
 
         /**
@@ -280,8 +314,11 @@ public class RestyRequest {
          * @see  RestyValidator#makeValidation
          */
         protected boolean assertInteger(Param param, Message message) {
-            message = defaultI18nMessage(param, message, "assertInteger");
-            return makeValidation(param, checkInteger(param), message);
+            boolean condition = checkInteger(param);
+            if (!condition) {
+                message = defaultI18nMessage(param, message, "assertInteger");
+            }
+            return makeValidation(param, condition, message);
         }
 
         /**
@@ -311,8 +348,11 @@ public class RestyRequest {
          * @see  RestyValidator#makeValidation
          */
         protected boolean assertLong(Param param, Message message) {
-            message = defaultI18nMessage(param, message, "assertLong");
-            return makeValidation(param, checkLong(param), message);
+            boolean condition = checkLong(param);
+            if (!condition) {
+                message = defaultI18nMessage(param, message, "assertLong");
+            }
+            return makeValidation(param, condition, message);
         }
 
         /**
@@ -344,8 +384,11 @@ public class RestyRequest {
          * @see  RestyValidator#makeValidation
          */
         protected boolean assertNotEmpty(Param param, Message message) {
-            message = defaultI18nMessage(param, message, "assertNotEmpty");
-            return makeValidation(param, checkNotEmpty(param), message);
+            boolean condition = checkNotEmpty(param);
+            if (!condition) {
+                message = defaultI18nMessage(param, message, "assertNotEmpty");
+            }
+            return makeValidation(param, condition, message);
         }
 
         /**
@@ -375,8 +418,11 @@ public class RestyRequest {
          * @see  RestyValidator#makeValidation
          */
         protected boolean assertShort(Param param, Message message) {
-            message = defaultI18nMessage(param, message, "assertShort");
-            return makeValidation(param, checkShort(param), message);
+            boolean condition = checkShort(param);
+            if (!condition) {
+                message = defaultI18nMessage(param, message, "assertShort");
+            }
+            return makeValidation(param, condition, message);
         }
 
         /**
@@ -413,14 +459,17 @@ public class RestyRequest {
          * @see  RestyValidator#makeValidation
          */
         protected boolean assertSize(Param param, Size size, Message message) {
-            if (size.min == 0) {
-                message = defaultI18nMessage(param, message,
-                        "assertSize_max", size.max);
-            } else {
-                message = defaultI18nMessage(param, message,
-                        "assertSize", size.min, size.max);
+            boolean condition = checkSize(param, size);
+            if (!condition) {
+                if (size.min == 0) {
+                    message = defaultI18nMessage(param, message,
+                            "assertSize_max", size.max);
+                } else {
+                    message = defaultI18nMessage(param, message,
+                            "assertSize", size.min, size.max);
+                }
             }
-            return makeValidation(param, checkSize(param, size), message);
+            return makeValidation(param, condition, message);
         }
 
         private Message defaultI18nMessage(Param param, Message message,
@@ -449,10 +498,11 @@ public class RestyRequest {
          * @return  Интернационализированная строка.
          */
         protected String i18n(String key, String basename, Object... args) {
-            ResourceBundle rb = ResourceBundle.getBundle(basename, locale);
+            RestyMessages.Template template =
+                    RestyMessages.get(key, basename, locale);
             return (args.length == 0
-                    ? rb.getString(key)
-                    :String.format(rb.getString(key), args));
+                    ? template.getPattern()
+                    : template.format(args));
         }
 
         /**
@@ -514,10 +564,15 @@ public class RestyRequest {
 
     }
 
+    private final RestyDateFormat dateFormat;
     private final String[] fieldPath;
     private final String paramPath;
+    private final boolean indexed;
     private final RestyParams params;
     private final RestyValidationResult valResult;
+    private final RestyValueCache cache;
+    private RestyParams.Node node;
+    private int nodeVersion = -1;
 
     /**
      * Создаёт запрос.
@@ -526,10 +581,28 @@ public class RestyRequest {
      *         Параметры запроса к ресурсу.
      */
     public RestyRequest(RestyParams params) {
+        this(params, RestyDateFormat.getDefault());
+    }
+
+    /**
+     * Создаёт запрос с заданным форматом дат.
+     *
+     * @param  params
+     *         Параметры запроса к ресурсу.
+     * @param  dateFormat
+     *         Формат дат в параметрах запроса. Используется и подзапросами.
+     */
+    public RestyRequest(RestyParams params, RestyDateFormat dateFormat) {
+        if (dateFormat == null) {
+            throw new IllegalArgumentException("Null date format");
+        }
         this.params = params;
+        this.dateFormat = dateFormat;
         fieldPath = null;
         paramPath = null;
+        indexed = true;
         valResult = new RestyValidationResult();
+        cache = new RestyValueCache();
     }
 
     /**
@@ -546,12 +619,16 @@ public class RestyRequest {
      */
     public RestyRequest(RestyRequest parent, String paramName) {
         params = parent.params;
+        dateFormat = parent.dateFormat;
         if (paramName != null && paramName.isEmpty()) {
             throw new IllegalArgumentException("Empty param name");
         }
         fieldPath = parent.fieldPath(paramName);
         paramPath = parent.paramPath(paramName);
+        indexed = (parent.indexed
+                && (paramName == null || RestyParams.isSegment(paramName)));
         valResult = parent.valResult;
+        cache = parent.cache;
     }
 
     /**
@@ -573,17 +650,7 @@ public class RestyRequest {
      * @return  {@code true}, если проверка успешна.
      */
     public boolean checkBoolean(Param param) {
-        if (checkNotEmpty(param)) {
-            try {
-                String value = getString(param.paramName, param.index);
-                strToBoolean(value);
-                return true;
-            } catch (IllegalArgumentException ex) {
-                return false;
-            }
-        } else {
-            return false;
-        }
+        return isValid(param, Type.BOOLEAN);
     }
 
     /**
@@ -605,17 +672,7 @@ public class RestyRequest {
      * @return  {@code true}, если проверка успешна.
      */
     public boolean checkDate(Param param) {
-        if (checkNotEmpty(param)) {
-            try {
-                String value = getString(param.paramName, param.index);
-                strToDate(value);
-                return true;
-            } catch (IllegalArgumentException ex) {
-                return false;
-            }
-        } else {
-            return false;
-        }
+        return isValid(param, Type.DATE);
     }
 
     /**
@@ -637,18 +694,7 @@ public class RestyRequest {
      * @return  {@code true}, если проверка успешна.
      */
     public boolean checkExists(Param param) {
-        String paramName = paramPath(param.paramName);
-        if (params.containsKey(paramName)) {
-            if (param.index == 0) {
-                return true;
-            } else {
-                List<String> values = params.get(paramName);
-                return (param.index > 0
-                        && values != null && param.index < values.size());
-            }
-        } else {
-            return false;
-        }
+        return isExists(paramKey(param), param);
     }
 
     /**
@@ -670,17 +716,7 @@ public class RestyRequest {
      * @return  {@code true}, если проверка успешна.
      */
     public boolean checkFloat(Param param) {
-        if (checkNotEmpty(param)) {
-            try {
-                String value = getString(param.paramName, param.index);
-                strToFloat(value);
-                return true;
-            } catch (IllegalArgumentException ex) {
-                return false;
-            }
-        } else {
-            return false;
-        }
+        return isValid(param, Type.FLOAT);
     }
 
     /**
@@ -702,17 +738,7 @@ public class RestyRequest {
      * @return  {@code true}, если проверка успешна.
      */
     public boolean checkInteger(Param param) {
-        if (checkNotEmpty(param)) {
-            try {
-                String value = getString(param.paramName, param.index);
-                strToInteger(value);
-                return true;
-            } catch (IllegalArgumentException ex) {
-                return false;
-            }
-        } else {
-            return false;
-        }
+        return isValid(param, Type.INTEGER);
     }
 
     /**
@@ -734,17 +760,7 @@ public class RestyRequest {
      * @return  {@code true}, если проверка успешна.
      */
     public boolean checkLong(Param param) {
-        if (checkNotEmpty(param)) {
-            try {
-                String value = getString(param.paramName, param.index);
-                strToLong(value);
-                return true;
-            } catch (IllegalArgumentException ex) {
-                return false;
-            }
-        } else {
-            return false;
-        }
+        return isValid(param, Type.LONG);
     }
 
     /**
@@ -768,12 +784,7 @@ public class RestyRequest {
      * @return  {@code true}, если проверка успешна.
      */
     public boolean checkNotEmpty(Param param) {
-        if (checkExists(param)) {
-            String value = getString(param.paramName, param.index);
-            return (value != null && !value.isEmpty());
-        } else {
-            return false;
-        }
+        return isNotEmpty(paramKey(param), param);
     }
 
     /**
@@ -795,17 +806,7 @@ public class RestyRequest {
      * @return  {@code true}, если проверка успешна.
      */
     public boolean checkShort(Param param) {
-        if (checkNotEmpty(param)) {
-            try {
-                String value = getString(param.paramName, param.index);
-                strToShort(value);
-                return true;
-            } catch (IllegalArgumentException ex) {
-                return false;
-            }
-        } else {
-            return false;
-        }
+        return isValid(param, Type.SHORT);
     }
 
     /**
@@ -834,8 +835,9 @@ public class RestyRequest {
         if (size.min < 0 || size.min > size.max) {
             throw new IllegalArgumentException();
         }
-        if (checkExists(param)) {
-            String value = getString(param.paramName, param.index);
+        String key = paramKey(param);
+        if (isExists(key, param)) {
+            String value = getValue(key, param.index);
             int length = (value == null ? 0 : value.length());
             return (length >= size.min && length <= size.max);
         } else {
@@ -864,9 +866,48 @@ public class RestyRequest {
      * @return  Значение параметра.
      */
     public Boolean getBoolean(String paramName, int index) {
-        String value = getString(paramName, index);
-        return (value == null || value.isEmpty()
-                ? null : strToBoolean(value));
+        return (Boolean) parsed(paramName, index, Type.BOOLEAN);
+    }
+
+    /**
+     * Возвращает значение параметра как Boolean.
+     *
+     * @param  param
+     *         Параметр запроса.
+     * @return  Значение параметра.
+     */
+    public Boolean getBoolean(Param param) {
+        return (Boolean) parsed(param, Type.BOOLEAN);
+    }
+
+    /**
+     * Возвращает значение параметра как {@code boolean} без создания объектов.
+     *
+     * @param  paramName
+     *         Имя параметра.
+     * @param  defaultValue
+     *         Значение, возвращаемое, если параметр отсутствует, пуст или не
+     *         является значением типа {@code boolean}.
+     * @return  Значение параметра.
+     */
+    public boolean getBooleanValue(String paramName, boolean defaultValue) {
+        String value = getString(paramName, 0);
+        return RestyParsers.parseBoolean(value, defaultValue);
+    }
+
+    /**
+     * Возвращает значение параметра как {@code boolean} без создания объектов.
+     *
+     * @param  param
+     *         Параметр запроса.
+     * @param  defaultValue
+     *         Значение, возвращаемое, если параметр отсутствует, пуст или не
+     *         является значением типа {@code boolean}.
+     * @return  Значение параметра.
+     */
+    public boolean getBooleanValue(Param param, boolean defaultValue) {
+        String value = getString(param);
+        return RestyParsers.parseBoolean(value, defaultValue);
     }
 
     /**
@@ -890,9 +931,29 @@ public class RestyRequest {
      * @return  Значение параметра.
      */
     public Date getDate(String paramName, int index) {
-        String value = getString(paramName, index);
-        return (value == null || value.isEmpty()
-                ? null : strToDate(value));
+        Date value = (Date) parsed(paramName, index, Type.DATE);
+        return (value == null ? null : (Date) value.clone());
+    }
+
+    /**
+     * Возвращает значение параметра как Date.
+     *
+     * @param  param
+     *         Параметр запроса.
+     * @return  Значение параметра.
+     */
+    public Date getDate(Param param) {
+        Date value = (Date) parsed(param, Type.DATE);
+        return (value == null ? null : (Date) value.clone());
+    }
+
+    /**
+     * Возвращает формат дат в параметрах запроса.
+     *
+     * @return  Формат дат.
+     */
+    public RestyDateFormat getDateFormat() {
+        return dateFormat;
     }
 
     /**
@@ -925,9 +986,48 @@ public class RestyRequest {
      * @return  Значение параметра.
      */
     public Float getFloat(String paramName, int index) {
-        String value = getString(paramName, index);
-        return (value == null || value.isEmpty()
-                ? null : strToFloat(value));
+        return (Float) parsed(paramName, index, Type.FLOAT);
+    }
+
+    /**
+     * Возвращает значение параметра как Float.
+     *
+     * @param  param
+     *         Параметр запроса.
+     * @return  Значение параметра.
+     */
+    public Float getFloat(Param param) {
+        return (Float) parsed(param, Type.FLOAT);
+    }
+
+    /**
+     * Возвращает значение параметра как {@code float} без создания объектов.
+     *
+     * @param  paramName
+     *         Имя параметра.
+     * @param  defaultValue
+     *         Значение, возвращаемое, если параметр отсутствует, пуст или не
+     *         является значением типа {@code float}.
+     * @return  Значение параметра.
+     */
+    public float getFloatValue(String paramName, float defaultValue) {
+        String value = getString(paramName, 0);
+        return RestyParsers.parseFloat(value, defaultValue);
+    }
+
+    /**
+     * Возвращает значение параметра как {@code float} без создания объектов.
+     *
+     * @param  param
+     *         Параметр запроса.
+     * @param  defaultValue
+     *         Значение, возвращаемое, если параметр отсутствует, пуст или не
+     *         является значением типа {@code float}.
+     * @return  Значение параметра.
+     */
+    public float getFloatValue(Param param, float defaultValue) {
+        String value = getString(param);
+        return RestyParsers.parseFloat(value, defaultValue);
     }
 
     /**
@@ -951,9 +1051,50 @@ public class RestyRequest {
      * @return  Значение параметра.
      */
     public Integer getInteger(String paramName, int index) {
-        String value = getString(paramName, index);
-        return (value == null || value.isEmpty()
-                ? null : strToInteger(value));
+        return (Integer) parsed(paramName, index, Type.INTEGER);
+    }
+
+    /**
+     * Возвращает значение параметра как Integer.
+     *
+     * @param  param
+     *         Параметр запроса.
+     * @return  Значение параметра.
+     */
+    public Integer getInteger(Param param) {
+        return (Integer) parsed(param, Type.INTEGER);
+    }
+
+    /**
+     * Возвращает значение параметра как {@code int} без создания объектов.
+     *
+     * @param  paramName
+     *         Имя параметра.
+     * @param  defaultValue
+     *         Значение, возвращаемое, если параметр отсутствует, пуст или не
+     *         является значением типа {@code int}.
+     * @return  Значение параметра.
+     */
+    public int getIntValue(String paramName, int defaultValue) {
+        String value = getString(paramName, 0);
+        return (int) RestyParsers.parseLong(value, Integer.MIN_VALUE,
+                Integer.MAX_VALUE, defaultValue);
+    }
+
+    /**
+     * Возвращает значение параметра как {@code int} без создания объектов.
+     *
+     * @param  param
+     *         Параметр запроса.
+     * @param  defaultValue
+     *         Значение, возвращаемое, если параметр отсутствует, пуст или не
+     *         является значением типа {@code int}.
+     * @return  Значение параметра.
+     */
+    public int getIntValue(Param param, int defaultValue) {
+        String value = getString(param);
+        return (int) RestyParsers.parseLong(value, Integer.MIN_VALUE,
+                Integer.MAX_VALUE, defaultValue);
     }
 
     /**
@@ -977,9 +1118,50 @@ public class RestyRequest {
      * @return  Значение параметра.
      */
     public Long getLong(String paramName, int index) {
-        String value = getString(paramName, index);
-        return (value == null || value.isEmpty()
-                ? null : strToLong(value));
+        return (Long) parsed(paramName, index, Type.LONG);
+    }
+
+    /**
+     * Возвращает значение параметра как Long.
+     *
+     * @param  param
+     *         Параметр запроса.
+     * @return  Значение параметра.
+     */
+    public Long getLong(Param param) {
+        return (Long) parsed(param, Type.LONG);
+    }
+
+    /**
+     * Возвращает значение параметра как {@code long} без создания объектов.
+     *
+     * @param  paramName
+     *         Имя параметра.
+     * @param  defaultValue
+     *         Значение, возвращаемое, если параметр отсутствует, пуст или не
+     *         является значением типа {@code long}.
+     * @return  Значение параметра.
+     */
+    public long getLongValue(String paramName, long defaultValue) {
+        String value = getString(paramName, 0);
+        return RestyParsers.parseLong(value, Long.MIN_VALUE, Long.MAX_VALUE,
+                defaultValue);
+    }
+
+    /**
+     * Возвращает значение параметра как {@code long} без создания объектов.
+     *
+     * @param  param
+     *         Параметр запроса.
+     * @param  defaultValue
+     *         Значение, возвращаемое, если параметр отсутствует, пуст или не
+     *         является значением типа {@code long}.
+     * @return  Значение параметра.
+     */
+    public long getLongValue(Param param, long defaultValue) {
+        String value = getString(param);
+        return RestyParsers.parseLong(value, Long.MIN_VALUE, Long.MAX_VALUE,
+                defaultValue);
     }
 
     /**
@@ -990,6 +1172,13 @@ public class RestyRequest {
     public Set<String> getParameterNames() {
         if (paramPath == null) {
             return params.keySet();
+        } else if (indexed) {
+            Set<String> names = new HashSet<>();
+            RestyParams.Node n = node();
+            if (n != null) {
+                n.addNames(names);
+            }
+            return names;
         } else {
             Set<String> names = new HashSet<>();
             for (String key : params.keySet()) {
@@ -1024,9 +1213,50 @@ public class RestyRequest {
      * @return  Значение параметра.
      */
     public Short getShort(String paramName, int index) {
-        String value = getString(paramName, index);
-        return (value == null || value.isEmpty()
-                ? null : strToShort(value));
+        return (Short) parsed(paramName, index, Type.SHORT);
+    }
+
+    /**
+     * Возвращает значение параметра как Short.
+     *
+     * @param  param
+     *         Параметр запроса.
+     * @return  Значение параметра.
+     */
+    public Short getShort(Param param) {
+        return (Short) parsed(param, Type.SHORT);
+    }
+
+    /**
+     * Возвращает значение параметра как {@code short} без создания объектов.
+     *
+     * @param  paramName
+     *         Имя параметра.
+     * @param  defaultValue
+     *         Значение, возвращаемое, если параметр отсутствует, пуст или не
+     *         является значением типа {@code short}.
+     * @return  Значение параметра.
+     */
+    public short getShortValue(String paramName, short defaultValue) {
+        String value = getString(paramName, 0);
+        return (short) RestyParsers.parseLong(value, Short.MIN_VALUE,
+                Short.MAX_VALUE, defaultValue);
+    }
+
+    /**
+     * Возвращает значение параметра как {@code short} без создания объектов.
+     *
+     * @param  param
+     *         Параметр запроса.
+     * @param  defaultValue
+     *         Значение, возвращаемое, если параметр отсутствует, пуст или не
+     *         является значением типа {@code short}.
+     * @return  Значение параметра.
+     */
+    public short getShortValue(Param param, short defaultValue) {
+        String value = getString(param);
+        return (short) RestyParsers.parseLong(value, Short.MIN_VALUE,
+                Short.MAX_VALUE, defaultValue);
     }
 
     /**
@@ -1050,16 +1280,21 @@ public class RestyRequest {
      * @return  Значение параметра.
      */
     public String getString(String paramName, int index) {
-        List<String> values = params.get(paramPath(paramName));
-        if (values != null) {
-            if (index >= 0 && index < values.size()) {
-                return values.get(index);
-            } else {
-                return null;
-            }
-        } else {
-            return null;
-        }
+        String key = paramKey(paramName);
+        return (key == null && paramName != null
+                ? null : getValue(key, index));
+    }
+
+    /**
+     * Возвращает значение параметра.
+     *
+     * @param  param
+     *         Параметр запроса.
+     * @return  Значение параметра.
+     */
+    public String getString(Param param) {
+        String key = paramKey(param);
+        return (key == null ? null : getValue(key, param.index));
     }
 
     /**
@@ -1071,6 +1306,46 @@ public class RestyRequest {
         return valResult.isValid();
     }
 
+    /**
+     * Создаёт подготовленный ключ параметра этого запроса.
+     *
+     * @param  paramName
+     *         Имя параметра запроса. Не может быть равно пустой строке.
+     * @return  Ключ параметра.
+     */
+    public Key prepare(String paramName) {
+        return prepare(paramName, 0);
+    }
+
+    /**
+     * Создаёт подготовленный ключ параметра этого запроса.
+     *
+     * @param  paramName
+     *         Имя параметра запроса. Не может быть равно пустой строке.
+     * @param  index
+     *         Номер элемента массива значений параметра.
+     * @return  Ключ параметра.
+     */
+    public Key prepare(String paramName, int index) {
+        return new Key(paramName, index, paramPath, paramPath(paramName));
+    }
+
+    /**
+     * Разбирает значение параметра без исключений. Значение берётся из кэша
+     * запроса, общего с методами {@code check...} и {@code get...}.
+     *
+     * @param  param
+     *         Параметр запроса.
+     * @param  type
+     *         Тип значения.
+     * @return  Значение, {@code null}, если параметр отсутствует или пуст,
+     *          или {@link RestyValueCache#INVALID}.
+     */
+    Object getParsed(Param param, Type type) {
+        String key = paramKey(param);
+        return (key == null ? null : parsedValue(key, param.index, type));
+    }
+
     private String[] fieldPath(String paramName) {
         if (paramName == null) {
             return fieldPath;
@@ -1087,6 +1362,133 @@ public class RestyRequest {
         }
     }
 
+    private String getValue(String key, int index) {
+        List<String> values = params.get(key);
+        if (values != null) {
+            if (index >= 0 && index < values.size()) {
+                return values.get(index);
+            } else {
+                return null;
+            }
+        } else {
+            return null;
+        }
+    }
+
+    private boolean isExists(String key, Param param) {
+        if (key != null && params.containsKey(key)) {
+            if (param.index == 0) {
+                return true;
+            } else {
+                List<String> values = params.get(key);
+                return (param.index > 0
+                        && values != null && param.index < values.size());
+            }
+        } else {
+            return false;
+        }
+    }
+
+    private boolean isNotEmpty(String key, Param param) {
+        if (isExists(key, param)) {
+            String value = getValue(key, param.index);
+            return (value != null && !value.isEmpty());
+        } else {
+            return false;
+        }
+    }
+
+    private boolean isValid(Param param, Type type) {
+        String key = paramKey(param);
+        return (isNotEmpty(key, param)
+                && parsedValue(key, param.index, type)
+                        != RestyValueCache.INVALID);
+    }
+
+    /**
+     * Разбирает значение параметра. Значение берётся из кэша запроса.
+     *
+     * @param  param
+     *         Параметр запроса.
+     * @param  type
+     *         Тип значения.
+     * @return  Значение или {@code null}, если параметр отсутствует или пуст.
+     * @throws  IllegalArgumentException
+     *          Если значение параметра не является значением этого типа.
+     */
+    Object parsed(Param param, Type type) {
+        String key = paramKey(param);
+        if (key == null) {
+            return null;
+        }
+        Object result = parsedValue(key, param.index, type);
+        return (result == RestyValueCache.INVALID
+                ? type.valueOf(getValue(key, param.index), dateFormat)
+                : result);
+    }
+
+    /**
+     * Разбирает значение параметра. Значение берётся из кэша запроса.
+     *
+     * @param  paramName
+     *         Имя параметра.
+     * @param  index
+     *         Номер элемента массива значений параметра.
+     * @param  type
+     *         Тип значения.
+     * @return  Значение или {@code null}, если параметр отсутствует или пуст.
+     * @throws  IllegalArgumentException
+     *          Если значение параметра не является значением этого типа.
+     */
+    Object parsed(String paramName, int index, Type type) {
+        String key = paramKey(paramName);
+        if (key == null && paramName != null) {
+            return null;
+        }
+        Object result = parsedValue(key, index, type);
+        return (result == RestyValueCache.INVALID
+                ? type.valueOf(getValue(key, index), dateFormat)
+                : result);
+    }
+
+    private Object parsedValue(String key, int index, Type type) {
+        String value = getValue(key, index);
+        return (value == null || value.isEmpty()
+                ? null : cache.get(key, index, type, value, dateFormat));
+    }
+
+    private RestyParams.Node node() {
+        int version = params.getIndexVersion();
+        if (nodeVersion != version) {
+            node = params.findNode(fieldPath);
+            nodeVersion = params.getIndexVersion();
+        }
+        return node;
+    }
+
+    private String paramKey(Param param) {
+        if (param instanceof Key) {
+            Key key = (Key) param;
+            if (key.requestPath == paramPath || (paramPath != null
+                    && paramPath.equals(key.requestPath))) {
+                return key.fullPath;
+            }
+        }
+        return paramKey(param.paramName);
+    }
+
+    // Во вложенных запросах путь берётся из индекса параметров; null, если
+    // такого параметра нет.
+    private String paramKey(String paramName) {
+        if (paramPath == null || paramName == null || !indexed
+                || !RestyParams.isSegment(paramName)) {
+            return paramPath(paramName);
+        }
+        RestyParams.Node n = node();
+        RestyParams.Node child = (n == null ? null : n.getChild(paramName));
+        return (child == null ? null : child.key);
+    }
+
     private String paramPath(String paramName) {
         if (paramName == null) {
             return paramPath;
@@ -1185,41 +1587,4 @@ public class RestyRequest {
         return new Size(min, max);
     }
 
-    //------------------------------------------------------------------------
-
-    private static Boolean strToBoolean(String value) {
-        if (value.equalsIgnoreCase("true")) {
-            return true;
-        } else if (value.equalsIgnoreCase("false")) {
-            return false;
-        } else {
-            throw new IllegalArgumentException("Not a boolean value");
-        }
-    }
-
-    private static Date strToDate(String value) {
-        try {
-            SimpleDateFormat df = new SimpleDateFormat("yyyy-MM-dd");
-            return df.parse(value);
-        } catch (ParseException ex) {
-            throw new IllegalArgumentException(ex);
-        }
-    }
-
-    private static Float strToFloat(String value) {
-        return Float.parseFloat(value);
-    }
-
-    private static Integer strToInteger(String value) {
-        return Integer.parseInt(value);
-    }
-
-    private static Long strToLong(String value) {
-        return Long.parseLong(value);
-    }
-
-    private static Short strToShort(String value) {
-        return Short.parseShort(value);
-    }
-
 }
@@ -0,0 +1,334 @@
+package com.github.amsemy.resty.request;
+
+import com.github.amsemy.resty.request.RestyRequest.Param;
+import com.github.amsemy.resty.request.RestyRequest.RestyValidator;
+import com.github.amsemy.resty.request.RestyRequest.Size;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Проверка и получение параметров запроса по классу с полями, отмеченными
+ * аннотацией {@code RstParam}. Для класса используется связыватель,
+ * созданный процессором аннотаций модуля {@code resty-request-processor},
+ * если он есть, иначе план {@link RestyRequestPlan}.
+ *
+ * <p>Созданный связыватель находится в пакете класса и называется по имени
+ * класса, в котором {@code $} вложенных классов заменён на {@code _}, с
+ * суффиксом {@value #SUFFIX}. Статические методы {@code assert...}
+ * предназначены для созданного кода: они записывают ошибку так же, как
+ * соответствующие методы валидатора запроса.
+ *
+ * <p>Связыватели потокобезопасны.
+ *
+ * @param  <T>
+ *         Класс с описанием параметров.
+ */
+public abstract class RestyRequestBinder<T> {
+
+    /**
+     * Суффикс имени созданного связывателя.
+     */
+    public static final String SUFFIX = "_RestyBinder";
+
+    private static final String MSG_CREATE_FAIL =
+            "Cann't create binder '%2$s' of '%1$s' class";
+
+    private static final ConcurrentMap<Class<?>, RestyRequestBinder<?>>
+            BINDERS = new ConcurrentHashMap<>();
+
+    /**
+     * Создаёт связыватель.
+     */
+    protected RestyRequestBinder() {
+    }
+
+    /**
+     * Возвращает связыватель класса. Связыватели находятся один раз для
+     * каждого класса.
+     *
+     * @param  <T>
+     *         Класс с описанием параметров.
+     * @param  type
+     *         Класс с описанием параметров.
+     * @return  Созданный связыватель или план класса.
+     * @throws  IllegalArgumentException
+     *          Если созданного связывателя нет, а аннотации использованы
+     *          неправильно.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> RestyRequestBinder<T> get(Class<T> type) {
+        RestyRequestBinder<T> binder =
+                (RestyRequestBinder<T>) BINDERS.get(type);
+        if (binder == null) {
+            binder = load(type);
+            RestyRequestBinder<T> prev =
+                    (RestyRequestBinder<T>) BINDERS.putIfAbsent(type, binder);
+            if (prev != null) {
+                binder = prev;
+            }
+        }
+        return binder;
+    }
+
+    /**
+     * Возвращает имя созданного связывателя класса.
+     *
+     * @param  type
+     *         Класс с описанием параметров.
+     * @return  Полное имя связывателя.
+     */
+    public static String getBinderName(Class<?> type) {
+        return type.getName().replace('$', '_') + SUFFIX;
+    }
+
+    /**
+     * Проверяет параметры запроса и создаёт объект с их значениями. Поля,
+     * для которых параметр отсутствует, пуст или неправильный, сохраняют
+     * значения по умолчанию. Ошибки записываются в результат проверки
+     * запроса.
+     *
+     * @param  request
+     *         Запрос.
+     * @param  locale
+     *         Локаль, используемая для формирования сообщений об ошибках.
+     * @return  Объект с значениями параметров.
+     */
+    public abstract T bind(RestyRequest request, Locale locale);
+
+    /**
+     * Возвращает класс с описанием параметров.
+     *
+     * @return  Класс.
+     */
+    public abstract Class<T> getType();
+
+    /**
+     * Проверяет параметры запроса. Ошибки записываются в результат проверки
+     * запроса.
+     *
+     * @param  request
+     *         Запрос.
+     * @param  locale
+     *         Локаль, используемая для формирования сообщений об ошибках.
+     * @return  {@code true}, если все проверки успешны.
+     */
+    public abstract boolean validate(RestyRequest request, Locale locale);
+
+    /**
+     * Записывает ошибку, если значение параметра не является Boolean.
+     *
+     * @param  validator
+     *         Валидатор или {@code null}, если он ещё не создан.
+     * @param  request
+     *         Запрос.
+     * @param  locale
+     *         Локаль, используемая для формирования сообщений об ошибках.
+     * @param  param
+     *         Параметр запроса.
+     * @param  errorDesc
+     *         Описание ошибки или {@code null} для сообщения по умолчанию.
+     * @return  Валидатор.
+     */
+    protected static RestyValidator assertBoolean(RestyValidator validator,
+            RestyRequest request, Locale locale, Param param,
+            String errorDesc) {
+        RestyValidator result = validator(validator, request, locale);
+        result.assertBoolean(param, message(errorDesc));
+        return result;
+    }
+
+    /**
+     * Записывает ошибку, если значение параметра не является Date.
+     *
+     * @param  validator
+     *         Валидатор или {@code null}, если он ещё не создан.
+     * @param  request
+     *         Запрос.
+     * @param  locale
+     *         Локаль, используемая для формирования сообщений об ошибках.
+     * @param  param
+     *         Параметр запроса.
+     * @param  errorDesc
+     *         Описание ошибки или {@code null} для сообщения по умолчанию.
+     * @return  Валидатор.
+     */
+    protected static RestyValidator assertDate(RestyValidator validator,
+            RestyRequest request, Locale locale, Param param,
+            String errorDesc) {
+        RestyValidator result = validator(validator, request, locale);
+        result.assertDate(param, message(errorDesc));
+        return result;
+    }
+
+    /**
+     * Записывает ошибку, если значение параметра не является Float.
+     *
+     * @param  validator
+     *         Валидатор или {@code null}, если он ещё не создан.
+     * @param  request
+     *         Запрос.
+     * @param  locale
+     *         Локаль, используемая для формирования сообщений об ошибках.
+     * @param  param
+     *         Параметр запроса.
+     * @param  errorDesc
+     *         Описание ошибки или {@code null} для сообщения по умолчанию.
+     * @return  Валидатор.
+     */
+    protected static RestyValidator assertFloat(RestyValidator validator,
+            RestyRequest request, Locale locale, Param param,
+            String errorDesc) {
+        RestyValidator result = validator(validator, request, locale);
+        result.assertFloat(param, message(errorDesc));
+        return result;
+    }
+
+    /**
+     * Записывает ошибку, если значение параметра не является Integer.
+     *
+     * @param  validator
+     *         Валидатор или {@code null}, если он ещё не создан.
+     * @param  request
+     *         Запрос.
+     * @param  locale
+     *         Локаль, используемая для формирования сообщений об ошибках.
+     * @param  param
+     *         Параметр запроса.
+     * @param  errorDesc
+     *         Описание ошибки или {@code null} для сообщения по умолчанию.
+     * @return  Валидатор.
+     */
+    protected static RestyValidator assertInteger(RestyValidator validator,
+            RestyRequest request, Locale locale, Param param,
+            String errorDesc) {
+        RestyValidator result = validator(validator, request, locale);
+        result.assertInteger(param, message(errorDesc));
+        return result;
+    }
+
+    /**
+     * Записывает ошибку, если значение параметра не является Long.
+     *
+     * @param  validator
+     *         Валидатор или {@code null}, если он ещё не создан.
+     * @param  request
+     *         Запрос.
+     * @param  locale
+     *         Локаль, используемая для формирования сообщений об ошибках.
+     * @param  param
+     *         Параметр запроса.
+     * @param  errorDesc
+     *         Описание ошибки или {@code null} для сообщения по умолчанию.
+     * @return  Валидатор.
+     */
+    protected static RestyValidator assertLong(RestyValidator validator,
+            RestyRequest request, Locale locale, Param param,
+            String errorDesc) {
+        RestyValidator result = validator(validator, request, locale);
+        result.assertLong(param, message(errorDesc));
+        return result;
+    }
+
+    /**
+     * Записывает ошибку, если параметр отсутствует или пуст.
+     *
+     * @param  validator
+     *         Валидатор или {@code null}, если он ещё не создан.
+     * @param  request
+     *         Запрос.
+     * @param  locale
+     *         Локаль, используемая для формирования сообщений об ошибках.
+     * @param  param
+     *         Параметр запроса.
+     * @param  errorDesc
+     *         Описание ошибки или {@code null} для сообщения по умолчанию.
+     * @return  Валидатор.
+     */
+    protected static RestyValidator assertNotEmpty(RestyValidator validator,
+            RestyRequest request, Locale locale, Param param,
+            String errorDesc) {
+        RestyValidator result = validator(validator, request, locale);
+        result.assertNotEmpty(param, message(errorDesc));
+        return result;
+    }
+
+    /**
+     * Записывает ошибку, если значение параметра не является Short.
+     *
+     * @param  validator
+     *         Валидатор или {@code null}, если он ещё не создан.
+     * @param  request
+     *         Запрос.
+     * @param  locale
+     *         Локаль, используемая для формирования сообщений об ошибках.
+     * @param  param
+     *         Параметр запроса.
+     * @param  errorDesc
+     *         Описание ошибки или {@code null} для сообщения по умолчанию.
+     * @return  Валидатор.
+     */
+    protected static RestyValidator assertShort(RestyValidator validator,
+            RestyRequest request, Locale locale, Param param,
+            String errorDesc) {
+        RestyValidator result = validator(validator, request, locale);
+        result.assertShort(param, message(errorDesc));
+        return result;
+    }
+
+    /**
+     * Записывает ошибку, если значение параметра не соответствует
+     * ограничениям на размер.
+     *
+     * @param  validator
+     *         Валидатор или {@code null}, если он ещё не создан.
+     * @param  request
+     *         Запрос.
+     * @param  locale
+     *         Локаль, используемая для формирования сообщений об ошибках.
+     * @param  param
+     *         Параметр запроса.
+     * @param  size
+     *         Ограничения на размер значения.
+     * @param  errorDesc
+     *         Описание ошибки или {@code null} для сообщения по умолчанию.
+     * @return  Валидатор.
+     */
+    protected static RestyValidator assertSize(RestyValidator validator,
+            RestyRequest request, Locale locale, Param param, Size size,
+            String errorDesc) {
+        RestyValidator result = validator(validator, request, locale);
+        result.assertSize(param, size, message(errorDesc));
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> RestyRequestBinder<T> load(Class<T> type) {
+        String name = getBinderName(type);
+        Class<?> binderClass;
+        try {
+            binderClass = Class.forName(name, true, type.getClassLoader());
+        } catch (ClassNotFoundException ex) {
+            return RestyRequestPlan.get(type);
+        }
+        try {
+            return (RestyRequestBinder<T>) binderClass.getConstructor()
+                    .newInstance();
+        } catch (ReflectiveOperationException | ClassCastException ex) {
+            throw new IllegalStateException(String.format(MSG_CREATE_FAIL,
+                    type.getName(), name), ex);
+        }
+    }
+
+    private static RestyRequest.Message message(String errorDesc) {
+        return (errorDesc == null ? null : RestyRequest.message(errorDesc));
+    }
+
+    private static RestyValidator validator(RestyValidator validator,
+            RestyRequest request, Locale locale) {
+        return (validator == null
+                ? request.new RestyValidator(locale) : validator);
+    }
+
+}
@@ -0,0 +1,349 @@
+package com.github.amsemy.resty.request;
+
+import com.github.amsemy.resty.request.RestyRequest.Message;
+import com.github.amsemy.resty.request.RestyRequest.Param;
+import com.github.amsemy.resty.request.RestyRequest.RestyValidator;
+import com.github.amsemy.resty.request.RestyRequest.Size;
+import com.github.amsemy.resty.request.RestyValueCache.Type;
+import com.github.amsemy.resty.request.annotation.RstParam;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * План проверки и получения параметров запроса, построенный по классу с
+ * полями, отмеченными аннотацией {@link RstParam}. Аннотации разбираются
+ * один раз при создании плана, а при каждом запросе значение параметра
+ * находится один раз, проверяется от самых дешёвых проверок к разбору и
+ * сразу записывается в поле. Если проверка не проходит, то ошибка
+ * записывается соответствующим методом {@code assert...} валидатора, поэтому
+ * сообщения и пути ошибок такие же, как у написанного вручную валидатора.
+ * План используется связывателем {@link RestyRequestBinder#get}, если для
+ * класса нет созданного связывателя.
+ *
+ * <p>Планы неизменяемы и потокобезопасны.
+ *
+ * @param  <T>
+ *         Класс с описанием параметров.
+ */
+public final class RestyRequestPlan<T> extends RestyRequestBinder<T> {
+
+    /**
+     * Параметр запроса, связанный с полем.
+     */
+    private static final class Member {
+
+        final Field field;
+        final Param param;
+
+        /**
+         * Тип значения или {@code null} для строк.
+         */
+        final Type type;
+
+        final boolean required;
+
+        /**
+         * Ограничения на размер или {@code null}, если их нет.
+         */
+        final Size size;
+
+        /**
+         * Описание ошибки или {@code null} для сообщения по умолчанию.
+         */
+        final String message;
+
+        Member(Field field, RstParam annotation, Type type) {
+            this.field = field;
+            String name = annotation.value();
+            param = RestyRequest.param(name.isEmpty()
+                    ? field.getName() : name);
+            this.type = type;
+            required = annotation.required();
+            size = (annotation.minSize() == 0
+                    && annotation.maxSize() == Integer.MAX_VALUE
+                    ? null
+                    : RestyRequest.size(annotation.minSize(),
+                            annotation.maxSize()));
+            message = (annotation.message().isEmpty()
+                    ? null : annotation.message());
+        }
+
+        Message message() {
+            return (message == null ? null : RestyRequest.message(message));
+        }
+
+    }
+
+    private static final String MSG_ANNOTATION_INVALID_USING =
+            "Invalid annotation '%2$s' using in '%1$s' class";
+    private static final String MSG_CONSTRUCTOR_ABSENT =
+            "Cann't find default constructor in '%1$s' class";
+    private static final String MSG_CREATE_FAIL =
+            "Cann't create instance of '%1$s' class";
+    private static final String MSG_PARAM_DUPLICATION =
+            "Duplication of request param '%2$s' mapping in '%1$s' class";
+    private static final String MSG_SET_FAIL =
+            "Cann't set field '%2$s' value in '%1$s' class";
+    private static final String MSG_UNSUPPORTED_TYPE =
+            "Unsupported type of field '%2$s' in '%1$s' class";
+
+    private static final String LOCAL_DATE = "java.time.LocalDate";
+
+    private static final Map<Class<?>, Type> TYPES = new HashMap<>();
+
+    static {
+        TYPES.put(Boolean.class, Type.BOOLEAN);
+        TYPES.put(Boolean.TYPE, Type.BOOLEAN);
+        TYPES.put(Date.class, Type.DATE);
+        TYPES.put(Float.class, Type.FLOAT);
+        TYPES.put(Float.TYPE, Type.FLOAT);
+        TYPES.put(Integer.class, Type.INTEGER);
+        TYPES.put(Integer.TYPE, Type.INTEGER);
+        TYPES.put(Long.class, Type.LONG);
+        TYPES.put(Long.TYPE, Type.LONG);
+        TYPES.put(Short.class, Type.SHORT);
+        TYPES.put(Short.TYPE, Type.SHORT);
+    }
+
+    private static final ConcurrentMap<Class<?>, RestyRequestPlan<?>> PLANS =
+            new ConcurrentHashMap<>();
+
+    private final Class<T> type;
+    private final Constructor<T> constructor;
+    private final Member[] members;
+
+    private RestyRequestPlan(Class<T> type) {
+        this.type = type;
+        try {
+            constructor = type.getDeclaredConstructor();
+        } catch (NoSuchMethodException ex) {
+            throw new IllegalArgumentException(String.format(
+                    MSG_CONSTRUCTOR_ABSENT, type.getName()), ex);
+        }
+        constructor.setAccessible(true);
+        List<Member> list = new ArrayList<>();
+        addMembers(type, list, new HashSet<String>());
+        members = list.toArray(new Member[list.size()]);
+    }
+
+    /**
+     * Возвращает план класса. Планы создаются один раз для каждого класса.
+     *
+     * @param  <T>
+     *         Класс с описанием параметров.
+     * @param  type
+     *         Класс с описанием параметров. Должен иметь конструктор без
+     *         параметров.
+     * @return  План.
+     * @throws  IllegalArgumentException
+     *          Если аннотации использованы неправильно.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> RestyRequestPlan<T> get(Class<T> type) {
+        RestyRequestPlan<T> plan = (RestyRequestPlan<T>) PLANS.get(type);
+        if (plan == null) {
+            plan = new RestyRequestPlan<>(type);
+            RestyRequestPlan<T> prev =
+                    (RestyRequestPlan<T>) PLANS.putIfAbsent(type, plan);
+            if (prev != null) {
+                plan = prev;
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * Проверяет параметры запроса и создаёт объект с их значениями. Поля,
+     * для которых параметр отсутствует, пуст или неправильный, сохраняют
+     * значения по умолчанию. Ошибки записываются в результат проверки
+     * запроса.
+     *
+     * @param  request
+     *         Запрос.
+     * @param  locale
+     *         Локаль, используемая для формирования сообщений об ошибках.
+     * @return  Объект с значениями параметров.
+     */
+    @Override
+    public T bind(RestyRequest request, Locale locale) {
+        T target;
+        try {
+            target = constructor.newInstance();
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException(String.format(
+                    MSG_CREATE_FAIL, type.getName()), ex);
+        }
+        run(request, locale, target);
+        return target;
+    }
+
+    /**
+     * Возвращает класс с описанием параметров.
+     *
+     * @return  Класс.
+     */
+    @Override
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * Проверяет параметры запроса. Ошибки записываются в результат проверки
+     * запроса.
+     *
+     * @param  request
+     *         Запрос.
+     * @param  locale
+     *         Локаль, используемая для формирования сообщений об ошибках.
+     * @return  {@code true}, если все проверки успешны.
+     */
+    @Override
+    public boolean validate(RestyRequest request, Locale locale) {
+        return run(request, locale, null);
+    }
+
+    private void addMembers(Class<?> cls, List<Member> list,
+            Set<String> names) {
+        Class<?> superclass = cls.getSuperclass();
+        if (superclass != null && superclass != Object.class) {
+            addMembers(superclass, list, names);
+        }
+        for (Field field : cls.getDeclaredFields()) {
+            RstParam annotation = field.getAnnotation(RstParam.class);
+            if (annotation == null) {
+                continue;
+            }
+            int modifiers = field.getModifiers();
+            if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers)
+                    || annotation.minSize() < 0
+                    || annotation.minSize() > annotation.maxSize()) {
+                throw new IllegalArgumentException(String.format(
+                        MSG_ANNOTATION_INVALID_USING, type.getName(),
+                        RstParam.class.getSimpleName()));
+            }
+            Class<?> fieldType = field.getType();
+            Type valueType;
+            if (fieldType == String.class) {
+                valueType = null;
+            } else if (fieldType.getName().equals(LOCAL_DATE)) {
+                valueType = Type.LOCAL_DATE;
+            } else {
+                valueType = TYPES.get(fieldType);
+                if (valueType == null) {
+                    throw new IllegalArgumentException(String.format(
+                            MSG_UNSUPPORTED_TYPE, type.getName(),
+                            field.getName()));
+                }
+            }
+            Member member = new Member(field, annotation, valueType);
+            if (!names.add(member.param.paramName)) {
+                throw new IllegalArgumentException(String.format(
+                        MSG_PARAM_DUPLICATION, type.getName(),
+                        member.param.paramName));
+            }
+            field.setAccessible(true);
+            list.add(member);
+        }
+    }
+
+    private static void assertType(RestyValidator validator, Member member) {
+        Param param = member.param;
+        Message message = member.message();
+        switch (member.type) {
+            case BOOLEAN:
+                validator.assertBoolean(param, message);
+                break;
+            case DATE:
+            case LOCAL_DATE:
+                validator.assertDate(param, message);
+                break;
+            case FLOAT:
+                validator.assertFloat(param, message);
+                break;
+            case INTEGER:
+                validator.assertInteger(param, message);
+                break;
+            case LONG:
+                validator.assertLong(param, message);
+                break;
+            case SHORT:
+                validator.assertShort(param, message);
+                break;
+            default:
+                throw new AssertionError(member.type);
+        }
+    }
+
+    private boolean run(RestyRequest request, Locale locale, T target) {
+        RestyValidator validator = null;
+        for (Member member : members) {
+            String value = null;
+            Object parsed = null;
+            boolean empty;
+            if (member.type == null || member.size != null) {
+                value = request.getString(member.param);
+                empty = (value == null || value.isEmpty());
+            } else {
+                parsed = request.getParsed(member.param, member.type);
+                empty = (parsed == null);
+            }
+            if (empty) {
+                if (member.required) {
+                    if (validator == null) {
+                        validator = request.new RestyValidator(locale);
+                    }
+                    validator.assertNotEmpty(member.param, member.message());
+                }
+                continue;
+            }
+            if (member.size != null && (value.length() < member.size.min
+                    || value.length() > member.size.max)) {
+                if (validator == null) {
+                    validator = request.new RestyValidator(locale);
+                }
+                validator.assertSize(member.param, member.size,
+                        member.message());
+                continue;
+            }
+            if (member.type == null) {
+                parsed = value;
+            } else if (parsed == null) {
+                parsed = request.getParsed(member.param, member.type);
+            }
+            if (parsed == RestyValueCache.INVALID) {
+                if (validator == null) {
+                    validator = request.new RestyValidator(locale);
+                }
+                assertType(validator, member);
+                continue;
+            }
+            if (target != null) {
+                set(member, target, parsed instanceof Date
+                        ? ((Date) parsed).clone() : parsed);
+            }
+        }
+        return (validator == null);
+    }
+
+    private void set(Member member, T target, Object value) {
+        try {
+            member.field.set(target, value);
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException(String.format(MSG_SET_FAIL,
+                    type.getName(), member.field.getName()), ex);
+        }
+    }
+
+}
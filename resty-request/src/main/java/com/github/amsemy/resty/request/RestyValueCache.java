@@ -0,0 +1,219 @@
+package com.github.amsemy.resty.request;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Кэш разобранных значений параметров запроса. Общий для запроса и всех его
+ * подзапросов, поэтому значение разбирается не более одного раза для каждого
+ * ключа, номера элемента и типа, сколько бы раз его ни проверяли и ни
+ * получали.
+ *
+ * <p>Значение хранится вместе со строкой, из которой оно получено, и
+ * используется, только пока параметр содержит тот же экземпляр строки, так
+ * что изменение параметров запроса не требует сброса кэша.
+ *
+ * <p>Кэш не является потокобезопасным.
+ */
+final class RestyValueCache {
+
+    /**
+     * Признак строки, которая не является значением нужного типа.
+     */
+    static final Object INVALID = new Object();
+
+    /**
+     * Тип значения параметра.
+     */
+    enum Type {
+
+        BOOLEAN {
+            @Override
+            Object parse(String value, RestyDateFormat dateFormat) {
+                return (RestyParsers.isBoolean(value)
+                        ? Boolean.valueOf(value.equalsIgnoreCase("true"))
+                        : INVALID);
+            }
+
+            @Override
+            Object valueOf(String value, RestyDateFormat dateFormat) {
+                if (value.equalsIgnoreCase("true")) {
+                    return true;
+                } else if (value.equalsIgnoreCase("false")) {
+                    return false;
+                } else {
+                    throw new IllegalArgumentException("Not a boolean value");
+                }
+            }
+        },
+
+        DATE {
+            @Override
+            Object parse(String value, RestyDateFormat dateFormat) {
+                Date result = dateFormat.tryParse(value);
+                return (result == null ? INVALID : result);
+            }
+
+            @Override
+            Object valueOf(String value, RestyDateFormat dateFormat) {
+                return dateFormat.parse(value);
+            }
+        },
+
+        FLOAT {
+            @Override
+            Object parse(String value, RestyDateFormat dateFormat) {
+                return (RestyParsers.isFloat(value)
+                        ? Float.valueOf(RestyParsers.parseFloat(value, 0))
+                        : INVALID);
+            }
+
+            @Override
+            Object valueOf(String value, RestyDateFormat dateFormat) {
+                return Float.parseFloat(value);
+            }
+        },
+
+        INTEGER {
+            @Override
+            Object parse(String value, RestyDateFormat dateFormat) {
+                return (RestyParsers.isLong(value, Integer.MIN_VALUE,
+                        Integer.MAX_VALUE)
+                        ? Integer.valueOf((int) RestyParsers.parseLong(value,
+                                Integer.MIN_VALUE, Integer.MAX_VALUE, 0))
+                        : INVALID);
+            }
+
+            @Override
+            Object valueOf(String value, RestyDateFormat dateFormat) {
+                return Integer.parseInt(value);
+            }
+        },
+
+        // Требует Java 8 и выше.
+        LOCAL_DATE {
+            @Override
+            Object parse(String value, RestyDateFormat dateFormat) {
+                Object result = dateFormat.tryParseLocalDate(value);
+                return (result == null ? INVALID : result);
+            }
+
+            @Override
+            Object valueOf(String value, RestyDateFormat dateFormat) {
+                return dateFormat.parseLocalDate(value);
+            }
+        },
+
+        LONG {
+            @Override
+            Object parse(String value, RestyDateFormat dateFormat) {
+                return (RestyParsers.isLong(value, Long.MIN_VALUE,
+                        Long.MAX_VALUE)
+                        ? Long.valueOf(RestyParsers.parseLong(value,
+                                Long.MIN_VALUE, Long.MAX_VALUE, 0))
+                        : INVALID);
+            }
+
+            @Override
+            Object valueOf(String value, RestyDateFormat dateFormat) {
+                return Long.parseLong(value);
+            }
+        },
+
+        SHORT {
+            @Override
+            Object parse(String value, RestyDateFormat dateFormat) {
+                return (RestyParsers.isLong(value, Short.MIN_VALUE,
+                        Short.MAX_VALUE)
+                        ? Short.valueOf((short) RestyParsers.parseLong(value,
+                                Short.MIN_VALUE, Short.MAX_VALUE, 0))
+                        : INVALID);
+            }
+
+            @Override
+            Object valueOf(String value, RestyDateFormat dateFormat) {
+                return Short.parseShort(value);
+            }
+        };
+
+        /**
+         * Разбирает строку без исключений.
+         *
+         * @param  value
+         *         Непустая строка.
+         * @param  dateFormat
+         *         Формат дат.
+         * @return  Значение или {@link #INVALID}.
+         */
+        abstract Object parse(String value, RestyDateFormat dateFormat);
+
+        /**
+         * Разбирает строку так же, как {@link #parse}, но сообщает об ошибке
+         * исключением.
+         *
+         * @param  value
+         *         Непустая строка.
+         * @param  dateFormat
+         *         Формат дат.
+         * @return  Значение.
+         * @throws  IllegalArgumentException
+         *          Если строка не является значением этого типа.
+         */
+        abstract Object valueOf(String value, RestyDateFormat dateFormat);
+
+    }
+
+    private static final class Entry {
+
+        final int index;
+        final Type type;
+        final Entry next;
+        String source;
+        Object value;
+
+        Entry(int index, Type type, Entry next) {
+            this.index = index;
+            this.type = type;
+            this.next = next;
+        }
+
+    }
+
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    /**
+     * Возвращает разобранное значение параметра, разбирая строку только если
+     * для неё ещё нет значения.
+     *
+     * @param  key
+     *         Ключ параметра.
+     * @param  index
+     *         Номер элемента массива значений параметра.
+     * @param  type
+     *         Тип значения.
+     * @param  value
+     *         Непустая строка, содержащаяся в параметре.
+     * @param  dateFormat
+     *         Формат дат.
+     * @return  Значение или {@link #INVALID}.
+     */
+    Object get(String key, int index, Type type, String value,
+            RestyDateFormat dateFormat) {
+        Entry first = entries.get(key);
+        Entry entry = first;
+        while (entry != null && (entry.index != index || entry.type != type)) {
+            entry = entry.next;
+        }
+        if (entry == null) {
+            entry = new Entry(index, type, first);
+            entries.put(key, entry);
+        }
+        if (entry.source != value) {
+            entry.value = type.parse(value, dateFormat);
+            entry.source = value;
+        }
+        return entry.value;
+    }
+
+}
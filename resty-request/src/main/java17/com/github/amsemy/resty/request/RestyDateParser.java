@@ -0,0 +1,78 @@
+package com.github.amsemy.resty.request;
+
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Разбор дат вида {@code yyyy-MM-dd} без создания {@link SimpleDateFormat}.
+ * Реализация для Java 17 и выше: если календарь локали по умолчанию
+ * григорианский, то даты после перехода на него разбираются через
+ * {@code java.time}. Даты в других календарях (например, буддийском для
+ * {@code th_TH}) разбираются {@link SimpleDateFormat}, как и в реализации
+ * для Java 7. Он же разбирает даты, для которых смещение часового пояса
+ * {@link TimeZone} расходится с правилами {@code java.time}: например, до
+ * перехода на поясное время {@code java.time} использует местное среднее
+ * время, а {@link TimeZone} — стандартное смещение пояса.
+ */
+final class RestyDateParser {
+
+    private static final String GREGORIAN = "gregory";
+    private static final int MIN_FAST_YEAR = 1600;
+
+    /**
+     * Последняя локаль, для которой календарь оказался григорианским.
+     */
+    private static volatile Locale gregorianLocale;
+
+    private RestyDateParser() {
+    }
+
+    /**
+     * Разбирает дату в часовом поясе по умолчанию.
+     *
+     * @param  value
+     *         Строка с датой.
+     * @return  Дата или {@code null}, если строка имеет другой вид, поля
+     *          вне пределов, календарь не григорианский или смещения
+     *          часового пояса расходятся; такие строки разбираются
+     *          {@link SimpleDateFormat}.
+     */
+    static Date parse(String value) {
+        int date = RestyParsers.parseDate(value);
+        if (date < MIN_FAST_YEAR * 10000 || !isGregorian()) {
+            return null;
+        }
+        TimeZone timeZone = TimeZone.getDefault();
+        ZoneId zone = timeZone.toZoneId();
+        Instant instant = LocalDate.of(date / 10000, date / 100 % 100,
+                date % 100).atStartOfDay(zone).toInstant();
+        long millis = instant.toEpochMilli();
+        if (timeZone.getOffset(millis) != zone.getRules().getOffset(instant)
+                .getTotalSeconds() * 1000L) {
+            return null;
+        }
+        return new Date(millis);
+    }
+
+    private static boolean isGregorian() {
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        if (locale.equals(gregorianLocale)) {
+            return true;
+        }
+        // BuddhistCalendar наследует GregorianCalendar, поэтому проверяется
+        // вид календаря
+        if (Calendar.getInstance(locale).getCalendarType().equals(
+                GREGORIAN)) {
+            gregorianLocale = locale;
+            return true;
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,159 @@
+package com.github.amsemy.resty.request;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Отображение параметров запроса, сообщающее об изменении набора имён
+ * параметров. Реализация для Java 17 и выше: кроме методов, отслеживаемых
+ * реализацией для Java 7, отслеживаются {@link #compute},
+ * {@link #computeIfAbsent}, {@link #computeIfPresent}, {@link #merge},
+ * {@link #putIfAbsent} и {@link #remove(Object, Object)}.
+ */
+abstract class RestyParamsMap extends HashMap<String, List<String>> {
+
+    RestyParamsMap(int initialCapacity) {
+        super(initialCapacity);
+    }
+
+    RestyParamsMap(Map<String, List<String>> map) {
+        super(map);
+    }
+
+    /**
+     * Вызывается после того, как параметр мог появиться.
+     *
+     * @param  key
+     *         Имя параметра.
+     */
+    abstract void keyAdded(String key);
+
+    /**
+     * Вызывается, когда параметры удалены или могут быть изменены через
+     * представления.
+     */
+    abstract void keysChanged();
+
+    /**
+     * Возвращает множество имён параметров, не сообщая об изменениях.
+     *
+     * @return  Множество имён параметров.
+     */
+    final Set<String> keys() {
+        return super.keySet();
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        keysChanged();
+    }
+
+    @Override
+    public List<String> compute(String key, BiFunction<? super String,
+            ? super List<String>, ? extends List<String>> remappingFunction) {
+        boolean contained = containsKey(key);
+        List<String> result = super.compute(key, remappingFunction);
+        keyUpdated(key, contained);
+        return result;
+    }
+
+    @Override
+    public List<String> computeIfAbsent(String key,
+            Function<? super String, ? extends List<String>> mappingFunction) {
+        boolean contained = containsKey(key);
+        List<String> result = super.computeIfAbsent(key, mappingFunction);
+        keyUpdated(key, contained);
+        return result;
+    }
+
+    @Override
+    public List<String> computeIfPresent(String key, BiFunction<? super String,
+            ? super List<String>, ? extends List<String>> remappingFunction) {
+        boolean contained = containsKey(key);
+        List<String> result = super.computeIfPresent(key, remappingFunction);
+        keyUpdated(key, contained);
+        return result;
+    }
+
+    @Override
+    public Set<Map.Entry<String, List<String>>> entrySet() {
+        keysChanged();
+        return super.entrySet();
+    }
+
+    @Override
+    public Set<String> keySet() {
+        keysChanged();
+        return super.keySet();
+    }
+
+    @Override
+    public List<String> merge(String key, List<String> value,
+            BiFunction<? super List<String>, ? super List<String>,
+                    ? extends List<String>> remappingFunction) {
+        boolean contained = containsKey(key);
+        List<String> result = super.merge(key, value, remappingFunction);
+        keyUpdated(key, contained);
+        return result;
+    }
+
+    @Override
+    public List<String> put(String key, List<String> value) {
+        List<String> result = super.put(key, value);
+        keyAdded(key);
+        return result;
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ? extends List<String>> m) {
+        super.putAll(m);
+        for (String key : m.keySet()) {
+            keyAdded(key);
+        }
+    }
+
+    @Override
+    public List<String> putIfAbsent(String key, List<String> value) {
+        List<String> result = super.putIfAbsent(key, value);
+        keyAdded(key);
+        return result;
+    }
+
+    @Override
+    public List<String> remove(Object key) {
+        keysChanged();
+        return super.remove(key);
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        boolean result = super.remove(key, value);
+        if (result) {
+            keysChanged();
+        }
+        return result;
+    }
+
+    @Override
+    public Collection<List<String>> values() {
+        keysChanged();
+        return super.values();
+    }
+
+    private void keyUpdated(String key, boolean contained) {
+        if (containsKey(key)) {
+            if (!contained) {
+                keyAdded(key);
+            }
+        } else if (contained) {
+            keysChanged();
+        }
+    }
+
+}
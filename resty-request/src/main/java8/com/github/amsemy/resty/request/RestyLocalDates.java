@@ -0,0 +1,100 @@
+package com.github.amsemy.resty.request;
+
+import com.github.amsemy.resty.request.RestyRequest.Param;
+import com.github.amsemy.resty.request.RestyValueCache.Type;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * Даты без времени в параметрах запроса. Класс собирается для Java 8 и выше,
+ * остальные классы пакета работают и на Java 7.
+ *
+ * <p>Строки, которые не являются датой вида {@code yyyy-MM-dd} с полями в
+ * допустимых пределах, разбираются форматом дат как {@link Date} в часовом
+ * поясе по умолчанию.
+ */
+public final class RestyLocalDates {
+
+    /**
+     * Реализация фабрики дат для классов, собираемых для Java 7.
+     */
+    static final class Factory extends RestyLocalDateFactory {
+
+        public Factory() {
+        }
+
+        @Override
+        Object of(int date) {
+            return LocalDate.of(date / 10000, date / 100 % 100, date % 100);
+        }
+
+        @Override
+        Object of(Date date) {
+            return date.toInstant().atZone(ZoneId.systemDefault())
+                    .toLocalDate();
+        }
+
+    }
+
+    private RestyLocalDates() {
+    }
+
+    /**
+     * Разбирает дату без времени.
+     *
+     * @param  dateFormat
+     *         Формат дат.
+     * @param  value
+     *         Строка с датой.
+     * @return  Дата.
+     * @throws  IllegalArgumentException
+     *          Если строка не является датой.
+     */
+    public static LocalDate parse(RestyDateFormat dateFormat, String value) {
+        return (LocalDate) dateFormat.parseLocalDate(value);
+    }
+
+    /**
+     * Возвращает значение параметра запроса как LocalDate.
+     *
+     * @param  request
+     *         Запрос.
+     * @param  paramName
+     *         Имя параметра.
+     * @return  Значение параметра.
+     */
+    public static LocalDate get(RestyRequest request, String paramName) {
+        return get(request, paramName, 0);
+    }
+
+    /**
+     * Возвращает значение параметра запроса как LocalDate.
+     *
+     * @param  request
+     *         Запрос.
+     * @param  paramName
+     *         Имя параметра.
+     * @param  index
+     *         Номер элемента массива значений параметра.
+     * @return  Значение параметра.
+     */
+    public static LocalDate get(RestyRequest request, String paramName,
+            int index) {
+        return (LocalDate) request.parsed(paramName, index, Type.LOCAL_DATE);
+    }
+
+    /**
+     * Возвращает значение параметра запроса как LocalDate.
+     *
+     * @param  request
+     *         Запрос.
+     * @param  param
+     *         Параметр запроса.
+     * @return  Значение параметра.
+     */
+    public static LocalDate get(RestyRequest request, Param param) {
+        return (LocalDate) request.parsed(param, Type.LOCAL_DATE);
+    }
+
+}
@@ -0,0 +1,164 @@
+package com.github.amsemy.resty.request;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@SuppressWarnings("EmptyCatchBlock")
+public class RestyDateFormatTest {
+
+    private static final String[] DATES = {
+            "2020-01-31", "2020-13-45", "0000-00-00", "2020-1-5",
+            "2020-01-01abc", "20-01-01", "2020-01", "2020/01/01", "abc", "",
+            " 2020-01-01", "-2020-01-01", "2000-02-29", "2021-02-29",
+            "1500-02-29", "1582-10-10", "0001-01-01", "9999-12-31"};
+
+    private static Date parse(String pattern, String s) {
+        try {
+            return new SimpleDateFormat(pattern).parse(s);
+        } catch (ParseException ex) {
+            return null;
+        }
+    }
+
+    @Test
+    public void testIsDate() {
+        RestyDateFormat df = RestyDateFormat.getDefault();
+        for (String s : DATES) {
+            assertEquals(s, parse("yyyy-MM-dd", s) != null, df.isDate(s));
+        }
+        df = new RestyDateFormat("dd.MM.yyyy");
+        assertTrue(df.isDate("07.09.2010"));
+        assertFalse(df.isDate("2010-09-07"));
+    }
+
+    @Test
+    public void testParse() {
+        RestyDateFormat df = RestyDateFormat.getDefault();
+        for (String s : DATES) {
+            Date expected = parse("yyyy-MM-dd", s);
+            if (expected != null) {
+                assertEquals(s, expected, df.parse(s));
+            } else {
+                try {
+                    df.parse(s);
+                    fail(s);
+                } catch (IllegalArgumentException ex) {
+                }
+            }
+        }
+        df = new RestyDateFormat("dd.MM.yyyy");
+        assertEquals(parse("dd.MM.yyyy", "07.09.2010"),
+                df.parse("07.09.2010"));
+    }
+
+    @Test
+    public void testParse_DefaultCalendar() throws Exception {
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        Locale.setDefault(Locale.Category.FORMAT, new Locale("th", "TH"));
+        try {
+            final RestyDateFormat df = new RestyDateFormat(
+                    RestyDateFormat.DEFAULT_PATTERN);
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                for (final String s : DATES) {
+                    Date expected = parse("yyyy-MM-dd", s);
+                    Date actual = executor.submit(new Callable<Date>() {
+
+                        @Override
+                        public Date call() {
+                            return df.tryParse(s);
+                        }
+
+                    }).get();
+                    assertEquals(s, expected, actual);
+                }
+            } finally {
+                executor.shutdown();
+            }
+            assertFalse(new GregorianCalendar(2020, 0, 15).getTime().equals(
+                    parse("yyyy-MM-dd", "2020-01-15")));
+        } finally {
+            Locale.setDefault(Locale.Category.FORMAT, locale);
+        }
+    }
+
+    @Test
+    public void testParse_DefaultTimeZone() {
+        String[] dates = {
+                "1600-01-01", "1886-07-08", "1899-12-31", "1919-07-01",
+                "1942-01-01", "1981-04-01", "2018-11-04", "2020-03-29"};
+        TimeZone timeZone = TimeZone.getDefault();
+        try {
+            for (String id : new String[] {"Europe/Moscow",
+                    "America/Sao_Paulo", "Asia/Kolkata", "UTC"}) {
+                TimeZone.setDefault(TimeZone.getTimeZone(id));
+                RestyDateFormat df = RestyDateFormat.getDefault();
+                for (String s : dates) {
+                    assertEquals(id + " " + s, parse("yyyy-MM-dd", s),
+                            df.parse(s));
+                }
+            }
+        } finally {
+            TimeZone.setDefault(timeZone);
+        }
+    }
+
+    @Test
+    public void testPattern() {
+        assertEquals(RestyDateFormat.DEFAULT_PATTERN,
+                RestyDateFormat.getDefault().getPattern());
+        assertEquals("dd.MM.yyyy",
+                new RestyDateFormat("dd.MM.yyyy").getPattern());
+        try {
+            new RestyDateFormat("qq");
+            fail();
+        } catch (IllegalArgumentException ex) {
+        }
+    }
+
+    @Test
+    public void testThreads() throws Exception {
+        final RestyDateFormat df = new RestyDateFormat("dd.MM.yyyy");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t ++) {
+                final int day = t + 1;
+                results.add(executor.submit(new Callable<Boolean>() {
+
+                    @Override
+                    public Boolean call() {
+                        String s = "0" + day + ".09.2010";
+                        Date expected = parse("dd.MM.yyyy", s);
+                        for (int i = 0; i < 1000; i ++) {
+                            if (!expected.equals(df.parse(s))) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.github.amsemy.resty.request;
+
+import org.junit.Test;
+import static com.github.amsemy.resty.request.RestyRequest.*;
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+
+@SuppressWarnings("EmptyCatchBlock")
+public class RestyLocalDatesTest {
+
+    @Test
+    public void testParse() {
+        RestyDateFormat df = RestyDateFormat.getDefault();
+        assertEquals(LocalDate.of(2020, 1, 31),
+                RestyLocalDates.parse(df, "2020-01-31"));
+        assertEquals(LocalDate.of(2000, 2, 29),
+                RestyLocalDates.parse(df, "2000-02-29"));
+        assertEquals(LocalDate.of(2021, 3, 1),
+                RestyLocalDates.parse(df, "2021-02-29"));
+        assertEquals(LocalDate.of(2020, 1, 1),
+                RestyLocalDates.parse(df, "2020-01-01abc"));
+        try {
+            RestyLocalDates.parse(df, "2020/01/01");
+            fail();
+        } catch (IllegalArgumentException ex) {
+        }
+        df = new RestyDateFormat("dd.MM.yyyy");
+        assertEquals(LocalDate.of(2010, 9, 7),
+                RestyLocalDates.parse(df, "07.09.2010"));
+    }
+
+    @Test
+    public void testGet_String() {
+        RestyParams params = RestyParams.buildEmptyParams();
+        params.put("emptyKey", null);
+        params.add("singleEmpty", "");
+        params.add("a", "2001-01-01");
+        params.add("b", "01.01.01");
+        params.add("c", "2001-13-01");
+        RestyRequest req = new RestyRequest(params);
+
+        assertNull(RestyLocalDates.get(req, "emptyKey"));
+        assertNull(RestyLocalDates.get(req, "singleEmpty"));
+        assertNull(RestyLocalDates.get(req, "missing"));
+
+        assertEquals(LocalDate.of(2001, 1, 1), RestyLocalDates.get(req, "a"));
+        assertEquals(LocalDate.of(2002, 1, 1), RestyLocalDates.get(req, "c"));
+        try {
+            RestyLocalDates.get(req, "b");
+            fail();
+        } catch (IllegalArgumentException ex) {
+        }
+    }
+
+    @Test
+    public void testGet_Param() {
+        RestyParams params = RestyParams.buildEmptyParams();
+        params.put("emptyKey", null);
+        params.add("a", "1999-04-24");
+        params.add("a", "2005-12-30");
+        RestyRequest req = new RestyRequest(params);
+
+        assertNull(RestyLocalDates.get(req, param("emptyKey", 0)));
+        assertEquals(LocalDate.of(1999, 4, 24),
+                RestyLocalDates.get(req, param("a", 0)));
+        assertEquals(LocalDate.of(2005, 12, 30),
+                RestyLocalDates.get(req, "a", 1));
+        assertEquals(LocalDate.of(2005, 12, 30),
+                RestyLocalDates.get(req, req.prepare("a", 1)));
+    }
+
+}
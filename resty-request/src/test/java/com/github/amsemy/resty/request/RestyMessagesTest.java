@@ -0,0 +1,78 @@
+package com.github.amsemy.resty.request;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.Formattable;
+import java.util.Formatter;
+import java.util.Locale;
+import java.util.MissingResourceException;
+
+@SuppressWarnings("EmptyCatchBlock")
+public class RestyMessagesTest {
+
+    private static final String[] PATTERNS = {
+            "", "plain", "%s", "a %s b %s", "%2$s %1$s", "%1$s %1$s %s",
+            "100%%", "line%nline", "%d", "%.2f", "%-5s|", "%S", "%", "%0$s",
+            "%1$d", "%12345$s"};
+
+    private static final Formattable FORMATTABLE = new Formattable() {
+
+        @Override
+        public void formatTo(Formatter formatter, int flags, int width,
+                int precision) {
+            formatter.format("formattable");
+        }
+
+    };
+
+    private static String format(String pattern, Object... args) {
+        try {
+            return String.format(pattern, args);
+        } catch (RuntimeException ex) {
+            return ex.getClass().getName();
+        }
+    }
+
+    private static String template(String pattern, Object... args) {
+        try {
+            return new RestyMessages.Template(pattern).format(args);
+        } catch (RuntimeException ex) {
+            return ex.getClass().getName();
+        }
+    }
+
+    @Test
+    public void testFormat() {
+        Object[][] argSets = {
+                {}, {1}, {1, 2.5}, {"x", null}, {FORMATTABLE, "y"}};
+        for (String pattern : PATTERNS) {
+            for (Object[] args : argSets) {
+                assertEquals(pattern, format(pattern, args),
+                        template(pattern, args));
+            }
+        }
+    }
+
+    @Test
+    public void testGet() {
+        String basename = RestyRequestTest.TestBundle.class.getName();
+        RestyMessages.Template template =
+                RestyMessages.get("keyC", basename, Locale.ENGLISH);
+
+        assertSame(template,
+                RestyMessages.get("keyC", basename, Locale.ENGLISH));
+        assertEquals("valueC %1$s %2$s", template.getPattern());
+        assertEquals("valueC a b", template.format("a", "b"));
+        for (int i = 0; i < 10; i ++) {
+            assertSame(template, RestyMessages.get("keyC", basename,
+                    new Locale("x" + i, "Y" + i)));
+        }
+        try {
+            RestyMessages.get("nonexistent", basename, Locale.ENGLISH);
+            fail();
+        } catch (MissingResourceException ex) {
+        }
+    }
+
+}
@@ -70,6 +70,29 @@ public class RestyParamsTest {
                 restyParams.get("d").toArray());
     }
 
+    @Test
+    public void testFindNode() {
+        RestyParams params = RestyParams.buildEmptyParams();
+        params.add("a[b][c]", "valueC");
+        params.add("a[d]", "valueD");
+        params.add("a]x[y]", "bad");
+
+        RestyParams.Node a = params.findNode(new String[] {"a"});
+        assertEquals("a", a.key);
+        assertEquals("a[b][c]", a.getChild("b").getChild("c").key);
+        assertNull(a.getChild("x"));
+        assertNull(params.findNode(new String[] {"a]x"}));
+
+        int version = params.getIndexVersion();
+        params.add("a[d]", "valueD1");
+        assertEquals(version, params.getIndexVersion());
+        params.add("a[e]", "valueE");
+        assertEquals("a[e]", a.getChild("e").key);
+        params.remove("a[e]");
+        assertNull(params.findNode(new String[] {"a", "e"}));
+        assertNotNull(params.findNode(new String[] {"a", "d"}));
+    }
+
     @Test
     public void testBuildEmptyParams() {
         RestyParams params = RestyParams.buildEmptyParams();
@@ -0,0 +1,154 @@
+package com.github.amsemy.resty.request;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+public class RestyParsersTest {
+
+    private static final String[] FLOATS = {
+            "0", "-0", "+0", "1", "-1", "1.", ".5", "-.5", "0.1", "3.14159",
+            "16777216", "16777217", "123456789", "0.0000001", "1e5", "1E-5",
+            "-1.5e+3", "1.5f", "2D", "NaN", "-NaN", "Infinity", "-Infinity",
+            " 1.5 ", "0x1p3", "0X1.8P1", "0x.8p1", "3.4028236e38", "1e-50",
+            "99999999.5", "0.30000001192092896"};
+
+    private static final String[] NOT_FLOATS = {
+            "", "-", "+", ".", "-.", "e5", "1e", "1e+", "1.2.3", "1f5",
+            "0x1", "0xp1", "NaNf", "Infinityx", "abc", "1,5", "--1", "١"};
+
+    private static final String[] LONGS = {
+            "0", "-0", "+7", "42", "-42", "9223372036854775807",
+            "-9223372036854775808", "١٢"};
+
+    private static final String[] NOT_LONGS = {
+            "", "-", "+", "1.0", "1e3", " 1", "9223372036854775808",
+            "-9223372036854775809", "99999999999999999999", "0x10"};
+
+    private static boolean isFloat(String s) {
+        try {
+            Float.parseFloat(s);
+            return true;
+        } catch (NumberFormatException ex) {
+            return false;
+        }
+    }
+
+    private static boolean isInteger(String s) {
+        try {
+            Integer.parseInt(s);
+            return true;
+        } catch (NumberFormatException ex) {
+            return false;
+        }
+    }
+
+    @Test
+    public void testIsBoolean() {
+        assertTrue(RestyParsers.isBoolean("True"));
+        assertTrue(RestyParsers.isBoolean("FALSE"));
+        assertFalse(RestyParsers.isBoolean("1"));
+        assertFalse(RestyParsers.isBoolean(""));
+    }
+
+    @Test
+    public void testIsDateForm() {
+        assertTrue(RestyParsers.isDateForm("2020-01-31"));
+        assertTrue(RestyParsers.isDateForm("2020-13-45"));
+        assertTrue(RestyParsers.isDateForm("0000-00-00"));
+        assertFalse(RestyParsers.isDateForm("2020-1-5"));
+        assertFalse(RestyParsers.isDateForm("2020/01/01"));
+        assertFalse(RestyParsers.isDateForm("2020-01-01abc"));
+        assertFalse(RestyParsers.isDateForm("-020-01-01"));
+    }
+
+    @Test
+    public void testParseDate() {
+        assertEquals(20200131, RestyParsers.parseDate("2020-01-31"));
+        assertEquals(20000229, RestyParsers.parseDate("2000-02-29"));
+        assertEquals(20240229, RestyParsers.parseDate("2024-02-29"));
+        assertEquals(101, RestyParsers.parseDate("0000-01-01"));
+        assertEquals(-1, RestyParsers.parseDate("1900-02-29"));
+        assertEquals(-1, RestyParsers.parseDate("2021-02-29"));
+        assertEquals(-1, RestyParsers.parseDate("2020-04-31"));
+        assertEquals(-1, RestyParsers.parseDate("2020-13-01"));
+        assertEquals(-1, RestyParsers.parseDate("2020-00-10"));
+        assertEquals(-1, RestyParsers.parseDate("2020-01-00"));
+        assertEquals(-1, RestyParsers.parseDate("2020-1-5"));
+    }
+
+    @Test
+    public void testIsFloat() {
+        for (String s : FLOATS) {
+            assertTrue(s, RestyParsers.isFloat(s));
+        }
+        for (String s : NOT_FLOATS) {
+            assertEquals(s, isFloat(s), RestyParsers.isFloat(s));
+        }
+    }
+
+    @Test
+    public void testIsLong() {
+        String[] values = {"0", "-0", "+1", "2147483647", "2147483648",
+                "-2147483648", "-2147483649", "١٢", "", "-", "1.0", " 1",
+                "9223372036854775808"};
+        for (String s : values) {
+            assertEquals(s, isInteger(s), RestyParsers.isLong(s,
+                    Integer.MIN_VALUE, Integer.MAX_VALUE));
+        }
+        for (String s : LONGS) {
+            assertTrue(s, RestyParsers.isLong(s,
+                    Long.MIN_VALUE, Long.MAX_VALUE));
+        }
+        for (String s : NOT_LONGS) {
+            assertFalse(s, RestyParsers.isLong(s,
+                    Long.MIN_VALUE, Long.MAX_VALUE));
+        }
+    }
+
+    @Test
+    public void testParseBoolean() {
+        assertTrue(RestyParsers.parseBoolean("TRUE", false));
+        assertFalse(RestyParsers.parseBoolean("false", true));
+        assertTrue(RestyParsers.parseBoolean("yes", true));
+        assertFalse(RestyParsers.parseBoolean(null, false));
+    }
+
+    @Test
+    public void testParseFloat() {
+        for (String s : FLOATS) {
+            assertEquals(s, Float.floatToIntBits(Float.parseFloat(s)),
+                    Float.floatToIntBits(RestyParsers.parseFloat(s, -7f)));
+        }
+        for (String s : NOT_FLOATS) {
+            assertEquals(s, -7f, RestyParsers.parseFloat(s, -7f), 0f);
+        }
+        assertEquals(-7f, RestyParsers.parseFloat(null, -7f), 0f);
+        Random random = new Random(1);
+        for (int i = 0; i < 10000; i ++) {
+            String s = Integer.toString(random.nextInt(100000000));
+            int point = random.nextInt(s.length() + 1);
+            s = s.substring(0, point) + "." + s.substring(point);
+            assertEquals(s, Float.parseFloat(s),
+                    RestyParsers.parseFloat(s, Float.NaN), 0f);
+        }
+    }
+
+    @Test
+    public void testParseLong() {
+        for (String s : LONGS) {
+            assertEquals(s, Long.parseLong(s), RestyParsers.parseLong(s,
+                    Long.MIN_VALUE, Long.MAX_VALUE, -7));
+        }
+        for (String s : NOT_LONGS) {
+            assertEquals(s, -7, RestyParsers.parseLong(s,
+                    Long.MIN_VALUE, Long.MAX_VALUE, -7));
+        }
+        assertEquals(-7, RestyParsers.parseLong("32768",
+                Short.MIN_VALUE, Short.MAX_VALUE, -7));
+        assertEquals(-32768, RestyParsers.parseLong("-32768",
+                Short.MIN_VALUE, Short.MAX_VALUE, -7));
+    }
+
+}
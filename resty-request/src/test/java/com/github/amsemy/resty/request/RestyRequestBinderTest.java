@@ -0,0 +1,100 @@
+package com.github.amsemy.resty.request;
+
+import com.github.amsemy.resty.request.RestyRequest.RestyValidator;
+import com.github.amsemy.resty.request.RestyRequestBinderTest.Bound;
+import com.github.amsemy.resty.request.annotation.RstParam;
+import org.junit.Test;
+import static com.github.amsemy.resty.request.RestyRequest.*;
+import static org.junit.Assert.*;
+
+import java.util.Locale;
+
+public class RestyRequestBinderTest {
+
+    public static class Planned {
+
+        @RstParam(required = true)
+        String name;
+
+    }
+
+    public static class Bound {
+
+        String name;
+
+    }
+
+    @Test
+    public void testGet() {
+        RestyRequestBinder<Planned> planned =
+                RestyRequestBinder.get(Planned.class);
+        RestyRequestBinder<Bound> bound = RestyRequestBinder.get(Bound.class);
+
+        assertSame(RestyRequestPlan.get(Planned.class), planned);
+        assertSame(planned, RestyRequestBinder.get(Planned.class));
+        assertTrue(bound instanceof RestyRequestBinderTest_Bound_RestyBinder);
+        assertSame(bound, RestyRequestBinder.get(Bound.class));
+    }
+
+    @Test
+    public void testGetBinderName() {
+        assertEquals(
+                "com.github.amsemy.resty.request.RestyRequestBinderTest_"
+                        + "Bound_RestyBinder",
+                RestyRequestBinder.getBinderName(Bound.class));
+    }
+
+    @Test
+    public void testAssert() {
+        RestyParams params = RestyParams.buildEmptyParams();
+        RestyRequest req = new RestyRequest(params);
+        Bound bound = RestyRequestBinder.get(Bound.class)
+                .bind(req, Locale.ENGLISH);
+
+        assertNull(bound.name);
+        RestyRequest expected = new RestyRequest(params);
+        expected.new RestyValidator(Locale.ENGLISH) {
+
+            {
+                this.assertNotEmpty("name", null);
+            }
+
+        };
+        assertEquals(expected.getErrors(), req.getErrors());
+    }
+
+}
+
+class RestyRequestBinderTest_Bound_RestyBinder
+        extends RestyRequestBinder<Bound> {
+
+    private static final Param NAME = param("name");
+
+    public RestyRequestBinderTest_Bound_RestyBinder() {
+    }
+
+    @Override
+    public Bound bind(RestyRequest request, Locale locale) {
+        Bound target = new Bound();
+        if (validate(request, locale)) {
+            target.name = request.getString(NAME);
+        }
+        return target;
+    }
+
+    @Override
+    public Class<Bound> getType() {
+        return Bound.class;
+    }
+
+    @Override
+    public boolean validate(RestyRequest request, Locale locale) {
+        RestyValidator validator = null;
+        if (!request.checkNotEmpty(NAME)) {
+            validator = assertNotEmpty(validator, request, locale, NAME,
+                    null);
+        }
+        return (validator == null);
+    }
+
+}
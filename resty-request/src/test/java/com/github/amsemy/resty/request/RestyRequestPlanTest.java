@@ -0,0 +1,219 @@
+package com.github.amsemy.resty.request;
+
+import com.github.amsemy.resty.request.annotation.RstParam;
+import org.junit.Test;
+import static com.github.amsemy.resty.request.RestyRequest.*;
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+
+@SuppressWarnings("EmptyCatchBlock")
+public class RestyRequestPlanTest {
+
+    public static class Person {
+
+        @RstParam(required = true, maxSize = 5)
+        String name;
+
+        @RstParam("years")
+        int age = -1;
+
+        @RstParam
+        Integer height;
+
+        @RstParam
+        Date birthday;
+
+        @RstParam
+        LocalDate since;
+
+        @RstParam
+        boolean active;
+
+        @RstParam(message = "errCode")
+        Short code;
+
+        @RstParam
+        Float ratio;
+
+        @RstParam
+        Long id;
+
+        String ignored;
+
+    }
+
+    public static class Employee extends Person {
+
+        @RstParam(minSize = 2, maxSize = 3)
+        String dept;
+
+    }
+
+    public static class StaticParam {
+
+        @RstParam
+        static String name;
+
+    }
+
+    public static class UnsupportedType {
+
+        @RstParam
+        Object value;
+
+    }
+
+    public static class Duplication {
+
+        @RstParam("a")
+        String first;
+
+        @RstParam("a")
+        String second;
+
+    }
+
+    public static class NoConstructor {
+
+        @RstParam
+        String name;
+
+        public NoConstructor(String name) {
+            this.name = name;
+        }
+
+    }
+
+    private static RestyParams getValidParams(String prefix) {
+        RestyParams params = RestyParams.buildEmptyParams();
+        params.add(prefix + "name", "Ann");
+        params.add(prefix + "years", "42");
+        params.add(prefix + "height", "");
+        params.add(prefix + "birthday", "1980-02-29");
+        params.add(prefix + "since", "2010-09-07");
+        params.add(prefix + "active", "TRUE");
+        params.add(prefix + "code", "7");
+        params.add(prefix + "ratio", "1.5");
+        params.add(prefix + "id", "9000000000");
+        params.add(prefix + "ignored", "x");
+        return params;
+    }
+
+    @Test
+    public void testBind() {
+        RestyRequest req = new RestyRequest(getValidParams(""));
+        Person person = RestyRequestPlan.get(Person.class)
+                .bind(req, Locale.ENGLISH);
+        Calendar cal = Calendar.getInstance();
+
+        assertTrue(req.isValid());
+        assertEquals("Ann", person.name);
+        assertEquals(42, person.age);
+        assertNull(person.height);
+        cal.clear();
+        cal.set(1980, Calendar.FEBRUARY, 29);
+        assertEquals(cal.getTime(), person.birthday);
+        assertEquals(LocalDate.of(2010, 9, 7), person.since);
+        assertTrue(person.active);
+        assertEquals(Short.valueOf((short) 7), person.code);
+        assertEquals(Float.valueOf(1.5f), person.ratio);
+        assertEquals(Long.valueOf(9000000000L), person.id);
+        assertNull(person.ignored);
+
+        person.birthday.setTime(0);
+        assertEquals(cal.getTime(), req.getDate("birthday"));
+    }
+
+    @Test
+    public void testBindSubRequest() {
+        RestyParams params = getValidParams("emp[");
+        for (String key : params.keySet().toArray(new String[0])) {
+            params.put(key + "]", params.remove(key));
+        }
+        params.add("emp[dept]", "IT");
+        RestyRequest req = new RestyRequest(new RestyRequest(params), "emp");
+        Employee employee = RestyRequestPlan.get(Employee.class)
+                .bind(req, Locale.ENGLISH);
+
+        assertTrue(req.isValid());
+        assertEquals("Ann", employee.name);
+        assertEquals(42, employee.age);
+        assertEquals("IT", employee.dept);
+    }
+
+    @Test
+    public void testErrors() {
+        RestyParams params = RestyParams.buildEmptyParams();
+        params.add("name", "");
+        params.add("years", "x");
+        params.add("birthday", "1980/02/29");
+        params.add("code", "99999");
+        params.add("ratio", "1,5");
+        params.add("dept", "IT-dept");
+        RestyRequest req = new RestyRequest(params);
+        Employee employee = RestyRequestPlan.get(Employee.class)
+                .bind(req, Locale.ENGLISH);
+
+        assertFalse(req.isValid());
+        assertNull(employee.name);
+        assertEquals(-1, employee.age);
+        assertNull(employee.code);
+        assertNull(employee.dept);
+
+        RestyRequest expected = new RestyRequest(params);
+        expected.new RestyValidator(Locale.ENGLISH) {
+
+            {
+                this.assertNotEmpty("name", null);
+                this.assertInteger("years", null);
+                this.assertDate("birthday", null);
+                this.assertShort("code", message("errCode"));
+                this.assertFloat("ratio", null);
+                this.assertSize("dept", size(2, 3), null);
+            }
+
+        };
+        assertEquals(expected.getErrors(), req.getErrors());
+
+        RestyRequest other = new RestyRequest(params);
+        assertFalse(RestyRequestPlan.get(Employee.class)
+                .validate(other, Locale.ENGLISH));
+        assertEquals(expected.getErrors(), other.getErrors());
+    }
+
+    @Test
+    public void testGet() {
+        RestyRequestPlan<Person> plan = RestyRequestPlan.get(Person.class);
+
+        assertSame(plan, RestyRequestPlan.get(Person.class));
+        assertSame(Person.class, plan.getType());
+    }
+
+    @Test
+    public void testInvalidClasses() {
+        Class<?>[] classes = {
+                StaticParam.class, UnsupportedType.class, Duplication.class,
+                NoConstructor.class};
+        for (Class<?> cls : classes) {
+            try {
+                RestyRequestPlan.get(cls);
+                fail(cls.getName());
+            } catch (IllegalArgumentException ex) {
+            }
+        }
+    }
+
+    @Test
+    public void testValidate() {
+        RestyRequest req = new RestyRequest(getValidParams(""));
+
+        assertTrue(RestyRequestPlan.get(Person.class)
+                .validate(req, Locale.ENGLISH));
+        assertTrue(req.isValid());
+    }
+
+}
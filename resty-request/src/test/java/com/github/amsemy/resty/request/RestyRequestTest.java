@@ -5,7 +5,10 @@ import org.junit.Test;
 import static com.github.amsemy.resty.request.RestyRequest.*;
 import static org.junit.Assert.*;
 
+import java.time.LocalDate;
 import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.ListResourceBundle;
@@ -1688,6 +1691,31 @@ public class RestyRequestTest {
         }
     }
 
+    @Test
+    public void testGetDate_DateFormat() {
+        RestyParams params = getBaseSetOfParams();
+        params.add("a[b]", "07.09.2010");
+        params.add("a[c]", "2010-09-07");
+        RestyRequest req = new RestyRequest(params,
+                new RestyDateFormat("dd.MM.yyyy"));
+        RestyRequest sub = new RestyRequest(req, "a");
+        Calendar cal = Calendar.getInstance();
+
+        assertSame(req.getDateFormat(), sub.getDateFormat());
+        assertTrue(sub.checkDate("b"));
+        assertFalse(sub.checkDate("c"));
+        cal.clear();
+        cal.set(2010, Calendar.SEPTEMBER, 7);
+        assertEquals(cal.getTime(), sub.getDate("b"));
+        assertEquals(LocalDate.of(2010, 9, 7),
+                RestyLocalDates.get(sub, "b"));
+        try {
+            sub.getDate("c");
+            fail();
+        } catch (IllegalArgumentException ex) {
+        }
+    }
+
     @Test
     public void testGetErrors() {
         RestyParams params = getBaseSetOfParams();
@@ -1867,6 +1895,148 @@ public class RestyRequestTest {
         assertEquals(parentKeys, b.getParameterNames());
     }
 
+    @Test
+    public void testPrimitiveValues() {
+        RestyParams params = getBaseSetOfParams();
+        params.add("a", "42");
+        params.add("a", "x");
+        params.add("b", "99999");
+        params.add("c", "true");
+        params.add("d", "2.5");
+        params.add("e", "3000000000");
+        RestyRequest req = new RestyRequest(params);
+
+        assertEquals(42, req.getIntValue("a", -1));
+        assertEquals(-1, req.getIntValue(param("a", 1), -1));
+        assertEquals(-1, req.getIntValue(emptyKey, -1));
+        assertEquals(-1, req.getIntValue(singleNull, -1));
+        assertEquals(-1, req.getIntValue(singleEmpty, -1));
+        assertEquals(-1, req.getIntValue("none", -1));
+        assertEquals(-1, req.getIntValue("e", -1));
+        assertEquals(3000000000L, req.getLongValue("e", -1));
+        assertEquals(42, req.getShortValue("a", (short) -1));
+        assertEquals(-1, req.getShortValue("b", (short) -1));
+        assertTrue(req.getBooleanValue("c", false));
+        assertTrue(req.getBooleanValue(param("a", 1), true));
+        assertEquals(2.5f, req.getFloatValue("d", 0f), 0f);
+        assertEquals(0f, req.getFloatValue("c", 0f), 0f);
+    }
+
+    @Test
+    public void testPrepare() {
+        RestyParams params = RestyParams.buildEmptyParams();
+        params.add("a", "1");
+        params.add("sub[a]", "2");
+        params.add("sub[a]", "3");
+        params.add("sub[b]", "x");
+        RestyRequest req = new RestyRequest(params);
+        RestyRequest sub = new RestyRequest(req, "sub");
+
+        Key a = req.prepare("a");
+        Key subA = sub.prepare("a", 1);
+        Key subB = sub.prepare("b");
+        assertEquals(Integer.valueOf(1), req.getInteger(a));
+        assertEquals(Integer.valueOf(3), sub.getInteger(subA));
+        assertTrue(sub.checkInteger(subA));
+        assertFalse(sub.checkInteger(subB));
+        assertTrue(sub.checkNotEmpty(subB));
+        assertEquals("x", sub.getString(subB));
+
+        RestyRequest other = new RestyRequest(req, "sub");
+        assertEquals("3", other.getString(subA));
+        assertEquals("2", sub.getString(a));
+        assertNull(new RestyRequest(req, "none").getString(a));
+    }
+
+    @Test
+    public void testLazyMessages() {
+        RestyParams params = getBaseSetOfParams();
+        params.add("a", "1");
+        params.add("b", "x");
+        RestyRequest req = new RestyRequest(params);
+        final int[] calls = new int[1];
+
+        req.new RestyValidator(Locale.ENGLISH) {
+
+            @Override
+            protected String i18n(String key, String basename,
+                    Object... args) {
+                calls[0] ++;
+                return super.i18n(key, basename, args);
+            }
+
+            {
+                assertTrue(this.assertInteger("a", null));
+                assertTrue(this.assertSize("a", size(1, 2), null));
+                assertEquals(0, calls[0]);
+                assertFalse(this.assertInteger("b", null));
+                assertFalse(this.assertSize("b", size(2, 3), null));
+                assertEquals(2, calls[0]);
+            }
+
+        };
+        assertFalse(req.isValid());
+    }
+
+    @Test
+    public void testParsedValues() {
+        RestyParams params = getBaseSetOfParams();
+        params.add("a[b]", "1000");
+        params.add("a[c]", "2001-01-01");
+        params.add("a[d]", "x");
+        RestyRequest req = new RestyRequest(params);
+        RestyRequest sub = new RestyRequest(req, "a");
+
+        assertTrue(sub.checkInteger("b"));
+        Integer b = sub.getInteger("b");
+        assertEquals(Integer.valueOf(1000), b);
+        assertSame(b, sub.getInteger(param("b")));
+        assertSame(b, new RestyRequest(req, "a").getInteger("b"));
+        assertEquals(Long.valueOf(1000), sub.getLong("b"));
+
+        Date c = sub.getDate("c");
+        c.setTime(0);
+        assertEquals(LocalDate.of(2001, 1, 1),
+                RestyLocalDates.get(sub, "c"));
+        assertFalse(c.equals(sub.getDate("c")));
+
+        assertFalse(sub.checkInteger("d"));
+        try {
+            sub.getInteger("d");
+            fail();
+        } catch (NumberFormatException ex) {
+        }
+
+        params.put("a[b]", Collections.singletonList("2000"));
+        assertEquals(Integer.valueOf(2000), sub.getInteger("b"));
+        params.put("a[d]", Collections.singletonList("5"));
+        assertTrue(sub.checkInteger("d"));
+    }
+
+    @Test
+    public void testSubRequestIndex() {
+        RestyParams params = RestyParams.buildEmptyParams();
+        params.add("sub[a]", "valueA0");
+        params.add("subway[a]", "other");
+        RestyRequest sub = new RestyRequest(new RestyRequest(params), "sub");
+
+        assertEquals("valueA0", sub.getString("a"));
+        assertNull(sub.getString("b"));
+        assertFalse(sub.checkExists("b"));
+        assertEquals(Collections.singleton("a"), sub.getParameterNames());
+
+        params.add("sub[b]", "valueB0");
+        assertEquals("valueB0", sub.getString("b"));
+        params.remove("sub[a]");
+        assertFalse(sub.checkExists("a"));
+        assertEquals(Collections.singleton("b"), sub.getParameterNames());
+
+        RestyRequest missing = new RestyRequest(sub, "c");
+        assertNull(missing.getString("d"));
+        params.add("sub[c][d]", "valueD0");
+        assertEquals("valueD0", missing.getString("d"));
+    }
+
     @Test
     public void testGetShort_String() {
         RestyParams params = getBaseSetOfParams();
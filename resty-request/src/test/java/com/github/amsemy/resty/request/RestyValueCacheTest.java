@@ -0,0 +1,64 @@
+package com.github.amsemy.resty.request;
+
+import com.github.amsemy.resty.request.RestyValueCache.Type;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+public class RestyValueCacheTest {
+
+    private static final RestyDateFormat DF = RestyDateFormat.getDefault();
+
+    @Test
+    public void testGet() {
+        RestyValueCache cache = new RestyValueCache();
+        String value = "1000";
+
+        Object a = cache.get("a", 0, Type.INTEGER, value, DF);
+        assertEquals(1000, a);
+        assertSame(a, cache.get("a", 0, Type.INTEGER, value, DF));
+        assertEquals(1000L, cache.get("a", 0, Type.LONG, value, DF));
+        assertEquals((short) 1000, cache.get("a", 0, Type.SHORT, value, DF));
+        assertEquals(1000f, cache.get("a", 0, Type.FLOAT, value, DF));
+        assertNotSame(a, cache.get("a", 1, Type.INTEGER, value, DF));
+        assertNotSame(a, cache.get("b", 0, Type.INTEGER, value, DF));
+        assertSame(RestyValueCache.INVALID,
+                cache.get("a", 0, Type.BOOLEAN, value, DF));
+    }
+
+    @Test
+    public void testSource() {
+        RestyValueCache cache = new RestyValueCache();
+
+        Object a = cache.get("a", 0, Type.INTEGER, new String("1000"), DF);
+        Object b = cache.get("a", 0, Type.INTEGER, new String("1000"), DF);
+        assertEquals(a, b);
+        assertNotSame(a, b);
+        assertSame(RestyValueCache.INVALID,
+                cache.get("a", 0, Type.INTEGER, "x", DF));
+        assertEquals(2000, cache.get("a", 0, Type.INTEGER, "2000", DF));
+    }
+
+    @Test
+    public void testTypes() {
+        RestyValueCache cache = new RestyValueCache();
+
+        assertEquals(true, cache.get("a", 0, Type.BOOLEAN, "TRUE", DF));
+        assertEquals(false, cache.get("b", 0, Type.BOOLEAN, "false", DF));
+        assertEquals(DF.parse("2020-02-29"),
+                cache.get("c", 0, Type.DATE, "2020-02-29", DF));
+        assertEquals(LocalDate.of(2020, 2, 29),
+                cache.get("c", 0, Type.LOCAL_DATE, "2020-02-29", DF));
+        assertSame(RestyValueCache.INVALID,
+                cache.get("d", 0, Type.DATE, "2020/02/29", DF));
+        assertSame(RestyValueCache.INVALID,
+                cache.get("e", 0, Type.SHORT, "40000", DF));
+        assertSame(RestyValueCache.INVALID,
+                cache.get("f", 0, Type.FLOAT, "1,5", DF));
+        assertTrue(cache.get("c", 0, Type.DATE, "2020-02-29", DF)
+                instanceof Date);
+    }
+
+}
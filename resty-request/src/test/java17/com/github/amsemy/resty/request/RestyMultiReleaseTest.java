@@ -0,0 +1,24 @@
+package com.github.amsemy.resty.request;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.net.URL;
+
+public class RestyMultiReleaseTest {
+
+    private static void assertVersioned(Class<?> cls) {
+        URL url = cls.getResource(cls.getSimpleName() + ".class");
+        if (url.getProtocol().equals("jar")) {
+            assertTrue(url.toString(),
+                    url.getPath().contains("!/META-INF/versions/17/"));
+        }
+    }
+
+    @Test
+    public void testVersionedClasses() {
+        assertVersioned(RestyDateParser.class);
+        assertVersioned(RestyParamsMap.class);
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.github.amsemy.resty.request;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RestyParamsIndexTest {
+
+    @Before
+    public void setUp() {
+        assumeTrue(RestyParamsMap.class.getResource(
+                "RestyParamsMap.class").getPath()
+                .contains("!/META-INF/versions/17/"));
+    }
+
+    private static List<String> list(String value) {
+        List<String> result = new ArrayList<>(1);
+        result.add(value);
+        return result;
+    }
+
+    private static RestyParams indexedParams() {
+        RestyParams params = RestyParams.buildEmptyParams();
+        params.add("a[x]", "valueX");
+        assertNotNull(params.findNode(new String[] {"a", "x"}));
+        return params;
+    }
+
+    @Test
+    public void testCompute() {
+        RestyParams params = indexedParams();
+
+        params.compute("a[y]", (key, value) -> list("valueY"));
+        assertEquals("a[y]", params.findNode(new String[] {"a", "y"}).key);
+
+        params.compute("a[y]", (key, value) -> null);
+        assertFalse(params.containsKey("a[y]"));
+        assertNull(params.findNode(new String[] {"a", "y"}));
+        assertNotNull(params.findNode(new String[] {"a", "x"}));
+    }
+
+    @Test
+    public void testComputeIfAbsent() {
+        RestyParams params = indexedParams();
+
+        params.computeIfAbsent("a[y]", key -> list("valueY"));
+        assertEquals("a[y]", params.findNode(new String[] {"a", "y"}).key);
+
+        params.computeIfAbsent("a[z]", key -> null);
+        assertNull(params.findNode(new String[] {"a", "z"}));
+    }
+
+    @Test
+    public void testComputeIfPresent() {
+        RestyParams params = indexedParams();
+
+        params.computeIfPresent("a[x]", (key, value) -> null);
+        assertFalse(params.containsKey("a[x]"));
+        assertNull(params.findNode(new String[] {"a", "x"}));
+    }
+
+    @Test
+    public void testMerge() {
+        RestyParams params = indexedParams();
+
+        params.merge("a[y]", list("valueY"), (oldValue, value) -> null);
+        assertEquals("a[y]", params.findNode(new String[] {"a", "y"}).key);
+
+        params.merge("a[y]", list("valueY"), (oldValue, value) -> null);
+        assertFalse(params.containsKey("a[y]"));
+        assertNull(params.findNode(new String[] {"a", "y"}));
+    }
+
+    @Test
+    public void testPutIfAbsent() {
+        RestyParams params = indexedParams();
+        RestyRequest req = new RestyRequest(new RestyRequest(params), "a");
+        assertEquals("valueX", req.getString("x"));
+
+        params.putIfAbsent("a[y]", list("valueY"));
+        assertEquals("a[y]", params.findNode(new String[] {"a", "y"}).key);
+        assertEquals("valueY", req.getString("y"));
+    }
+
+    @Test
+    public void testRemoveValue() {
+        RestyParams params = indexedParams();
+
+        assertFalse(params.remove("a[x]", list("other")));
+        assertNotNull(params.findNode(new String[] {"a", "x"}));
+        assertTrue(params.remove("a[x]", list("valueX")));
+        assertNull(params.findNode(new String[] {"a", "x"}));
+    }
+
+}